@@ -0,0 +1,35 @@
+package elevator;
+
+/**
+ * Interface for anything passengers can arrive at, a single car's controller
+ * or a group of cars
+ * Traffic generators and scenario files feed arrivals through it
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public interface ArrivalTarget {
+    /**
+     * Gets the number of floors of the building
+     * 
+     * @return number of floors
+     */
+    int getNumberOfFloors();
+    
+    /**
+     * Gets the current simulation step number
+     * 
+     * @return current step
+     */
+    int getCurrentStep();
+    
+    /**
+     * Adds a passenger arriving at a floor and lets them call an elevator
+     * 
+     * @param origin the floor where the passenger arrives
+     * @param destination the floor the passenger wants to reach
+     * @param distracted true if the passenger may miss the elevator
+     * @return the new user
+     */
+    User addArrival(int origin, int destination, boolean distracted);
+}
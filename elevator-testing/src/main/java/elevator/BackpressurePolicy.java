@@ -0,0 +1,26 @@
+package elevator;
+
+/**
+ * Enum representing what a publisher does when a subscriber's buffer is full
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public enum BackpressurePolicy {
+    /**
+     * Drop the new event and keep the buffered ones
+     */
+    DROP,
+    
+    /**
+     * Drop the oldest buffered event to make room for the new one
+     */
+    LATEST,
+    
+    /**
+     * Wait until the subscriber frees space
+     * Only for consumers that must see every event: the simulation loop
+     * stalls while the buffer is full
+     */
+    BLOCK
+}
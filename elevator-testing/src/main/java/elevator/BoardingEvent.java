@@ -0,0 +1,30 @@
+package elevator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a passenger boarding the elevator
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+@Name("elevator.Boarding")
+@Label("Passenger Boarding")
+@Category("Elevator")
+@Description("A passenger entering the elevator")
+@StackTrace(false)
+class BoardingEvent extends jdk.jfr.Event {
+    
+    @Label("Step")
+    int step;
+    
+    @Label("Floor")
+    int floor;
+    
+    @Label("Destination")
+    int destination;
+}
@@ -0,0 +1,69 @@
+package elevator;
+
+/**
+ * Enum representing the service class of a hall call
+ * Classes that preempt make the car leave its current sweep to serve them
+ * first; the others are served by the normal sweep and only tracked for
+ * their response times
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public enum CallPriority {
+    /**
+     * Ordinary passenger call
+     */
+    NORMAL(false, 0),
+    
+    /**
+     * Goods transport, served by the normal sweep
+     */
+    FREIGHT(false, 0),
+    
+    /**
+     * Priority passenger, preempts normal sweeps
+     */
+    VIP(true, 40),
+    
+    /**
+     * Passenger with reduced mobility, preempts normal sweeps
+     */
+    ACCESSIBILITY(true, 30),
+    
+    /**
+     * Emergency service, preempts normal sweeps without any bound
+     */
+    EMERGENCY(true, 20);
+    
+    private final boolean preempts;
+    private final int targetWaitSteps;
+    
+    /**
+     * Constructor for CallPriority
+     * 
+     * @param preempts true if calls of this class preempt normal sweeps
+     * @param targetWaitSteps response time target in steps, 0 if none
+     */
+    CallPriority(boolean preempts, int targetWaitSteps) {
+        this.preempts = preempts;
+        this.targetWaitSteps = targetWaitSteps;
+    }
+    
+    /**
+     * Checks if calls of this class preempt normal sweeps
+     * 
+     * @return true if the class preempts
+     */
+    public boolean preempts() {
+        return preempts;
+    }
+    
+    /**
+     * Gets the response time target of this class
+     * 
+     * @return maximum wait in steps from arrival to boarding, 0 if there is no target
+     */
+    public int getTargetWaitSteps() {
+        return targetWaitSteps;
+    }
+}
@@ -0,0 +1,723 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Assigns new hall calls to the cars of a group
+ * Every candidate assignment is scored by predicting each car's sweep over
+ * its pending stops and the new calls: the cost adds the predicted wait of
+ * every call to the weighted predicted ride time of every passenger. A
+ * greedy assignment is built first; batches of several calls are then
+ * improved by parallel simulated annealing chains on a fork/join pool, each
+ * started from the greedy assignment. Every decision has a strict wall-time
+ * budget: a search cut short by it is counted as truncated, and the greedy
+ * assignment is used when no chain reports in time. In deterministic mode
+ * the budget is not applied and chains stop after their fixed number of
+ * iterations drawn from the seeded "dispatch" randomness, so the chosen
+ * assignment does not depend on machine speed or load
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class CarAssignmentEngine {
+    /**
+     * Wall-time budget of one decision by default, in nanoseconds
+     */
+    public static final long DEFAULT_BUDGET_NANOS = 2_000_000L;
+    
+    /**
+     * Annealing iterations per chain by default
+     */
+    public static final int DEFAULT_ITERATIONS = 2000;
+    
+    /**
+     * Annealing chains per decision by default
+     */
+    public static final int DEFAULT_CHAINS = 4;
+    
+    private final ForkJoinPool pool;
+    private long budgetNanos;
+    private int chains;
+    private int iterations;
+    private boolean deterministic;
+    private double rideWeight;
+    private SimulationRandom random;
+    private long decisions;
+    private long searches;
+    private long fallbacks;
+    private long truncatedSearches;
+    private long improvedSearches;
+    private double improvementSum;
+    private final Histogram decisionMicros;
+    
+    /**
+     * Constructor for CarAssignmentEngine
+     * The number of chains does not follow the pool's parallelism, so the
+     * assignments are the same on every machine; the pool only sets how many
+     * of them run at once
+     * 
+     * @param pool the pool the annealing chains run on
+     */
+    public CarAssignmentEngine(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("Pool is required");
+        }
+        this.pool = pool;
+        this.budgetNanos = DEFAULT_BUDGET_NANOS;
+        this.chains = DEFAULT_CHAINS;
+        this.iterations = DEFAULT_ITERATIONS;
+        this.rideWeight = 0.5;
+        this.random = SimulationRandom.unseeded().subsystem("dispatch");
+        this.decisionMicros = new Histogram();
+    }
+    
+    /**
+     * Sets the wall-time budget of one decision
+     * A search cut short by the budget may assign differently between runs
+     * with the same seed; with a budget of 0 every search falls back to greedy.
+     * The budget is not applied in deterministic mode
+     * 
+     * @param nanos the budget in nanoseconds
+     */
+    public void setTimeBudget(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative: " + nanos);
+        }
+        this.budgetNanos = nanos;
+    }
+    
+    /**
+     * Gets the wall-time budget of one decision
+     * 
+     * @return the budget in nanoseconds
+     */
+    public long getTimeBudget() {
+        return budgetNanos;
+    }
+    
+    /**
+     * Sets whether searches ignore the time budget and always run their iterations
+     * Deterministic runs with the same seed assign every call identically on
+     * any machine, at the cost of unbounded decision times
+     * 
+     * @param deterministic true to bound searches by iterations only
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+    
+    /**
+     * Checks whether searches ignore the time budget
+     * 
+     * @return true if searches are bounded by iterations only
+     */
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+    
+    /**
+     * Sets the number of annealing chains run in parallel per decision
+     * 
+     * @param chains the number of chains
+     */
+    public void setChains(int chains) {
+        if (chains < 1) {
+            throw new IllegalArgumentException("At least one chain is required: " + chains);
+        }
+        this.chains = chains;
+    }
+    
+    /**
+     * Sets the number of annealing iterations per chain
+     * 
+     * @param iterations the iterations per chain
+     */
+    public void setIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("At least one iteration is required: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+    
+    /**
+     * Sets the weight of predicted ride time against predicted wait time
+     * 
+     * @param weight the ride time weight
+     */
+    public void setRideWeight(double weight) {
+        if (!(weight >= 0.0)) {
+            throw new IllegalArgumentException("Ride weight must not be negative: " + weight);
+        }
+        this.rideWeight = weight;
+    }
+    
+    /**
+     * Sets the random hierarchy the annealing chains draw from
+     * Each decision derives its own child node and each chain a seed of that
+     * node, so a run is reproducible as long as no search is truncated
+     * 
+     * @param random the random hierarchy of the dispatcher
+     */
+    public void setRandom(SimulationRandom random) {
+        this.random = random;
+    }
+    
+    /**
+     * Assigns a batch of new hall calls to cars
+     * 
+     * @param cars the predicted state of every car
+     * @param origins the floor of each new call
+     * @param destinations the destination of the passenger of each new call
+     * @return the car index of each call
+     */
+    public int[] assign(CarState[] cars, int[] origins, int[] destinations) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        if (cars.length == 0) {
+            throw new IllegalArgumentException("At least one car is required");
+        }
+        if (origins.length != destinations.length) {
+            throw new IllegalArgumentException("Every call needs a destination");
+        }
+        decisions++;
+        Problem problem = new Problem(cars, origins, destinations, rideWeight);
+        int[] greedy = problem.greedy();
+        // One call or one car: the greedy choice already compares every option
+        if (origins.length < 2 || cars.length < 2) {
+            decisionMicros.record((System.nanoTime() - start) / 1000L);
+            return greedy;
+        }
+        
+        searches++;
+        if (!deterministic && budgetNanos == 0L) {
+            // No time at all: greedy without starting chains that could not report
+            fallbacks++;
+            decisionMicros.record((System.nanoTime() - start) / 1000L);
+            return greedy;
+        }
+        double greedyCost = problem.totalCost(greedy);
+        long chainDeadline = deterministic ? Long.MAX_VALUE : deadline - budgetNanos / 10;
+        SimulationRandom decisionRandom = new SimulationRandom(random.childSeed(decisions));
+        List<Future<Chain>> running = new ArrayList<>(chains);
+        for (int c = 0; c < chains; c++) {
+            long seed = decisionRandom.childSeed(c);
+            running.add(pool.submit(new Chain(problem, greedy, greedyCost, seed, iterations, chainDeadline)));
+        }
+        
+        // Chains are compared in submission order, so ties resolve the same way every run
+        Chain best = null;
+        boolean truncated = false;
+        for (Future<Chain> future : running) {
+            try {
+                Chain chain = deterministic ? future.get()
+                    : future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                truncated |= chain.truncated;
+                if (best == null || chain.bestCost < best.bestCost) {
+                    best = chain;
+                }
+            } catch (TimeoutException e) {
+                truncated = true;
+                future.cancel(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                truncated = true;
+                future.cancel(true);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Assignment search failed", e.getCause());
+            }
+        }
+        decisionMicros.record((System.nanoTime() - start) / 1000L);
+        if (truncated) {
+            truncatedSearches++;
+        }
+        
+        // A fallback means no chain result was collected, however the wait ended
+        if (best == null) {
+            fallbacks++;
+            return greedy;
+        }
+        if (best.bestCost < greedyCost) {
+            improvedSearches++;
+            improvementSum += (greedyCost - best.bestCost) / greedyCost;
+            return best.best;
+        }
+        return greedy;
+    }
+    
+    /**
+     * Predicts the total cost of an assignment
+     * 
+     * @param cars the predicted state of every car
+     * @param origins the floor of each new call
+     * @param destinations the destination of the passenger of each new call
+     * @param assignment the car index of each call
+     * @return the summed predicted wait and weighted ride time
+     */
+    public double cost(CarState[] cars, int[] origins, int[] destinations, int[] assignment) {
+        return new Problem(cars, origins, destinations, rideWeight).totalCost(assignment);
+    }
+    
+    /**
+     * Gets the number of decisions taken
+     * 
+     * @return decision count
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+    
+    /**
+     * Gets the number of decisions that ran the annealing search
+     * 
+     * @return search count
+     */
+    public long getSearches() {
+        return searches;
+    }
+    
+    /**
+     * Gets the number of searches that fell back to greedy because no chain
+     * result was collected, including every search with a budget of 0
+     * 
+     * @return fallback count
+     */
+    public long getGreedyFallbacks() {
+        return fallbacks;
+    }
+    
+    /**
+     * Gets the number of searches cut short by the time budget
+     * Their assignments may differ between runs with the same seed
+     * 
+     * @return truncated search count
+     */
+    public long getTruncatedSearches() {
+        return truncatedSearches;
+    }
+    
+    /**
+     * Gets the number of searches that beat the greedy assignment
+     * 
+     * @return improved search count
+     */
+    public long getImprovedSearches() {
+        return improvedSearches;
+    }
+    
+    /**
+     * Gets the mean relative cost reduction of the improved searches
+     * 
+     * @return mean improvement over greedy, between 0 and 1
+     */
+    public double getMeanImprovement() {
+        return improvedSearches == 0 ? 0.0 : improvementSum / improvedSearches;
+    }
+    
+    /**
+     * Gets the histogram of decision durations
+     * 
+     * @return decision durations in microseconds
+     */
+    public Histogram getDecisionHistogram() {
+        return decisionMicros;
+    }
+    
+    /**
+     * Predicted state of one car: where it is, where it goes and which stops it has pending
+     */
+    public static final class CarState {
+        private final int floor;
+        private final Direction direction;
+        private final int stopSteps;
+        private final boolean[] destinations;
+        private final boolean[] upCalls;
+        private final boolean[] downCalls;
+        
+        /**
+         * Constructor for CarState with no pending stops
+         * 
+         * @param numberOfFloors the number of floors
+         * @param floor the current floor of the car
+         * @param direction the current direction of the car
+         * @param stopSteps the steps a stop takes
+         */
+        public CarState(int numberOfFloors, int floor, Direction direction, int stopSteps) {
+            this.floor = floor;
+            this.direction = direction;
+            this.stopSteps = Math.max(1, stopSteps);
+            this.destinations = new boolean[numberOfFloors];
+            this.upCalls = new boolean[numberOfFloors];
+            this.downCalls = new boolean[numberOfFloors];
+        }
+        
+        /**
+         * Captures the state of the car of a controller
+         * Must be called by the thread stepping the controller
+         * 
+         * @param controller the controller of the car
+         * @return the car state
+         */
+        public static CarState of(ElevatorController controller) {
+            Elevator elevator = controller.getElevator();
+            int floors = controller.getNumberOfFloors();
+            CarState state = new CarState(floors, elevator.getCurrentFloor(), elevator.getDirection(),
+                                          controller.getDoorOpenSteps() + 1);
+            for (int floor = 0; floor < floors; floor++) {
+                state.destinations[floor] = elevator.hasDestination(floor);
+                state.upCalls[floor] = elevator.hasCallAtFloor(floor, Direction.UP);
+                state.downCalls[floor] = elevator.hasCallAtFloor(floor, Direction.DOWN);
+            }
+            return state;
+        }
+        
+        /**
+         * Adds a pending car destination
+         * 
+         * @param floor the destination floor
+         */
+        public void addDestination(int floor) {
+            destinations[floor] = true;
+        }
+        
+        /**
+         * Adds a pending hall call
+         * 
+         * @param floor the floor of the call
+         * @param direction the direction of the call
+         */
+        public void addCall(int floor, Direction direction) {
+            if (direction == Direction.UP) {
+                upCalls[floor] = true;
+            } else if (direction == Direction.DOWN) {
+                downCalls[floor] = true;
+            }
+        }
+    }
+    
+    /**
+     * One assignment problem: the cars, the new calls and the cost model
+     */
+    private static final class Problem {
+        private final CarState[] cars;
+        private final int[] origins;
+        private final int[] destinations;
+        private final double rideWeight;
+        
+        Problem(CarState[] cars, int[] origins, int[] destinations, double rideWeight) {
+            this.cars = cars;
+            this.origins = origins;
+            this.destinations = destinations;
+            this.rideWeight = rideWeight;
+        }
+        
+        /**
+         * Assigns the calls one by one, each to the car it adds the least cost to
+         * 
+         * @return the greedy assignment
+         */
+        int[] greedy() {
+            Route route = new Route(this);
+            int[] assignment = new int[origins.length];
+            Arrays.fill(assignment, -1);
+            double[] carCosts = new double[cars.length];
+            for (int car = 0; car < cars.length; car++) {
+                carCosts[car] = route.cost(car, assignment);
+            }
+            for (int call = 0; call < origins.length; call++) {
+                int bestCar = 0;
+                double bestDelta = Double.MAX_VALUE;
+                double bestCost = 0.0;
+                for (int car = 0; car < cars.length; car++) {
+                    assignment[call] = car;
+                    double cost = route.cost(car, assignment);
+                    if (cost - carCosts[car] < bestDelta) {
+                        bestDelta = cost - carCosts[car];
+                        bestCar = car;
+                        bestCost = cost;
+                    }
+                }
+                assignment[call] = bestCar;
+                carCosts[bestCar] = bestCost;
+            }
+            return assignment;
+        }
+        
+        /**
+         * Predicts the cost of an assignment over all cars
+         * 
+         * @param assignment the car index of each call
+         * @return the total cost
+         */
+        double totalCost(int[] assignment) {
+            Route route = new Route(this);
+            double total = 0.0;
+            for (int car = 0; car < cars.length; car++) {
+                total += route.cost(car, assignment);
+            }
+            return total;
+        }
+    }
+    
+    /**
+     * Sweep prediction of one car, with scratch arrays reused between evaluations
+     */
+    private static final class Route {
+        private final Problem problem;
+        private final boolean[] stopDestination;
+        private final boolean[] pendingRiders;
+        private final boolean[] stopUp;
+        private final boolean[] stopDown;
+        private final int[] headUp;
+        private final int[] headDown;
+        private final int[] nextCall;
+        private final int[] rideCount;
+        private final double[] rideStartSum;
+        
+        Route(Problem problem) {
+            int floors = problem.cars[0].destinations.length;
+            this.problem = problem;
+            this.stopDestination = new boolean[floors];
+            this.pendingRiders = new boolean[floors];
+            this.stopUp = new boolean[floors];
+            this.stopDown = new boolean[floors];
+            this.headUp = new int[floors];
+            this.headDown = new int[floors];
+            this.nextCall = new int[problem.origins.length];
+            this.rideCount = new int[floors];
+            this.rideStartSum = new double[floors];
+        }
+        
+        /**
+         * Predicts the cost of one car serving its pending stops and its assigned calls
+         * The car sweeps in its direction while stops lie ahead and turns
+         * around otherwise, serving hall calls in their direction only
+         * 
+         * @param car the car index
+         * @param assignment the car index of each call, -1 for unassigned
+         * @return the summed wait of every call and weighted ride time of every passenger
+         */
+        double cost(int car, int[] assignment) {
+            CarState state = problem.cars[car];
+            int floors = stopDestination.length;
+            int remaining = 0;
+            for (int floor = 0; floor < floors; floor++) {
+                stopDestination[floor] = state.destinations[floor];
+                pendingRiders[floor] = state.destinations[floor];
+                stopUp[floor] = state.upCalls[floor];
+                stopDown[floor] = state.downCalls[floor];
+                headUp[floor] = -1;
+                headDown[floor] = -1;
+                rideCount[floor] = 0;
+                rideStartSum[floor] = 0.0;
+                remaining += (stopDestination[floor] ? 1 : 0) + (stopUp[floor] ? 1 : 0) + (stopDown[floor] ? 1 : 0);
+            }
+            for (int call = 0; call < assignment.length; call++) {
+                if (assignment[call] != car) {
+                    continue;
+                }
+                int origin = problem.origins[call];
+                if (problem.destinations[call] > origin) {
+                    nextCall[call] = headUp[origin];
+                    headUp[origin] = call;
+                } else {
+                    nextCall[call] = headDown[origin];
+                    headDown[origin] = call;
+                }
+                remaining++;
+            }
+            if (remaining == 0) {
+                return 0.0;
+            }
+            
+            int position = state.floor;
+            int step = state.direction == Direction.UP ? 1 : state.direction == Direction.DOWN ? -1
+                : nearestStepTowardStops(position);
+            double time = 0.0;
+            double cost = 0.0;
+            int guard = 4 * floors + 4 * assignment.length + 4;
+            while (remaining > 0 && guard-- > 0) {
+                if (!wantsStop(position, step) && !stopsAhead(position, step)) {
+                    step = -step;
+                }
+                if (wantsStop(position, step)) {
+                    if (stopDestination[position]) {
+                        stopDestination[position] = false;
+                        remaining--;
+                        // Pending riders and new riders alighting here
+                        double existing = pendingRiders[position] ? time : 0.0;
+                        pendingRiders[position] = false;
+                        cost += problem.rideWeight * (existing + rideCount[position] * time - rideStartSum[position]);
+                        rideCount[position] = 0;
+                        rideStartSum[position] = 0.0;
+                    }
+                    boolean[] calls = step > 0 ? stopUp : stopDown;
+                    int[] heads = step > 0 ? headUp : headDown;
+                    if (calls[position]) {
+                        calls[position] = false;
+                        remaining--;
+                        cost += time;
+                    }
+                    for (int call = heads[position]; call >= 0; call = nextCall[call]) {
+                        remaining--;
+                        cost += time;
+                        int destination = problem.destinations[call];
+                        if (!stopDestination[destination]) {
+                            stopDestination[destination] = true;
+                            remaining++;
+                        }
+                        rideCount[destination]++;
+                        rideStartSum[destination] += time;
+                    }
+                    heads[position] = -1;
+                    time += state.stopSteps;
+                }
+                if (remaining > 0 && stopsAhead(position, step)) {
+                    position += step;
+                    time += 1.0;
+                }
+            }
+            return cost;
+        }
+        
+        /**
+         * Checks if the car stops at a floor when travelling in a direction
+         * 
+         * @param floor the floor
+         * @param step +1 going up, -1 going down
+         * @return true if a destination or a call in that direction is pending there
+         */
+        private boolean wantsStop(int floor, int step) {
+            if (stopDestination[floor]) {
+                return true;
+            }
+            return step > 0 ? stopUp[floor] || headUp[floor] >= 0 : stopDown[floor] || headDown[floor] >= 0;
+        }
+        
+        /**
+         * Checks if any stop is pending beyond a floor in a direction
+         * 
+         * @param floor the floor
+         * @param step +1 to look up, -1 to look down
+         * @return true if a stop lies ahead
+         */
+        private boolean stopsAhead(int floor, int step) {
+            for (int f = floor + step; f >= 0 && f < stopDestination.length; f += step) {
+                if (stopDestination[f] || stopUp[f] || stopDown[f] || headUp[f] >= 0 || headDown[f] >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Picks the initial direction of an idle car, toward its nearest stop
+         * 
+         * @param floor the floor of the car
+         * @return +1 to go up, -1 to go down
+         */
+        private int nearestStepTowardStops(int floor) {
+            for (int distance = 0; distance < stopDestination.length; distance++) {
+                if (floor + distance < stopDestination.length && hasStop(floor + distance)) {
+                    return 1;
+                }
+                if (floor - distance >= 0 && hasStop(floor - distance)) {
+                    return -1;
+                }
+            }
+            return 1;
+        }
+        
+        /**
+         * Checks if any stop is pending at a floor
+         * 
+         * @param floor the floor
+         * @return true if a destination or a call is pending there
+         */
+        private boolean hasStop(int floor) {
+            return stopDestination[floor] || stopUp[floor] || stopDown[floor] || headUp[floor] >= 0
+                || headDown[floor] >= 0;
+        }
+    }
+    
+    /**
+     * One simulated annealing chain, started from the greedy assignment
+     */
+    private static final class Chain implements Callable<Chain> {
+        private final Problem problem;
+        private final int[] start;
+        private final double startCost;
+        private final long seed;
+        private final int iterations;
+        private final long deadline;
+        private int[] best;
+        private double bestCost;
+        private boolean truncated;
+        
+        Chain(Problem problem, int[] start, double startCost, long seed, int iterations, long deadline) {
+            this.problem = problem;
+            this.start = start;
+            this.startCost = startCost;
+            this.seed = seed;
+            this.iterations = iterations;
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public Chain call() {
+            SplittableRandom random = new SplittableRandom(seed);
+            Route route = new Route(problem);
+            int cars = problem.cars.length;
+            int calls = start.length;
+            int[] current = start.clone();
+            double[] carCosts = new double[cars];
+            for (int car = 0; car < cars; car++) {
+                carCosts[car] = route.cost(car, current);
+            }
+            double currentCost = startCost;
+            best = current.clone();
+            bestCost = startCost;
+            
+            // Cool geometrically from a tenth of the mean cost per call to a hundredth of that
+            double temperature = Math.max(1.0, startCost / calls / 10.0);
+            double cooling = Math.pow(0.01, 1.0 / iterations);
+            for (int i = 0; i < iterations; i++) {
+                if ((i & 15) == 0 && System.nanoTime() >= deadline) {
+                    truncated = true;
+                    break;
+                }
+                int call = random.nextInt(calls);
+                int from = current[call];
+                int to = random.nextInt(cars - 1);
+                if (to >= from) {
+                    to++;
+                }
+                current[call] = to;
+                double fromCost = route.cost(from, current);
+                double toCost = route.cost(to, current);
+                double delta = fromCost + toCost - carCosts[from] - carCosts[to];
+                if (delta <= 0.0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    carCosts[from] = fromCost;
+                    carCosts[to] = toCost;
+                    currentCost += delta;
+                    if (currentCost < bestCost - 1e-9) {
+                        bestCost = currentCost;
+                        System.arraycopy(current, 0, best, 0, calls);
+                    }
+                } else {
+                    current[call] = from;
+                }
+                temperature *= cooling;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package elevator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live metrics of one elevator car
+ * Counters are striped LongAdders, so recording from the step thread or
+ * door timer threads never contends with monitoring readers
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class CarMetrics implements CarMetricsMXBean {
+    private final Elevator elevator;
+    private final LongAdder boardings;
+    private final LongAdder alightings;
+    private final LongAdder openDoorNanos;
+    private final LongAdder doorTimerRearms;
+    private final LongAdder doorReopens;
+    
+    /**
+     * Constructor for CarMetrics
+     * 
+     * @param elevator the car whose metrics are published
+     */
+    public CarMetrics(Elevator elevator) {
+        this.elevator = elevator;
+        this.boardings = new LongAdder();
+        this.alightings = new LongAdder();
+        this.openDoorNanos = new LongAdder();
+        this.doorTimerRearms = new LongAdder();
+        this.doorReopens = new LongAdder();
+    }
+    
+    /**
+     * Records a passenger boarding the car
+     */
+    void recordBoarding() {
+        boardings.increment();
+    }
+    
+    /**
+     * Records a passenger leaving the car
+     */
+    void recordAlighting() {
+        alightings.increment();
+    }
+    
+    /**
+     * Records how long a door stayed open
+     * 
+     * @param nanos open duration in nanoseconds
+     */
+    void recordDoorOpenTime(long nanos) {
+        openDoorNanos.add(nanos);
+    }
+    
+    /**
+     * Records a door close timer being re-armed
+     */
+    void recordDoorTimerRearm() {
+        doorTimerRearms.increment();
+    }
+    
+    /**
+     * Records an open door restarting its dwell for a hall call
+     */
+    void recordDoorReopen() {
+        doorReopens.increment();
+    }
+    
+    @Override
+    public int getCurrentFloor() {
+        return elevator.getCurrentFloor();
+    }
+    
+    @Override
+    public String getDirection() {
+        return elevator.getDirection().name();
+    }
+    
+    @Override
+    public boolean isStopped() {
+        return elevator.isStopped();
+    }
+    
+    @Override
+    public int getPendingHallCalls() {
+        return elevator.getPendingCallCount();
+    }
+    
+    @Override
+    public int getPendingCarCalls() {
+        return elevator.getPendingDestinationCount();
+    }
+    
+    @Override
+    public int getPassengers() {
+        return elevator.getUserCount();
+    }
+    
+    @Override
+    public long getBoardings() {
+        return boardings.sum();
+    }
+    
+    @Override
+    public long getAlightings() {
+        return alightings.sum();
+    }
+    
+    @Override
+    public long getOpenDoorMillis() {
+        return openDoorNanos.sum() / 1_000_000L;
+    }
+    
+    @Override
+    public long getDoorTimerRearms() {
+        return doorTimerRearms.sum();
+    }
+    
+    @Override
+    public long getDoorReopens() {
+        return doorReopens.sum();
+    }
+    
+    @Override
+    public long getFloorsTravelled() {
+        return elevator.getFloorsTravelled();
+    }
+    
+    @Override
+    public double getDecisionCacheHitRate() {
+        return elevator.getDecisionCacheHitRate();
+    }
+    
+    @Override
+    public double getSimulatedSeconds() {
+        return elevator.getSimulatedSeconds();
+    }
+}
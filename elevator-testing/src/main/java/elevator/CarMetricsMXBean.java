@@ -0,0 +1,108 @@
+package elevator;
+
+/**
+ * Management interface publishing live metrics of one elevator car
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public interface CarMetricsMXBean {
+    
+    /**
+     * Gets the current floor of the car
+     * 
+     * @return current floor of the car
+     */
+    int getCurrentFloor();
+    
+    /**
+     * Gets the direction of the car
+     * 
+     * @return current direction of the car (UP, DOWN or NONE)
+     */
+    String getDirection();
+    
+    /**
+     * Checks if the car is stopped
+     * 
+     * @return true if the car is stopped
+     */
+    boolean isStopped();
+    
+    /**
+     * Gets the number of pending hall calls
+     * 
+     * @return number of pending hall calls (floor and direction pairs)
+     */
+    int getPendingHallCalls();
+    
+    /**
+     * Gets the number of pending car calls
+     * 
+     * @return number of pending car calls (destinations)
+     */
+    int getPendingCarCalls();
+    
+    /**
+     * Gets the number of passengers inside the car
+     * 
+     * @return number of passengers inside the car
+     */
+    int getPassengers();
+    
+    /**
+     * Gets the boarding count
+     * 
+     * @return total number of passengers that boarded the car
+     */
+    long getBoardings();
+    
+    /**
+     * Gets the alighting count
+     * 
+     * @return total number of passengers that left the car
+     */
+    long getAlightings();
+    
+    /**
+     * Gets the accumulated open-door time
+     * 
+     * @return total time doors served by this car were open, in milliseconds
+     */
+    long getOpenDoorMillis();
+    
+    /**
+     * Gets the door timer re-arm count
+     * 
+     * @return number of times a door close timer was re-armed for entering users
+     */
+    long getDoorTimerRearms();
+    
+    /**
+     * Gets the door reopen count
+     * 
+     * @return number of times an open door restarted its dwell for a hall call at its floor
+     */
+    long getDoorReopens();
+    
+    /**
+     * Gets the floors travelled
+     * 
+     * @return total number of floors travelled
+     */
+    long getFloorsTravelled();
+    
+    /**
+     * Gets the decision cache hit rate
+     * 
+     * @return fraction of direction decisions served from the cache
+     */
+    double getDecisionCacheHitRate();
+    
+    /**
+     * Gets the simulated time
+     * 
+     * @return simulated travel and door time in seconds
+     */
+    double getSimulatedSeconds();
+}
@@ -0,0 +1,167 @@
+package elevator;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-producer mailbox of an actor-mode controller
+ * Any thread posts commands without locking; the owning thread drains them
+ * in batches at the start of each step. Every command is stamped when posted,
+ * so the mailbox measures its throughput and queueing latency
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class CommandMailbox {
+    /**
+     * Maximum number of commands applied per step by default
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    
+    private final Queue<Envelope> queue;
+    private final int batchSize;
+    private final LongAdder posted;
+    private final LongAdder applied;
+    private final LongAdder failed;
+    private final LongAdder dropped;
+    private final LongAdder batches;
+    private final Histogram latencyMicros;
+    
+    /**
+     * Constructor for CommandMailbox
+     * 
+     * @param batchSize maximum number of commands applied per drain
+     */
+    public CommandMailbox(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.batchSize = batchSize;
+        this.posted = new LongAdder();
+        this.applied = new LongAdder();
+        this.failed = new LongAdder();
+        this.dropped = new LongAdder();
+        this.batches = new LongAdder();
+        this.latencyMicros = new Histogram();
+    }
+    
+    /**
+     * Posts a command from any thread
+     * 
+     * @param command the command
+     */
+    public void post(ControllerCommand command) {
+        if (command == null) {
+            throw new NullPointerException("Command is required");
+        }
+        queue.offer(new Envelope(command, System.nanoTime()));
+        posted.increment();
+    }
+    
+    /**
+     * Applies up to one batch of commands in the order they were posted
+     * Must only be called by the owning thread. A failing command is counted
+     * and skipped so it cannot stall the mailbox
+     * 
+     * @param controller the controller the commands apply to
+     * @return number of commands applied
+     */
+    int drain(ElevatorController controller) {
+        int count = 0;
+        Envelope envelope;
+        while (count < batchSize && (envelope = queue.poll()) != null) {
+            latencyMicros.record((System.nanoTime() - envelope.postedAtNanos) / 1000L);
+            try {
+                envelope.command.apply(controller);
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.out.println("Controller command failed: " + e);
+            }
+            count++;
+        }
+        if (count > 0) {
+            applied.add(count);
+            batches.increment();
+        }
+        return count;
+    }
+    
+    /**
+     * Drops every pending command
+     */
+    void clear() {
+        while (queue.poll() != null) {
+            dropped.increment();
+        }
+    }
+    
+    /**
+     * Gets the number of commands waiting to be applied
+     * 
+     * @return pending command count
+     */
+    public long getPendingCount() {
+        return Math.max(0L, posted.sum() - applied.sum() - dropped.sum());
+    }
+    
+    /**
+     * Gets the number of commands posted so far
+     * 
+     * @return posted command count
+     */
+    public long getPostedCount() {
+        return posted.sum();
+    }
+    
+    /**
+     * Gets the number of commands applied so far, failed ones included
+     * 
+     * @return applied command count
+     */
+    public long getAppliedCount() {
+        return applied.sum();
+    }
+    
+    /**
+     * Gets the number of commands that threw when applied
+     * 
+     * @return failed command count
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+    
+    /**
+     * Gets the mean number of commands applied per non-empty batch
+     * 
+     * @return mean batch size, or 0.0 if nothing was applied
+     */
+    public double getMeanBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0.0 : (double) applied.sum() / count;
+    }
+    
+    /**
+     * Gets the histogram of the time commands spent in the mailbox
+     * 
+     * @return queueing latency histogram in microseconds
+     */
+    public Histogram getLatencyHistogram() {
+        return latencyMicros;
+    }
+    
+    /**
+     * Command stamped with its posting time
+     */
+    private static final class Envelope {
+        private final ControllerCommand command;
+        private final long postedAtNanos;
+        
+        Envelope(ControllerCommand command, long postedAtNanos) {
+            this.command = command;
+            this.postedAtNanos = postedAtNanos;
+        }
+    }
+}
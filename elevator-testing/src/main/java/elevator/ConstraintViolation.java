@@ -0,0 +1,93 @@
+package elevator;
+
+/**
+ * Typed event describing a safety constraint violation
+ * Produced by the SafetyMonitor at the moment the violating transition happens
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public final class ConstraintViolation {
+    
+    /**
+     * Kinds of safety constraints checked by the monitor
+     */
+    public enum Type {
+        /**
+         * A door is open while the elevator is moving
+         */
+        DOOR_OPEN_WHILE_MOVING,
+        
+        /**
+         * More than one door is open at the same time
+         */
+        MULTIPLE_DOORS_OPEN
+    }
+    
+    private final Type type;
+    private final int step;
+    private final int floor;
+    private final int openDoorCount;
+    
+    /**
+     * Constructor for ConstraintViolation
+     * 
+     * @param type the violated constraint
+     * @param step the simulation step at which the violation occurred
+     * @param floor the floor of the door involved in the violation
+     * @param openDoorCount number of doors open when the violation occurred
+     */
+    public ConstraintViolation(Type type, int step, int floor, int openDoorCount) {
+        this.type = type;
+        this.step = step;
+        this.floor = floor;
+        this.openDoorCount = openDoorCount;
+    }
+    
+    /**
+     * Gets the violated constraint
+     * 
+     * @return the violation type
+     */
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Gets the simulation step at which the violation occurred
+     * 
+     * @return step number
+     */
+    public int getStep() {
+        return step;
+    }
+    
+    /**
+     * Gets the floor of the door involved in the violation
+     * 
+     * @return floor number
+     */
+    public int getFloor() {
+        return floor;
+    }
+    
+    /**
+     * Gets the number of doors that were open when the violation occurred
+     * 
+     * @return open door count
+     */
+    public int getOpenDoorCount() {
+        return openDoorCount;
+    }
+    
+    /**
+     * Returns string representation of the violation
+     * 
+     * @return string describing the violation
+     */
+    @Override
+    public String toString() {
+        return "ConstraintViolation[type=" + type + ", step=" + step + 
+               ", floor=" + floor + ", openDoors=" + openDoorCount + "]";
+    }
+}
@@ -0,0 +1,20 @@
+package elevator;
+
+/**
+ * Mutation of a controller posted to its mailbox
+ * Commands are applied one at a time on the thread that steps the
+ * controller, so they may use any controller, elevator or door method
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ControllerCommand {
+    
+    /**
+     * Applies the command
+     * 
+     * @param controller the controller owning the mailbox
+     */
+    void apply(ElevatorController controller);
+}
@@ -0,0 +1,100 @@
+package elevator;
+
+/**
+ * Typed event describing controller activity
+ * Published to the subscribers of the ControllerEventPublisher
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public final class ControllerEvent {
+    
+    /**
+     * Kinds of controller activity
+     */
+    public enum Type {
+        /**
+         * The car reached another floor
+         */
+        MOVE,
+        
+        /**
+         * The car stopped at a floor
+         */
+        STOP,
+        
+        /**
+         * A door opened
+         */
+        DOOR_OPENED,
+        
+        /**
+         * A door closed
+         */
+        DOOR_CLOSED,
+        
+        /**
+         * A passenger boarded the car
+         */
+        BOARDING,
+        
+        /**
+         * A passenger left the car at their destination
+         */
+        ALIGHTING
+    }
+    
+    private final Type type;
+    private final int step;
+    private final int floor;
+    
+    /**
+     * Constructor for ControllerEvent
+     * 
+     * @param type the kind of activity
+     * @param step the simulation step of the activity
+     * @param floor the floor where it happened
+     */
+    public ControllerEvent(Type type, int step, int floor) {
+        this.type = type;
+        this.step = step;
+        this.floor = floor;
+    }
+    
+    /**
+     * Gets the kind of activity
+     * 
+     * @return the event type
+     */
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Gets the simulation step of the activity
+     * 
+     * @return step number
+     */
+    public int getStep() {
+        return step;
+    }
+    
+    /**
+     * Gets the floor where the activity happened
+     * 
+     * @return floor number
+     */
+    public int getFloor() {
+        return floor;
+    }
+    
+    /**
+     * Returns string representation of the event
+     * 
+     * @return string describing the event
+     */
+    @Override
+    public String toString() {
+        return "ControllerEvent[type=" + type + ", step=" + step + ", floor=" + floor + "]";
+    }
+}
@@ -0,0 +1,288 @@
+package elevator;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the activity of a controller as a reactive stream
+ * Every subscriber gets its own bounded buffer and backpressure policy, and
+ * events are delivered on an executor, never on the simulation thread, so a
+ * slow subscriber only loses events (DROP, LATEST) or, if it asked for it,
+ * holds the simulation back (BLOCK). Nothing is allocated while there is no
+ * subscriber
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ControllerEventPublisher implements Flow.Publisher<ControllerEvent>, ElevatorListener {
+    /**
+     * Buffer size used by subscribe(Subscriber)
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    
+    private final ElevatorController controller;
+    private final Executor executor;
+    private final List<EventSubscription> subscriptions;
+    private final LongAdder dropped;
+    private volatile boolean closed;
+    
+    /**
+     * Constructor for ControllerEventPublisher
+     * 
+     * @param controller the controller whose steps stamp the events
+     * @param executor the executor delivering events to subscribers
+     */
+    public ControllerEventPublisher(ElevatorController controller, Executor executor) {
+        this.controller = controller;
+        this.executor = executor;
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.dropped = new LongAdder();
+    }
+    
+    /**
+     * Subscribes with the default buffer size and the DROP policy
+     * 
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ControllerEvent> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_SIZE, BackpressurePolicy.DROP);
+    }
+    
+    /**
+     * Subscribes with a bounded buffer and a backpressure policy
+     * 
+     * @param subscriber the subscriber
+     * @param bufferSize maximum number of undelivered events kept for the subscriber
+     * @param policy what to do when the buffer is full
+     */
+    public void subscribe(Flow.Subscriber<? super ControllerEvent> subscriber, int bufferSize,
+                          BackpressurePolicy policy) {
+        if (subscriber == null || policy == null) {
+            throw new NullPointerException("Subscriber and policy are required");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, bufferSize, policy);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        } else {
+            subscriptions.add(subscription);
+        }
+    }
+    
+    /**
+     * Gets the number of active subscribers
+     * 
+     * @return subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+    
+    /**
+     * Gets the number of events dropped because a buffer was full
+     * 
+     * @return dropped event count over all subscribers
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    /**
+     * Completes every subscriber once its buffered events are delivered
+     * Events published afterwards are ignored
+     */
+    public void close() {
+        closed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+    
+    /**
+     * Publishes an event to every subscriber
+     * 
+     * @param type the kind of activity
+     * @param floor the floor where it happened
+     */
+    void publish(ControllerEvent.Type type, int floor) {
+        if (subscriptions.isEmpty() || closed) {
+            return;
+        }
+        ControllerEvent event = new ControllerEvent(type, controller.getCurrentStep(), floor);
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+    
+    @Override
+    public void carMoved(int fromFloor, int toFloor) {
+        publish(ControllerEvent.Type.MOVE, toFloor);
+    }
+    
+    @Override
+    public void carStopped(int floor) {
+        publish(ControllerEvent.Type.STOP, floor);
+    }
+    
+    @Override
+    public void doorOpened(int floor) {
+        publish(ControllerEvent.Type.DOOR_OPENED, floor);
+    }
+    
+    @Override
+    public void doorClosed(int floor) {
+        publish(ControllerEvent.Type.DOOR_CLOSED, floor);
+    }
+    
+    /**
+     * Subscription with its own buffer, demand and serialized delivery loop
+     */
+    private final class EventSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ControllerEvent> subscriber;
+        private final ArrayBlockingQueue<ControllerEvent> buffer;
+        private final BackpressurePolicy policy;
+        private final AtomicLong demand;
+        private final AtomicInteger pendingDrains;
+        private volatile boolean cancelled;
+        private volatile boolean completed;
+        private volatile Throwable error;
+        
+        EventSubscription(Flow.Subscriber<? super ControllerEvent> subscriber, int bufferSize,
+                          BackpressurePolicy policy) {
+            this.subscriber = subscriber;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.policy = policy;
+            this.demand = new AtomicLong();
+            this.pendingDrains = new AtomicInteger();
+        }
+        
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " events, must be positive");
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            signal();
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            buffer.clear(); // releases a blocked publisher
+        }
+        
+        /**
+         * Buffers an event according to the backpressure policy
+         * 
+         * @param event the event
+         */
+        void offer(ControllerEvent event) {
+            if (cancelled) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                switch (policy) {
+                    case DROP:
+                        dropped.increment();
+                        return;
+                    case LATEST:
+                        while (!buffer.offer(event)) {
+                            if (buffer.poll() != null) {
+                                dropped.increment();
+                            }
+                        }
+                        break;
+                    default:
+                        try {
+                            buffer.put(event);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped.increment();
+                            return;
+                        }
+                }
+            }
+            signal();
+        }
+        
+        /**
+         * Completes the subscriber after the buffered events
+         */
+        void complete() {
+            completed = true;
+            signal();
+        }
+        
+        /**
+         * Schedules the delivery loop unless it is already running
+         */
+        private void signal() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+        
+        /**
+         * Delivers buffered events within the requested demand
+         * Runs on one executor thread at a time
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!cancelled) {
+                    if (error != null) {
+                        cancel();
+                        subscriber.onError(error);
+                    } else {
+                        deliver();
+                    }
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+        
+        /**
+         * Hands buffered events to the subscriber and completes it when done
+         */
+        private void deliver() {
+            long requested = demand.get();
+            long emitted = 0;
+            while (emitted != requested && !cancelled) {
+                ControllerEvent event = buffer.poll();
+                if (event == null) {
+                    break;
+                }
+                try {
+                    subscriber.onNext(event);
+                } catch (RuntimeException e) {
+                    System.out.println("Event subscriber failed and was cancelled: " + e);
+                    cancel();
+                    return;
+                }
+                emitted++;
+            }
+            if (emitted != 0 && requested != Long.MAX_VALUE) {
+                demand.addAndGet(-emitted);
+            }
+            if (completed && !cancelled && buffer.isEmpty()) {
+                cancel();
+                subscriber.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package elevator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live metrics of an elevator controller
+ * The step thread only increments striped counters and records into a
+ * histogram; rates and percentiles are computed on the reader side
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ControllerMetrics implements ControllerMetricsMXBean {
+    private final ElevatorController controller;
+    private final LongAdder stepsExecuted;
+    private final Histogram waitSteps;
+    private final Histogram rideSteps;
+    private final Histogram[] waitStepsByPriority;
+    private final LongAdder[] missedTargetsByPriority;
+    private final LongAdder dwellStops;
+    private final LongAdder dwellMillis;
+    private final LongAdder roundTrips;
+    private final LongAdder roundTripMillis;
+    private final Map<String, Histogram> waitStepsByPolicy;
+    private final Map<String, Histogram> rideStepsByPolicy;
+    private final LongAdder policySwaps;
+    
+    // Time of the first step, 0 until the controller is stepped
+    private volatile long firstStepNanos;
+    
+    /**
+     * Constructor for ControllerMetrics
+     * 
+     * @param controller the controller whose metrics are published
+     */
+    public ControllerMetrics(ElevatorController controller) {
+        this.controller = controller;
+        this.stepsExecuted = new LongAdder();
+        this.waitSteps = new Histogram();
+        this.rideSteps = new Histogram();
+        this.waitStepsByPriority = new Histogram[CallPriority.values().length];
+        this.missedTargetsByPriority = new LongAdder[CallPriority.values().length];
+        for (CallPriority priority : CallPriority.values()) {
+            waitStepsByPriority[priority.ordinal()] = new Histogram();
+            missedTargetsByPriority[priority.ordinal()] = new LongAdder();
+        }
+        this.dwellStops = new LongAdder();
+        this.dwellMillis = new LongAdder();
+        this.roundTrips = new LongAdder();
+        this.roundTripMillis = new LongAdder();
+        this.waitStepsByPolicy = new ConcurrentHashMap<>();
+        this.rideStepsByPolicy = new ConcurrentHashMap<>();
+        this.policySwaps = new LongAdder();
+    }
+    
+    /**
+     * Records one executed step
+     */
+    void recordStep() {
+        if (firstStepNanos == 0L) {
+            firstStepNanos = System.nanoTime();
+        }
+        stepsExecuted.increment();
+    }
+    
+    /**
+     * Records the wait of a passenger from arrival to boarding
+     * 
+     * @param steps wait in steps
+     */
+    void recordWait(long steps) {
+        recordWait(CallPriority.NORMAL, steps);
+    }
+    
+    /**
+     * Records the wait of a passenger of a service class from arrival to boarding
+     * 
+     * @param priority the service class of the passenger's call
+     * @param steps wait in steps
+     */
+    void recordWait(CallPriority priority, long steps) {
+        waitSteps.record(steps);
+        waitStepsByPriority[priority.ordinal()].record(steps);
+        if (priority.getTargetWaitSteps() > 0 && steps > priority.getTargetWaitSteps()) {
+            missedTargetsByPriority[priority.ordinal()].increment();
+        }
+    }
+    
+    /**
+     * Records the ride of a passenger from boarding to alighting
+     * 
+     * @param steps ride in steps
+     */
+    void recordRide(long steps) {
+        rideSteps.record(steps);
+    }
+    
+    /**
+     * Records the wait of a passenger under the direction policy active at their call
+     * 
+     * @param policy the name of the direction policy
+     * @param steps wait in steps
+     */
+    void recordPolicyWait(String policy, long steps) {
+        waitStepsByPolicy.computeIfAbsent(policy, name -> new Histogram()).record(steps);
+    }
+    
+    /**
+     * Records the ride of a passenger under the direction policy active at their call
+     * 
+     * @param policy the name of the direction policy
+     * @param steps ride in steps
+     */
+    void recordPolicyRide(String policy, long steps) {
+        rideStepsByPolicy.computeIfAbsent(policy, name -> new Histogram()).record(steps);
+    }
+    
+    /**
+     * Records a switch of the direction policy at runtime
+     */
+    void recordPolicySwap() {
+        policySwaps.increment();
+    }
+    
+    /**
+     * Records the door dwell of a finished stop
+     * 
+     * @param millis dwell in milliseconds
+     */
+    void recordDwell(long millis) {
+        dwellStops.increment();
+        dwellMillis.add(millis);
+    }
+    
+    /**
+     * Records a round trip from the lobby back to the lobby
+     * 
+     * @param seconds simulated round trip time in seconds
+     */
+    void recordRoundTrip(double seconds) {
+        roundTrips.increment();
+        roundTripMillis.add(Math.round(seconds * 1000));
+    }
+    
+    /**
+     * Gets the histogram of the waits of one service class in steps
+     * 
+     * @param priority the service class
+     * @return the wait histogram of that class
+     */
+    public Histogram getWaitHistogram(CallPriority priority) {
+        return waitStepsByPriority[priority.ordinal()];
+    }
+    
+    /**
+     * Gets the number of passengers of a service class who waited longer than its target
+     * 
+     * @param priority the service class
+     * @return number of missed response time targets
+     */
+    public long getMissedWaitTargets(CallPriority priority) {
+        return missedTargetsByPriority[priority.ordinal()].sum();
+    }
+    
+    /**
+     * Gets the names of the direction policies passengers were attributed to
+     * 
+     * @return policy names in alphabetical order
+     */
+    public Set<String> getPolicyNames() {
+        Set<String> names = new TreeSet<>(waitStepsByPolicy.keySet());
+        names.addAll(rideStepsByPolicy.keySet());
+        return names;
+    }
+    
+    /**
+     * Gets the histogram of the waits of passengers who called under a direction policy
+     * 
+     * @param policy the name of the direction policy
+     * @return the wait histogram, empty if no passenger under that policy boarded
+     */
+    public Histogram getPolicyWaitHistogram(String policy) {
+        Histogram waits = waitStepsByPolicy.get(policy);
+        return waits == null ? new Histogram() : waits;
+    }
+    
+    /**
+     * Gets the histogram of the rides of passengers who called under a direction policy
+     * 
+     * @param policy the name of the direction policy
+     * @return the ride histogram, empty if no passenger under that policy alighted
+     */
+    public Histogram getPolicyRideHistogram(String policy) {
+        Histogram rides = rideStepsByPolicy.get(policy);
+        return rides == null ? new Histogram() : rides;
+    }
+    
+    /**
+     * Gets the histogram of passenger waits in steps
+     * 
+     * @return wait histogram
+     */
+    public Histogram getWaitHistogram() {
+        return waitSteps;
+    }
+    
+    /**
+     * Gets the histogram of passenger rides in steps
+     * 
+     * @return ride histogram
+     */
+    public Histogram getRideHistogram() {
+        return rideSteps;
+    }
+    
+    @Override
+    public long getCurrentStep() {
+        return controller.getSnapshot().getStep();
+    }
+    
+    @Override
+    public long getStepsExecuted() {
+        return stepsExecuted.sum();
+    }
+    
+    @Override
+    public double getStepsPerSecond() {
+        // Reads only, so concurrent pollers never shorten each other's window
+        long first = firstStepNanos;
+        if (first == 0L) {
+            return 0.0;
+        }
+        double elapsedSeconds = (System.nanoTime() - first) / 1e9;
+        return elapsedSeconds > 0 ? stepsExecuted.sum() / elapsedSeconds : 0.0;
+    }
+    
+    @Override
+    public int getPendingHallCalls() {
+        return controller.getSnapshot().getPendingCalls();
+    }
+    
+    @Override
+    public int getPendingCarCalls() {
+        return controller.getSnapshot().getPendingDestinations();
+    }
+    
+    @Override
+    public long getOpenDoorMillis() {
+        return controller.getElevator().getMetrics().getOpenDoorMillis();
+    }
+    
+    @Override
+    public long getBoardings() {
+        return controller.getElevator().getMetrics().getBoardings();
+    }
+    
+    @Override
+    public long getAlightings() {
+        return controller.getElevator().getMetrics().getAlightings();
+    }
+    
+    @Override
+    public double getMeanWaitSteps() {
+        return waitSteps.getMean();
+    }
+    
+    @Override
+    public double getMeanRideSteps() {
+        return rideSteps.getMean();
+    }
+    
+    @Override
+    public long getP95WaitSteps() {
+        return waitSteps.getPercentile(95.0);
+    }
+    
+    @Override
+    public long getDoorTimerRearms() {
+        return controller.getElevator().getMetrics().getDoorTimerRearms();
+    }
+    
+    @Override
+    public long getDoorReopens() {
+        return controller.getElevator().getMetrics().getDoorReopens();
+    }
+    
+    @Override
+    public long getConstraintViolations() {
+        return controller.getSafetyMonitor().getViolationCount();
+    }
+    
+    @Override
+    public long getDwellStops() {
+        return dwellStops.sum();
+    }
+    
+    @Override
+    public double getMeanDwellMillis() {
+        long stops = dwellStops.sum();
+        return stops == 0 ? 0.0 : (double) dwellMillis.sum() / stops;
+    }
+    
+    @Override
+    public long getRoundTrips() {
+        return roundTrips.sum();
+    }
+    
+    @Override
+    public double getMeanRoundTripSeconds() {
+        long trips = roundTrips.sum();
+        return trips == 0 ? 0.0 : roundTripMillis.sum() / 1000.0 / trips;
+    }
+    
+    @Override
+    public Map<String, Long> getP95WaitStepsByPriority() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (CallPriority priority : CallPriority.values()) {
+            Histogram waits = waitStepsByPriority[priority.ordinal()];
+            if (waits.getCount() > 0) {
+                result.put(priority.name(), waits.getPercentile(95.0));
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public Map<String, Long> getMissedWaitTargetsByPriority() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (CallPriority priority : CallPriority.values()) {
+            if (priority.getTargetWaitSteps() > 0) {
+                result.put(priority.name(), getMissedWaitTargets(priority));
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public String getDirectionPolicy() {
+        return controller.getDirectionPolicy().getName();
+    }
+    
+    @Override
+    public long getPolicySwaps() {
+        return policySwaps.sum();
+    }
+    
+    @Override
+    public Map<String, Double> getMeanWaitStepsByPolicy() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String policy : getPolicyNames()) {
+            Histogram waits = getPolicyWaitHistogram(policy);
+            if (waits.getCount() > 0) {
+                result.put(policy, waits.getMean());
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public Map<String, Double> getMeanRideStepsByPolicy() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String policy : getPolicyNames()) {
+            Histogram rides = getPolicyRideHistogram(policy);
+            if (rides.getCount() > 0) {
+                result.put(policy, rides.getMean());
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public long getCommandsApplied() {
+        CommandMailbox mailbox = controller.getMailbox();
+        return mailbox == null ? 0L : mailbox.getAppliedCount();
+    }
+    
+    @Override
+    public long getPendingCommands() {
+        CommandMailbox mailbox = controller.getMailbox();
+        return mailbox == null ? 0L : mailbox.getPendingCount();
+    }
+    
+    @Override
+    public long getP95CommandLatencyMicros() {
+        CommandMailbox mailbox = controller.getMailbox();
+        return mailbox == null ? 0L : mailbox.getLatencyHistogram().getPercentile(95.0);
+    }
+}
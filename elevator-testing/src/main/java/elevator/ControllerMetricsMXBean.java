@@ -0,0 +1,201 @@
+package elevator;
+
+import java.util.Map;
+
+/**
+ * Management interface publishing live metrics of an elevator controller
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public interface ControllerMetricsMXBean {
+    
+    /**
+     * Gets the current simulation step
+     * 
+     * @return current simulation step
+     */
+    long getCurrentStep();
+    
+    /**
+     * Gets the number of executed steps
+     * 
+     * @return total number of step() calls executed
+     */
+    long getStepsExecuted();
+    
+    /**
+     * Gets the mean step rate
+     * 
+     * @return mean step rate since the first step, the same for every reader
+     */
+    double getStepsPerSecond();
+    
+    /**
+     * Gets the number of pending hall calls
+     * 
+     * @return number of pending hall calls
+     */
+    int getPendingHallCalls();
+    
+    /**
+     * Gets the number of pending car calls
+     * 
+     * @return number of pending car calls (destinations)
+     */
+    int getPendingCarCalls();
+    
+    /**
+     * Gets the accumulated open-door time
+     * 
+     * @return total time doors were open, in milliseconds
+     */
+    long getOpenDoorMillis();
+    
+    /**
+     * Gets the boarding count
+     * 
+     * @return total number of boardings
+     */
+    long getBoardings();
+    
+    /**
+     * Gets the alighting count
+     * 
+     * @return total number of passengers delivered to their destination
+     */
+    long getAlightings();
+    
+    /**
+     * Gets the mean passenger wait
+     * 
+     * @return mean wait from arrival to boarding, in steps
+     */
+    double getMeanWaitSteps();
+    
+    /**
+     * Gets the mean passenger ride
+     * 
+     * @return mean ride from boarding to alighting, in steps
+     */
+    double getMeanRideSteps();
+    
+    /**
+     * Gets the 95th percentile passenger wait
+     * 
+     * @return 95th percentile wait from arrival to boarding, in steps
+     */
+    long getP95WaitSteps();
+    
+    /**
+     * Gets the door timer re-arm count
+     * 
+     * @return number of door close timer re-arms
+     */
+    long getDoorTimerRearms();
+    
+    /**
+     * Gets the door reopen count
+     * 
+     * @return number of hall calls served by reopening the door at the car's floor
+     */
+    long getDoorReopens();
+    
+    /**
+     * Gets the constraint violation count
+     * 
+     * @return number of safety constraint violations
+     */
+    long getConstraintViolations();
+    
+    /**
+     * Gets the number of stops with a dwell decision
+     * 
+     * @return number of finished stops
+     */
+    long getDwellStops();
+    
+    /**
+     * Gets the mean door dwell per stop
+     * 
+     * @return mean dwell in milliseconds, or 0.0 if no stop finished
+     */
+    double getMeanDwellMillis();
+    
+    /**
+     * Gets the number of completed round trips from the lobby
+     * 
+     * @return number of round trips
+     */
+    long getRoundTrips();
+    
+    /**
+     * Gets the mean simulated round trip time from lobby departure to lobby departure
+     * 
+     * @return mean round trip time in seconds, or 0.0 if no round trip completed
+     */
+    double getMeanRoundTripSeconds();
+    
+    /**
+     * Gets the 95th percentile wait of every service class with boardings
+     * 
+     * @return wait in steps by class name
+     */
+    Map<String, Long> getP95WaitStepsByPriority();
+    
+    /**
+     * Gets the missed response time targets of every service class with a target
+     * 
+     * @return number of passengers who waited longer than the target, by class name
+     */
+    Map<String, Long> getMissedWaitTargetsByPriority();
+    
+    /**
+     * Gets the name of the active direction policy
+     * 
+     * @return direction policy name
+     */
+    String getDirectionPolicy();
+    
+    /**
+     * Gets the number of direction policy switches at runtime
+     * 
+     * @return policy swap count
+     */
+    long getPolicySwaps();
+    
+    /**
+     * Gets the mean wait of the passengers who called under each direction policy
+     * 
+     * @return mean wait in steps by policy name
+     */
+    Map<String, Double> getMeanWaitStepsByPolicy();
+    
+    /**
+     * Gets the mean ride of the passengers who called under each direction policy
+     * 
+     * @return mean ride in steps by policy name
+     */
+    Map<String, Double> getMeanRideStepsByPolicy();
+    
+    /**
+     * Gets the number of mailbox commands applied in actor mode
+     * 
+     * @return applied command count, 0 outside actor mode
+     */
+    long getCommandsApplied();
+    
+    /**
+     * Gets the number of mailbox commands waiting in actor mode
+     * 
+     * @return pending command count, 0 outside actor mode
+     */
+    long getPendingCommands();
+    
+    /**
+     * Gets the 95th percentile time commands spent in the mailbox
+     * 
+     * @return queueing latency in microseconds, 0 outside actor mode
+     */
+    long getP95CommandLatencyMicros();
+}
@@ -0,0 +1,219 @@
+package elevator;
+
+/**
+ * Immutable view of a controller's state at the end of a step
+ * The controller publishes a new snapshot after every step through a single
+ * volatile reference, so any number of monitoring threads read a consistent
+ * state without locks and without touching fields the step thread and the
+ * door timers are mutating
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public final class ControllerSnapshot {
+    private final int step;
+    private final int floor;
+    private final Direction direction;
+    private final boolean stopped;
+    private final int openDoorFloor;
+    private final int passengers;
+    private final int pendingCalls;
+    private final int pendingDestinations;
+    private final int activeUsers;
+    private final long floorsTravelled;
+    private final double simulatedSeconds;
+    private final int[] waiting;
+    
+    /**
+     * Constructor for ControllerSnapshot
+     * 
+     * @param step the step the snapshot was taken after
+     * @param floor the floor of the car
+     * @param direction the direction of the car
+     * @param stopped true if the car is stopped
+     * @param openDoorFloor floor of the open door, or -1 if all doors are closed
+     * @param passengers number of passengers in the car
+     * @param pendingCalls number of pending hall calls
+     * @param pendingDestinations number of pending car calls
+     * @param activeUsers number of users waiting or travelling
+     * @param floorsTravelled floors travelled by the car
+     * @param simulatedSeconds simulated time of the car in seconds
+     * @param waiting number of waiting users per floor, copied
+     */
+    ControllerSnapshot(int step, int floor, Direction direction, boolean stopped, int openDoorFloor,
+                       int passengers, int pendingCalls, int pendingDestinations, int activeUsers,
+                       long floorsTravelled, double simulatedSeconds, int[] waiting) {
+        this.step = step;
+        this.floor = floor;
+        this.direction = direction;
+        this.stopped = stopped;
+        this.openDoorFloor = openDoorFloor;
+        this.passengers = passengers;
+        this.pendingCalls = pendingCalls;
+        this.pendingDestinations = pendingDestinations;
+        this.activeUsers = activeUsers;
+        this.floorsTravelled = floorsTravelled;
+        this.simulatedSeconds = simulatedSeconds;
+        this.waiting = waiting.clone();
+    }
+    
+    /**
+     * Takes a snapshot of a controller
+     * Must be called on the thread stepping the controller
+     * 
+     * @param controller the controller
+     * @param waiting number of waiting users per floor
+     * @return the snapshot
+     */
+    static ControllerSnapshot of(ElevatorController controller, int[] waiting) {
+        Elevator elevator = controller.getElevator();
+        return new ControllerSnapshot(controller.getCurrentStep(), elevator.getCurrentFloor(),
+                                      elevator.getDirection(), elevator.isStopped(),
+                                      controller.getSafetyMonitor().getOpenDoorFloor(),
+                                      elevator.getUserCount(), elevator.getPendingCallCount(),
+                                      elevator.getPendingDestinationCount(), controller.getActiveUserCount(),
+                                      elevator.getFloorsTravelled(), elevator.getSimulatedSeconds(), waiting);
+    }
+    
+    /**
+     * Gets the step the snapshot was taken after
+     * 
+     * @return step number, 0 before the first step
+     */
+    public int getStep() {
+        return step;
+    }
+    
+    /**
+     * Gets the floor of the car
+     * 
+     * @return floor number
+     */
+    public int getFloor() {
+        return floor;
+    }
+    
+    /**
+     * Gets the direction of the car
+     * 
+     * @return the direction
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+    
+    /**
+     * Checks if the car is stopped
+     * 
+     * @return true if stopped
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+    
+    /**
+     * Gets the floor of the open door
+     * 
+     * @return floor number, or -1 if all doors are closed
+     */
+    public int getOpenDoorFloor() {
+        return openDoorFloor;
+    }
+    
+    /**
+     * Checks if the door at a floor is open
+     * 
+     * @param floor the floor number
+     * @return true if the door at that floor is open
+     */
+    public boolean isDoorOpen(int floor) {
+        return openDoorFloor >= 0 && openDoorFloor == floor;
+    }
+    
+    /**
+     * Gets the number of passengers in the car
+     * 
+     * @return number of passengers
+     */
+    public int getPassengers() {
+        return passengers;
+    }
+    
+    /**
+     * Gets the number of pending hall calls
+     * 
+     * @return number of hall calls
+     */
+    public int getPendingCalls() {
+        return pendingCalls;
+    }
+    
+    /**
+     * Gets the number of pending car calls
+     * 
+     * @return number of destinations
+     */
+    public int getPendingDestinations() {
+        return pendingDestinations;
+    }
+    
+    /**
+     * Gets the number of users waiting or travelling
+     * 
+     * @return number of active users
+     */
+    public int getActiveUsers() {
+        return activeUsers;
+    }
+    
+    /**
+     * Gets the floors travelled by the car
+     * 
+     * @return total number of floors travelled
+     */
+    public long getFloorsTravelled() {
+        return floorsTravelled;
+    }
+    
+    /**
+     * Gets the simulated time of the car
+     * 
+     * @return simulated seconds
+     */
+    public double getSimulatedSeconds() {
+        return simulatedSeconds;
+    }
+    
+    /**
+     * Gets the number of users waiting at a floor
+     * 
+     * @param floor the floor number
+     * @return number of waiting users, or 0 if the floor is invalid
+     */
+    public int getWaitingCount(int floor) {
+        if (floor >= 0 && floor < waiting.length) {
+            return waiting[floor];
+        }
+        return 0;
+    }
+    
+    /**
+     * Gets the number of floors of the building
+     * 
+     * @return number of floors
+     */
+    public int getNumberOfFloors() {
+        return waiting.length;
+    }
+    
+    /**
+     * Returns string representation of the snapshot
+     * 
+     * @return string describing the state
+     */
+    @Override
+    public String toString() {
+        return "ControllerSnapshot[step=" + step + ", floor=" + floor + ", direction=" + direction
+            + ", stopped=" + stopped + ", openDoor=" + openDoorFloor + ", passengers=" + passengers + "]";
+    }
+}
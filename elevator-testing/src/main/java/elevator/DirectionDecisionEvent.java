@@ -0,0 +1,34 @@
+package elevator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an Elevator direction decision
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+@Name("elevator.DirectionDecision")
+@Label("Direction Decision")
+@Category("Elevator")
+@Description("The elevator choosing its direction of travel")
+@StackTrace(false)
+class DirectionDecisionEvent extends jdk.jfr.Event {
+    
+    @Label("Floor")
+    int floor;
+    
+    @Label("Previous Direction")
+    String previousDirection;
+    
+    @Label("Chosen Direction")
+    String chosenDirection;
+    
+    @Label("Cache Hit")
+    @Description("True if the decision was served from the memoized result")
+    boolean cacheHit;
+}
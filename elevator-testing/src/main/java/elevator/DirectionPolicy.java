@@ -0,0 +1,30 @@
+package elevator;
+
+/**
+ * Interface for the rule that picks the direction of a car between stops
+ * The elevator settles the cases every policy must agree on first: a call
+ * at the current floor, no pending work, and preempting priority calls.
+ * The policy decides the rest from the elevator's public state
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public interface DirectionPolicy {
+    /**
+     * Chooses the direction of a car that has pending calls or destinations
+     * away from its current floor
+     * 
+     * @param elevator the elevator to decide for
+     * @return the direction to take, NONE to stay
+     */
+    Direction chooseDirection(Elevator elevator);
+    
+    /**
+     * Gets the name of the policy, used in reports
+     * 
+     * @return the policy name
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
@@ -18,6 +18,14 @@ public class Door {
     private Elevator elevator;
     private Timer closeTimer;
     private List<User> usersEntering;
+    private DoorCycleEvent cycleEvent;
+    private int cycleRearms;
+    private long openedAtNanos;
+    private long dwellStartNanos;
+    private boolean timerEnabled;
+    private CommandMailbox mailbox;
+    private int timerGeneration;
+    private long closeDelayMillis;
     private static final int DEFAULT_OPEN_TIME = 2000; // 2 seconds in milliseconds
     
     /**
@@ -31,6 +39,7 @@ public class Door {
         this.isOpen = false;
         this.elevator = elevator;
         this.usersEntering = new ArrayList<>();
+        this.timerEnabled = true;
     }
     
     /**
@@ -68,8 +77,16 @@ public class Door {
     public void open() {
         if (!isOpen) {
             isOpen = true;
+            cycleRearms = 0;
+            openedAtNanos = System.nanoTime();
+            dwellStartNanos = openedAtNanos;
+            cycleEvent = new DoorCycleEvent();
+            cycleEvent.begin();
             System.out.println("Door at floor " + floor + " is opening");
-            startCloseTimer(DEFAULT_OPEN_TIME);
+            elevator.notifyDoorOpened(floor);
+            if (timerEnabled) {
+                startCloseTimer(DEFAULT_OPEN_TIME);
+            }
         }
     }
     
@@ -85,6 +102,7 @@ public class Door {
                 closeTimer.cancel();
                 closeTimer = null;
             }
+            endCycle(false);
             signalElevator();
         }
     }
@@ -100,21 +118,112 @@ public class Door {
             closeTimer.cancel();
         }
         
+        int generation = ++timerGeneration;
+        closeDelayMillis = milliseconds;
         closeTimer = new Timer();
         closeTimer.schedule(new TimerTask() {
             @Override
             public void run() {
-                // Check if any user is actively entering
-                if (!isUserCurrentlyEntering()) {
-                    close();
+                CommandMailbox target = mailbox;
+                if (target != null) {
+                    // Actor mode: the owning thread handles the timeout
+                    target.post(controller -> closeTimerExpired(generation));
                 } else {
-                    // Give users more time to enter
-                    startCloseTimer(500);
+                    closeTimerExpired(generation);
                 }
             }
         }, milliseconds);
     }
     
+    /**
+     * Gets the delay the pending close timer was started with
+     * 
+     * @return the delay in milliseconds, or -1 if no close timer is pending
+     */
+    public long getCloseDelayMillis() {
+        return closeTimer != null && isOpen ? closeDelayMillis : -1L;
+    }
+    
+    /**
+     * Handles the expiry of a close timer
+     * Closes the door unless a user is entering or the timer was replaced
+     * 
+     * @param generation the generation of the expired timer
+     */
+    private void closeTimerExpired(int generation) {
+        if (generation != timerGeneration || !isOpen) {
+            return; // Superseded by a newer timer or already closed
+        }
+        // Check if any user is actively entering
+        if (!isUserCurrentlyEntering()) {
+            close();
+        } else {
+            // Give users more time to enter
+            cycleRearms++;
+            elevator.getMetrics().recordDoorTimerRearm();
+            startCloseTimer(500);
+        }
+    }
+    
+    /**
+     * Routes close timer expiries through a controller mailbox
+     * In actor mode timer threads only post commands, and the thread owning
+     * the controller closes the door
+     * 
+     * @param mailbox the mailbox, or null to close directly on the timer thread
+     */
+    public void setMailbox(CommandMailbox mailbox) {
+        this.mailbox = mailbox;
+    }
+    
+    /**
+     * Enables or disables the automatic close timer
+     * Step-driven simulations disable it and close the door with checkTimeout
+     * 
+     * @param enabled true to close the door on a wall-clock timer
+     */
+    public void setTimerEnabled(boolean enabled) {
+        this.timerEnabled = enabled;
+    }
+    
+    /**
+     * Sets how long the current opening lasts, counted from when the door opened
+     * or was last reopened
+     * Replaces the default open time with a single close timer; a dwell that
+     * has already elapsed closes the door right away
+     * 
+     * @param milliseconds dwell time of this opening
+     */
+    public void setDwell(long milliseconds) {
+        if (!isOpen || !timerEnabled) {
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - dwellStartNanos) / 1_000_000L;
+        long remainingMillis = Math.max(0L, milliseconds - elapsedMillis);
+        startCloseTimer((int) Math.min(Integer.MAX_VALUE, remainingMillis));
+    }
+    
+    /**
+     * Cancels a pending close and restarts the dwell of the open door
+     * Used when a hall call is made at this floor while the door is open or
+     * about to close, so the caller boards instead of waiting for the next sweep
+     * 
+     * @param milliseconds dwell time of the restarted opening
+     * @return true if the door was open and its dwell restarted
+     */
+    public boolean reopen(long milliseconds) {
+        if (!isOpen) {
+            return false;
+        }
+        dwellStartNanos = System.nanoTime();
+        elevator.getMetrics().recordDoorReopen();
+        System.out.println("Door at floor " + floor + " reopens for a call");
+        if (timerEnabled) {
+            startCloseTimer((int) Math.min(Integer.MAX_VALUE, milliseconds));
+        }
+        return true;
+    }
+    
     /**
      * Checks if any user is currently in the process of entering
      * 
@@ -155,6 +264,26 @@ public class Door {
         }
     }
     
+    /**
+     * Ends the current door cycle and records it to the metrics and flight recorder
+     * 
+     * @param forced true if the door was forcibly closed
+     */
+    private void endCycle(boolean forced) {
+        elevator.getMetrics().recordDoorOpenTime(System.nanoTime() - openedAtNanos);
+        DoorCycleEvent event = cycleEvent;
+        cycleEvent = null;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.floor = floor;
+                event.rearms = cycleRearms;
+                event.forced = forced;
+                event.commit();
+            }
+        }
+    }
+    
     /**
      * Signals to the elevator that the door has closed and elevator can restart
      */
@@ -172,7 +301,11 @@ public class Door {
             closeTimer.cancel();
             closeTimer = null;
         }
-        isOpen = false;
+        if (isOpen) {
+            isOpen = false;
+            endCycle(true);
+            elevator.notifyDoorClosed(floor);
+        }
     }
     
     /**
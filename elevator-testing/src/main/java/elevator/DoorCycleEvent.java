@@ -0,0 +1,32 @@
+package elevator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a door cycle, from opening to closing
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+@Name("elevator.DoorCycle")
+@Label("Door Cycle")
+@Category("Elevator")
+@Description("A door staying open from opening until it closes")
+@StackTrace(false)
+class DoorCycleEvent extends jdk.jfr.Event {
+    
+    @Label("Floor")
+    int floor;
+    
+    @Label("Timer Re-arms")
+    @Description("Number of times the close timer was re-armed because users were entering")
+    int rearms;
+    
+    @Label("Forced")
+    @Description("True if the door was forcibly closed")
+    boolean forced;
+}
@@ -0,0 +1,121 @@
+package elevator;
+
+/**
+ * Computes how long the door stays open at a stop
+ * The dwell grows with the passengers boarding and alighting, and the car
+ * only lingers for late arrivals when no call is pending elsewhere; the
+ * result is clamped between a minimum and a maximum
+ * 
+ * All times are in milliseconds
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public final class DwellPolicy {
+    
+    /**
+     * Short dwell on quiet floors, long enough for a crowded lobby
+     */
+    public static final DwellPolicy DEFAULT = new DwellPolicy(800, 6000, 1000, 800, 1200);
+    
+    private final long minDwell;
+    private final long maxDwell;
+    private final long perBoarding;
+    private final long perAlighting;
+    private final long idleHold;
+    
+    /**
+     * Constructor for DwellPolicy
+     * 
+     * @param minDwell shortest time the door stays open
+     * @param maxDwell longest time the door stays open
+     * @param perBoarding time allowed for each boarding passenger
+     * @param perAlighting time allowed for each alighting passenger
+     * @param idleHold extra time for late arrivals when no call is pending elsewhere
+     */
+    public DwellPolicy(long minDwell, long maxDwell, long perBoarding, long perAlighting, long idleHold) {
+        if (minDwell < 0 || perBoarding < 0 || perAlighting < 0 || idleHold < 0) {
+            throw new IllegalArgumentException("Dwell times must not be negative");
+        }
+        if (maxDwell < minDwell) {
+            throw new IllegalArgumentException("Maximum dwell must not be below the minimum");
+        }
+        this.minDwell = minDwell;
+        this.maxDwell = maxDwell;
+        this.perBoarding = perBoarding;
+        this.perAlighting = perAlighting;
+        this.idleHold = idleHold;
+    }
+    
+    /**
+     * Computes the dwell of a stop
+     * 
+     * @param boarding number of passengers boarding at the stop
+     * @param alighting number of passengers alighting at the stop
+     * @param pendingElsewhere number of calls and destinations at other floors
+     * @return dwell time in milliseconds
+     */
+    public long dwellMillis(int boarding, int alighting, int pendingElsewhere) {
+        long dwell = minDwell + boarding * perBoarding + alighting * perAlighting;
+        if (pendingElsewhere == 0) {
+            dwell += idleHold;
+        }
+        return Math.max(minDwell, Math.min(maxDwell, dwell));
+    }
+    
+    /**
+     * Gets the shortest dwell
+     * 
+     * @return time in milliseconds
+     */
+    public long getMinDwell() {
+        return minDwell;
+    }
+    
+    /**
+     * Gets the longest dwell
+     * 
+     * @return time in milliseconds
+     */
+    public long getMaxDwell() {
+        return maxDwell;
+    }
+    
+    /**
+     * Gets the time allowed for each boarding passenger
+     * 
+     * @return time in milliseconds
+     */
+    public long getPerBoarding() {
+        return perBoarding;
+    }
+    
+    /**
+     * Gets the time allowed for each alighting passenger
+     * 
+     * @return time in milliseconds
+     */
+    public long getPerAlighting() {
+        return perAlighting;
+    }
+    
+    /**
+     * Gets the extra time held for late arrivals on an otherwise idle car
+     * 
+     * @return time in milliseconds
+     */
+    public long getIdleHold() {
+        return idleHold;
+    }
+    
+    /**
+     * Returns string representation of the policy
+     * 
+     * @return string describing the policy
+     */
+    @Override
+    public String toString() {
+        return "DwellPolicy[min=" + minDwell + ", max=" + maxDwell + ", perBoarding=" + perBoarding +
+               ", perAlighting=" + perAlighting + ", idleHold=" + idleHold + "]";
+    }
+}
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents the elevator in the system
@@ -22,6 +24,37 @@ public class Elevator {
     private int lowestFloor;
     private int highestFloor;
     private boolean canRestart;
+    private long floorsTravelled;
+    private MotionProfile motionProfile;
+    private int runFloors;
+    private double travelSeconds;
+    private double doorSeconds;
+    private double transferSeconds;
+    private double dwellSeconds;
+    private List<ElevatorListener> listeners;
+    private CarMetrics metrics;
+    private int pendingCallCount;
+    private int openDoorFloor;
+    
+    // Classes of pending non-normal calls, keyed by floor and direction
+    private Map<Integer, CallPriority> callPriorities;
+    private int maxConsecutivePreemptions;
+    private int consecutivePreemptions;
+    private AtomicReference<DirectionPolicy> directionPolicy;
+    
+    // Modification version of calls and destinations, used to memoize direction decisions
+    private long stateVersion;
+    private long cachedVersion;
+    private int cachedFloor;
+    private Direction cachedInputDirection;
+    private Direction cachedDecision;
+    private DirectionPolicy cachedPolicy;
+    private long decisionCacheHits;
+    private long decisionCacheMisses;
+    
+    private static final int PENDING_ABOVE = 1;
+    private static final int PENDING_BELOW = 2;
+    private static final int DEFAULT_MAX_CONSECUTIVE_PREEMPTIONS = 3;
     
     /**
      * Constructor for Elevator
@@ -39,6 +72,35 @@ public class Elevator {
         this.calls = new HashMap<>();
         this.usersInside = new ArrayList<>();
         this.canRestart = true;
+        this.motionProfile = MotionProfile.DEFAULT;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.metrics = new CarMetrics(this);
+        this.stateVersion = 0;
+        this.cachedVersion = -1;
+        this.openDoorFloor = -1;
+        this.callPriorities = new HashMap<>();
+        this.maxConsecutivePreemptions = DEFAULT_MAX_CONSECUTIVE_PREEMPTIONS;
+        this.directionPolicy = new AtomicReference<>(StandardDirectionPolicy.COLLECTIVE);
+    }
+    
+    /**
+     * Registers a listener for elevator and door state transitions
+     * 
+     * @param listener the listener to add
+     */
+    public void addListener(ElevatorListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+    
+    /**
+     * Removes a previously registered listener
+     * 
+     * @param listener the listener to remove
+     */
+    public void removeListener(ElevatorListener listener) {
+        listeners.remove(listener);
     }
     
     /**
@@ -93,8 +155,15 @@ public class Elevator {
      * Stops the elevator at current floor
      */
     public void stop() {
+        boolean wasMoving = !isStopped;
         this.isStopped = true;
         System.out.println("Elevator stopped at floor " + currentFloor);
+        if (wasMoving) {
+            completeRun();
+            for (ElevatorListener listener : listeners) {
+                listener.carStopped(currentFloor);
+            }
+        }
     }
     
     /**
@@ -113,13 +182,169 @@ public class Elevator {
      * @param direction the direction requested (UP or DOWN)
      */
     public void addCall(int floor, Direction direction) {
+        addCall(floor, direction, CallPriority.NORMAL);
+    }
+    
+    /**
+     * Adds a call of a service class from a specific floor in a specific direction
+     * A call repeated with a higher class is upgraded
+     * 
+     * @param floor the floor where the call is made
+     * @param direction the direction requested (UP or DOWN)
+     * @param priority the service class of the call
+     */
+    public void addCall(int floor, Direction direction, CallPriority priority) {
+        if (isServedAtOpenDoor(floor, direction)) {
+            System.out.println("Call at open door: floor " + floor + " going " + direction);
+            for (ElevatorListener listener : listeners) {
+                listener.hallCallAtOpenDoor(floor, direction);
+            }
+            return;
+        }
         if (!calls.containsKey(floor)) {
             calls.put(floor, new ArrayList<>());
         }
         if (!calls.get(floor).contains(direction)) {
             calls.get(floor).add(direction);
+            pendingCallCount++;
+            stateVersion++;
             System.out.println("Call added: floor " + floor + " going " + direction);
         }
+        if (priority != CallPriority.NORMAL) {
+            CallPriority previous = callPriorities.get(callKey(floor, direction));
+            if (previous == null || priority.compareTo(previous) > 0) {
+                callPriorities.put(callKey(floor, direction), priority);
+                stateVersion++;
+                System.out.println("Call at floor " + floor + " going " + direction + " is " + priority);
+            }
+        }
+    }
+    
+    /**
+     * Gets the service class of a pending call
+     * 
+     * @param floor the floor of the call
+     * @param direction the direction of the call
+     * @return the class of the call, or null if there is no such call
+     */
+    public CallPriority getCallPriority(int floor, Direction direction) {
+        if (!hasCallAtFloor(floor, direction)) {
+            return null;
+        }
+        return callPriorities.getOrDefault(callKey(floor, direction), CallPriority.NORMAL);
+    }
+    
+    /**
+     * Sets how many preempting stops may be served in a row before the normal
+     * sweep gets a stop again
+     * This bounds the delay priority calls add to everyone else; emergency
+     * calls are not bounded
+     * 
+     * @param stops maximum number of consecutive preempting stops
+     */
+    public void setMaxConsecutivePreemptions(int stops) {
+        this.maxConsecutivePreemptions = Math.max(0, stops);
+        stateVersion++;
+    }
+    
+    /**
+     * Gets how many preempting stops may be served in a row
+     * 
+     * @return maximum number of consecutive preempting stops
+     */
+    public int getMaxConsecutivePreemptions() {
+        return maxConsecutivePreemptions;
+    }
+    
+    /**
+     * Sets the policy that picks the direction between stops
+     * 
+     * @param policy the direction policy
+     */
+    public void setDirectionPolicy(DirectionPolicy policy) {
+        swapDirectionPolicy(policy);
+    }
+    
+    /**
+     * Atomically replaces the policy that picks the direction between stops
+     * Safe to call from any thread while the car is stepped: the next
+     * direction decision uses the new policy, a decision in progress finishes
+     * with the old one, and pending calls and destinations are kept
+     * 
+     * @param policy the new direction policy
+     * @return the policy it replaced
+     */
+    public DirectionPolicy swapDirectionPolicy(DirectionPolicy policy) {
+        if (policy == null) {
+            throw new NullPointerException("Direction policy is required");
+        }
+        return directionPolicy.getAndSet(policy);
+    }
+    
+    /**
+     * Gets the policy that picks the direction between stops
+     * 
+     * @return the direction policy
+     */
+    public DirectionPolicy getDirectionPolicy() {
+        return directionPolicy.get();
+    }
+    
+    /**
+     * Makes the car read its direction policy from a reference it shares
+     * The controller and, in a group, every car hold the same reference so a
+     * single swap switches all of them at once
+     * 
+     * @param reference the shared direction policy reference
+     */
+    void shareDirectionPolicy(AtomicReference<DirectionPolicy> reference) {
+        if (reference == null) {
+            throw new NullPointerException("Direction policy reference is required");
+        }
+        this.directionPolicy = reference;
+    }
+    
+    /**
+     * Gets the lowest floor the elevator can reach
+     * 
+     * @return lowest floor number
+     */
+    public int getLowestFloor() {
+        return lowestFloor;
+    }
+    
+    /**
+     * Gets the highest floor the elevator can reach
+     * 
+     * @return highest floor number
+     */
+    public int getHighestFloor() {
+        return highestFloor;
+    }
+    
+    /**
+     * Computes the key of a call in the priority map
+     * 
+     * @param floor the floor of the call
+     * @param direction the direction of the call
+     * @return the key
+     */
+    private static int callKey(int floor, Direction direction) {
+        return direction == Direction.UP ? floor * 2 : floor * 2 + 1;
+    }
+    
+    /**
+     * Checks if a hall call can be served by the current stop
+     * That is the case while the car is stopped at the call's floor with the
+     * door open and is idle or about to leave in the requested direction
+     * 
+     * @param floor the floor of the call
+     * @param direction the direction requested
+     * @return true if the call is served without being queued
+     */
+    private boolean isServedAtOpenDoor(int floor, Direction direction) {
+        return isStopped && floor == currentFloor && openDoorFloor == floor
+            && (this.direction == direction || this.direction == Direction.NONE);
     }
     
     /**
@@ -130,6 +355,7 @@ public class Elevator {
     public void addDestination(int floor) {
         if (!destinations.contains(floor) && floor != currentFloor) {
             destinations.add(floor);
+            stateVersion++;
             System.out.println("Destination added: floor " + floor);
         }
     }
@@ -194,24 +420,37 @@ public class Elevator {
             return;
         }
         
-        isStopped = false;
+        if (isStopped) {
+            isStopped = false;
+            for (ElevatorListener listener : listeners) {
+                listener.carDeparted(currentFloor);
+            }
+        }
         
         // Move based on direction
         if (direction == Direction.UP) {
             if (currentFloor < highestFloor) {
                 currentFloor++;
+                floorsTravelled++;
+                runFloors++;
                 System.out.println("Elevator moving UP to floor " + currentFloor);
+                notifyMoved(currentFloor - 1);
             } else {
                 // Reached highest floor, reverse direction
+                completeRun();
                 direction = Direction.DOWN;
                 System.out.println("Elevator at highest floor, reversing to DOWN");
             }
         } else if (direction == Direction.DOWN) {
             if (currentFloor > lowestFloor) {
                 currentFloor--;
+                floorsTravelled++;
+                runFloors++;
                 System.out.println("Elevator moving DOWN to floor " + currentFloor);
+                notifyMoved(currentFloor + 1);
             } else {
                 // Reached lowest floor, reverse direction
+                completeRun();
                 direction = Direction.UP;
                 System.out.println("Elevator at lowest floor, reversing to UP");
             }
@@ -242,6 +481,8 @@ public class Elevator {
             if (callDirections.contains(direction) || direction == Direction.NONE) {
                 return true;
             }
+            // Preempting calls are served whatever their direction
+            return hasPreemptingCallAtCurrentFloor();
         }
         
         return false;
@@ -252,61 +493,219 @@ public class Elevator {
      */
     private void clearCallsAndDestinations() {
         // Remove destination for current floor
-        destinations.remove(Integer.valueOf(currentFloor));
+        if (destinations.remove(Integer.valueOf(currentFloor))) {
+            stateVersion++;
+        }
         
-        // Remove calls for current floor in current direction
+        // Remove calls for current floor in current direction, and preempting calls in any direction
+        boolean preempted = false;
         if (calls.containsKey(currentFloor)) {
-            if (direction != Direction.NONE) {
-                calls.get(currentFloor).remove(direction);
+            for (Direction callDirection : Direction.values()) {
+                if (callDirection == Direction.NONE) {
+                    continue;
+                }
+                CallPriority priority = callPriorities.get(callKey(currentFloor, callDirection));
+                if (priority != null && priority.preempts() && calls.get(currentFloor).remove(callDirection)) {
+                    callPriorities.remove(callKey(currentFloor, callDirection));
+                    pendingCallCount--;
+                    stateVersion++;
+                    preempted = true;
+                }
+            }
+            if (direction != Direction.NONE && calls.get(currentFloor).remove(direction)) {
+                callPriorities.remove(callKey(currentFloor, direction));
+                pendingCallCount--;
+                stateVersion++;
             }
             if (calls.get(currentFloor).isEmpty()) {
                 calls.remove(currentFloor);
+                stateVersion++;
             }
         }
         
+        countStop(preempted);
+        
         System.out.println("Cleared calls and destinations for floor " + currentFloor);
     }
     
+    /**
+     * Counts a stop that served calls for the preemption bound
+     * 
+     * @param preempted true if the stop served a preempting call
+     */
+    private void countStop(boolean preempted) {
+        int count = preempted ? consecutivePreemptions + 1 : 0;
+        if (count != consecutivePreemptions) {
+            consecutivePreemptions = count;
+            stateVersion++;
+        }
+    }
+    
+    /**
+     * Checks if a preempting call is pending at the current floor
+     * 
+     * @return true if such a call exists
+     */
+    private boolean hasPreemptingCallAtCurrentFloor() {
+        if (callPriorities.isEmpty()) {
+            return false;
+        }
+        CallPriority up = callPriorities.get(callKey(currentFloor, Direction.UP));
+        CallPriority down = callPriorities.get(callKey(currentFloor, Direction.DOWN));
+        return (up != null && up.preempts()) || (down != null && down.preempts());
+    }
+    
+    /**
+     * Finds the floor of the preempting call to serve next
+     * The highest class wins, then the nearest floor. Once the preemption
+     * bound is reached only emergency calls are still preempting until the
+     * normal sweep has served a stop
+     * 
+     * @return the target floor, or -1 if no call preempts
+     */
+    private int preemptionTarget() {
+        if (callPriorities.isEmpty()) {
+            return -1;
+        }
+        boolean bounded = consecutivePreemptions >= maxConsecutivePreemptions;
+        CallPriority best = null;
+        int target = -1;
+        for (Map.Entry<Integer, CallPriority> entry : callPriorities.entrySet()) {
+            CallPriority priority = entry.getValue();
+            if (!priority.preempts() || (bounded && priority != CallPriority.EMERGENCY)) {
+                continue;
+            }
+            int floor = entry.getKey() / 2;
+            if (best == null || priority.compareTo(best) > 0
+                || (priority == best && Math.abs(floor - currentFloor) < Math.abs(target - currentFloor))) {
+                best = priority;
+                target = floor;
+            }
+        }
+        return target;
+    }
+    
+    /**
+     * Clears the calls in every direction for the current floor
+     */
+    private void clearCallsAtCurrentFloor() {
+        List<Direction> callDirections = calls.remove(currentFloor);
+        if (callDirections != null) {
+            boolean preempted = false;
+            for (Direction callDirection : callDirections) {
+                CallPriority priority = callPriorities.remove(callKey(currentFloor, callDirection));
+                preempted |= priority != null && priority.preempts();
+            }
+            countStop(preempted);
+            pendingCallCount -= callDirections.size();
+            stateVersion++;
+            System.out.println("Cleared calls for floor " + currentFloor);
+        }
+    }
+    
     /**
      * Chooses the direction for the elevator to move
      * Implements the direction selection algorithm from the specification
+     * The last decision is memoized together with its inputs (floor, direction
+     * and state version), so repeated calls on an unchanged state are free
      * 
      * @return the chosen direction
      */
     public Direction chooseDirection() {
+        DirectionDecisionEvent event = new DirectionDecisionEvent();
+        event.begin();
+        
+        Direction inputDirection = direction;
+        // One read per decision, so a concurrent swap applies from the next decision on
+        DirectionPolicy policy = directionPolicy.get();
+        boolean cacheHit = cachedVersion == stateVersion && cachedFloor == currentFloor && 
+                           cachedInputDirection == inputDirection && cachedPolicy == policy;
+        if (cacheHit) {
+            decisionCacheHits++;
+            direction = cachedDecision;
+        } else {
+            decisionCacheMisses++;
+            direction = computeDirection(policy);
+            
+            cachedVersion = stateVersion;
+            cachedFloor = currentFloor;
+            cachedInputDirection = inputDirection;
+            cachedDecision = direction;
+            cachedPolicy = policy;
+        }
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.floor = currentFloor;
+            event.previousDirection = inputDirection.name();
+            event.chosenDirection = direction.name();
+            event.cacheHit = cacheHit;
+            event.commit();
+        }
+        return direction;
+    }
+    
+    /**
+     * Computes the direction from the current calls and destinations
+     * 
+     * @param policy the direction policy of this decision
+     * @return the chosen direction
+     */
+    private Direction computeDirection(DirectionPolicy policy) {
         // If there's a call on current floor, set direction to NONE to handle it
         if (calls.containsKey(currentFloor) && !calls.get(currentFloor).isEmpty()) {
-            direction = Direction.NONE;
             System.out.println("Call on current floor, direction set to NONE");
-            return direction;
+            return Direction.NONE;
         }
         
         // If no calls or destinations, no direction needed
         if (calls.isEmpty() && destinations.isEmpty()) {
-            direction = Direction.NONE;
             System.out.println("No calls or destinations, direction set to NONE");
-            return direction;
+            return Direction.NONE;
+        }
+        
+        // Preempting calls take the car off its sweep
+        int target = preemptionTarget();
+        if (target >= 0 && target != currentFloor) {
+            System.out.println("Preempting sweep for priority call at floor " + target);
+            return target > currentFloor ? Direction.UP : Direction.DOWN;
+        }
+        
+        Direction chosen = policy.chooseDirection(this);
+        if (chosen == null || (chosen == Direction.UP && currentFloor >= highestFloor)
+            || (chosen == Direction.DOWN && currentFloor <= lowestFloor)) {
+            return Direction.NONE;
         }
+        return chosen;
+    }
+    
+    /**
+     * Computes the direction of collective control from the current calls
+     * and destinations
+     * 
+     * @return the chosen direction
+     */
+    Direction collectiveDirection() {
+        // Single pass over calls and destinations for both directions
+        int pending = pendingFloorsMask();
         
         // Check for calls or destinations in current direction
         if (direction != Direction.NONE) {
-            if (hasCallsOrDestinationsInDirection(direction)) {
+            if (hasPendingInDirection(pending, direction)) {
                 // Check if we're at boundary
                 if ((direction == Direction.UP && currentFloor == highestFloor) ||
                     (direction == Direction.DOWN && currentFloor == lowestFloor)) {
                     // At boundary, check opposite direction
                     Direction opposite = direction.opposite();
-                    if (hasCallsOrDestinationsInDirection(opposite)) {
-                        direction = opposite;
-                        System.out.println("At boundary, switching to " + direction);
-                    } else {
-                        direction = Direction.NONE;
-                        System.out.println("At boundary, no calls in opposite direction, set to NONE");
+                    if (hasPendingInDirection(pending, opposite)) {
+                        System.out.println("At boundary, switching to " + opposite);
+                        return opposite;
                     }
-                } else {
-                    // Continue in current direction
-                    System.out.println("Maintaining direction: " + direction);
+                    System.out.println("At boundary, no calls in opposite direction, set to NONE");
+                    return Direction.NONE;
                 }
+                // Continue in current direction
+                System.out.println("Maintaining direction: " + direction);
                 return direction;
             }
         }
@@ -316,64 +715,127 @@ public class Elevator {
             Direction opposite = direction.opposite();
             if ((opposite == Direction.UP && currentFloor < highestFloor) ||
                 (opposite == Direction.DOWN && currentFloor > lowestFloor)) {
-                if (hasCallsOrDestinationsInDirection(opposite)) {
-                    direction = opposite;
-                    System.out.println("No calls ahead, switching to " + direction);
-                    return direction;
+                if (hasPendingInDirection(pending, opposite)) {
+                    System.out.println("No calls ahead, switching to " + opposite);
+                    return opposite;
                 }
             }
         }
         
         // No common direction, start looking upwards
-        if (currentFloor < highestFloor && hasCallsOrDestinationsInDirection(Direction.UP)) {
-            direction = Direction.UP;
+        if (currentFloor < highestFloor && (pending & PENDING_ABOVE) != 0) {
             System.out.println("Default: choosing UP direction");
-        } else if (currentFloor > lowestFloor && hasCallsOrDestinationsInDirection(Direction.DOWN)) {
-            direction = Direction.DOWN;
+            return Direction.UP;
+        } else if (currentFloor > lowestFloor && (pending & PENDING_BELOW) != 0) {
             System.out.println("Default: choosing DOWN direction");
-        } else {
-            direction = Direction.NONE;
-            System.out.println("No valid direction found, set to NONE");
+            return Direction.DOWN;
         }
-        
-        return direction;
+        System.out.println("No valid direction found, set to NONE");
+        return Direction.NONE;
     }
     
     /**
-     * Checks if there are any calls or destinations in a specific direction
+     * Checks a pending floors mask for calls or destinations in a specific direction
      * 
+     * @param pending mask computed by pendingFloorsMask
      * @param dir the direction to check
      * @return true if there are calls or destinations in that direction
      */
-    private boolean hasCallsOrDestinationsInDirection(Direction dir) {
+    private static boolean hasPendingInDirection(int pending, Direction dir) {
         if (dir == Direction.UP) {
-            // Check for calls above current floor
-            for (Integer floor : calls.keySet()) {
-                if (floor > currentFloor) {
-                    return true;
-                }
-            }
-            // Check for destinations above current floor
-            for (Integer floor : destinations) {
-                if (floor > currentFloor) {
-                    return true;
-                }
-            }
+            return (pending & PENDING_ABOVE) != 0;
         } else if (dir == Direction.DOWN) {
-            // Check for calls below current floor
-            for (Integer floor : calls.keySet()) {
-                if (floor < currentFloor) {
-                    return true;
-                }
+            return (pending & PENDING_BELOW) != 0;
+        }
+        return false;
+    }
+    
+    /**
+     * Scans calls and destinations once and records whether any lie above
+     * or below the current floor
+     * 
+     * @return bit mask of PENDING_ABOVE and PENDING_BELOW
+     */
+    private int pendingFloorsMask() {
+        int mask = 0;
+        for (Integer floor : calls.keySet()) {
+            mask |= floor > currentFloor ? PENDING_ABOVE : (floor < currentFloor ? PENDING_BELOW : 0);
+            if (mask == (PENDING_ABOVE | PENDING_BELOW)) {
+                return mask;
             }
-            // Check for destinations below current floor
-            for (Integer floor : destinations) {
-                if (floor < currentFloor) {
-                    return true;
-                }
+        }
+        for (Integer floor : destinations) {
+            mask |= floor > currentFloor ? PENDING_ABOVE : (floor < currentFloor ? PENDING_BELOW : 0);
+            if (mask == (PENDING_ABOVE | PENDING_BELOW)) {
+                return mask;
             }
         }
-        return false;
+        return mask;
+    }
+    
+    /**
+     * Gets the live metrics of this car
+     * 
+     * @return the car metrics
+     */
+    public CarMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Gets the number of pending hall calls (floor and direction pairs)
+     * 
+     * @return pending call count
+     */
+    public int getPendingCallCount() {
+        return pendingCallCount;
+    }
+    
+    /**
+     * Gets the number of pending destinations
+     * 
+     * @return pending destination count
+     */
+    public int getPendingDestinationCount() {
+        return destinations.size();
+    }
+    
+    /**
+     * Gets the modification version of the calls and destinations
+     * Incremented every time a call or destination is added or cleared
+     * 
+     * @return state version
+     */
+    public long getStateVersion() {
+        return stateVersion;
+    }
+    
+    /**
+     * Gets the number of direction decisions served from the cache
+     * 
+     * @return cache hit count
+     */
+    public long getDecisionCacheHits() {
+        return decisionCacheHits;
+    }
+    
+    /**
+     * Gets the number of direction decisions that had to be recomputed
+     * 
+     * @return cache miss count
+     */
+    public long getDecisionCacheMisses() {
+        return decisionCacheMisses;
+    }
+    
+    /**
+     * Gets the fraction of direction decisions served from the cache
+     * 
+     * @return hit rate between 0.0 and 1.0, or 0.0 if no decision was made yet
+     */
+    public double getDecisionCacheHitRate() {
+        long total = decisionCacheHits + decisionCacheMisses;
+        return total == 0 ? 0.0 : (double) decisionCacheHits / total;
     }
     
     /**
@@ -387,6 +849,69 @@ public class Elevator {
             canRestart = true;
             System.out.println("Elevator received door closed signal, can restart");
         }
+        notifyDoorClosed(floor);
+    }
+    
+    /**
+     * Notifies listeners that the elevator reached the current floor
+     * 
+     * @param fromFloor the floor the elevator left
+     */
+    private void notifyMoved(int fromFloor) {
+        for (ElevatorListener listener : listeners) {
+            listener.carMoved(fromFloor, currentFloor);
+        }
+    }
+    
+    /**
+     * Adds the simulated time of a group of passengers passing the door
+     * 
+     * @param passengers number of boarding or alighting passengers
+     */
+    void recordPassengerTransfer(int passengers) {
+        transferSeconds += motionProfile.groupTransferTime(passengers);
+    }
+    
+    /**
+     * Adds the simulated time the door stayed open at a stop
+     * 
+     * @param seconds dwell time in seconds
+     */
+    void recordDwell(double seconds) {
+        dwellSeconds += seconds;
+    }
+    
+    /**
+     * Notifies listeners that a door has opened
+     * 
+     * @param floor the floor where the door opened
+     */
+    void notifyDoorOpened(int floor) {
+        doorSeconds += motionProfile.getDoorOpenTime();
+        openDoorFloor = floor;
+        // An idle car opening at a called floor serves the calls waiting there
+        if (floor == currentFloor && isStopped && direction == Direction.NONE) {
+            clearCallsAtCurrentFloor();
+        }
+        for (ElevatorListener listener : listeners) {
+            listener.doorOpened(floor);
+        }
+    }
+    
+    /**
+     * Notifies listeners that a door has closed
+     * Unlike doorClosed, this does not allow the elevator to restart
+     * 
+     * @param floor the floor where the door closed
+     */
+    void notifyDoorClosed(int floor) {
+        doorSeconds += motionProfile.getDoorCloseTime();
+        if (openDoorFloor == floor) {
+            openDoorFloor = -1;
+        }
+        for (ElevatorListener listener : listeners) {
+            listener.doorClosed(floor);
+        }
     }
     
     /**
@@ -402,11 +927,191 @@ public class Elevator {
             } else {
                 direction = Direction.DOWN;
             }
-            move();
+            if (expressMove(targetFloor) == 0) {
+                break; // Target is outside the reachable floors
+            }
         }
         stop();
     }
     
+    /**
+     * Moves the elevator to its next stop in the current direction in one operation
+     * The next stop is found from the call and destination lists, using the same
+     * stop rule that move() applies floor by floor, so no stop is skipped
+     * Falls back to move() when there is nothing to skip (boundary reversal or
+     * no direction)
+     * 
+     * @return number of floors travelled
+     */
+    public int moveExpress() {
+        return expressMove(direction == Direction.DOWN ? lowestFloor : highestFloor);
+    }
+    
+    /**
+     * Moves the elevator towards a limit floor, stopping early at the first
+     * floor where it has to stop
+     * 
+     * @param limitFloor the farthest floor to travel to
+     * @return number of floors travelled
+     */
+    private int expressMove(int limitFloor) {
+        if (!canRestart) {
+            return 0;
+        }
+        
+        int target = nextStopFloor(limitFloor);
+        if (target == currentFloor) {
+            move();
+            return 0;
+        }
+        
+        if (isStopped) {
+            isStopped = false;
+            for (ElevatorListener listener : listeners) {
+                listener.carDeparted(currentFloor);
+            }
+        }
+        
+        int floors = Math.abs(target - currentFloor);
+        int fromFloor = currentFloor;
+        currentFloor = target;
+        floorsTravelled += floors;
+        runFloors += floors;
+        System.out.println("Elevator moving " + direction + " express to floor " + currentFloor);
+        notifyMoved(fromFloor);
+        
+        if (shouldStopAtCurrentFloor()) {
+            stop();
+            clearCallsAndDestinations();
+            canRestart = false; // Wait for door to close
+        }
+        return floors;
+    }
+    
+    /**
+     * Finds the first floor in the current direction where the elevator must stop
+     * 
+     * @param limitFloor the farthest floor to consider
+     * @return the next stop, the limit floor if there is none before it,
+     *         or the current floor if there is no direction
+     */
+    private int nextStopFloor(int limitFloor) {
+        if (direction == Direction.UP) {
+            int next = Math.max(currentFloor, Math.min(limitFloor, highestFloor));
+            for (Integer floor : destinations) {
+                if (floor > currentFloor && floor < next) {
+                    next = floor;
+                }
+            }
+            for (Map.Entry<Integer, List<Direction>> call : calls.entrySet()) {
+                int floor = call.getKey();
+                if (floor > currentFloor && floor < next && call.getValue().contains(Direction.UP)) {
+                    next = floor;
+                }
+            }
+            return next;
+        } else if (direction == Direction.DOWN) {
+            int next = Math.min(currentFloor, Math.max(limitFloor, lowestFloor));
+            for (Integer floor : destinations) {
+                if (floor < currentFloor && floor > next) {
+                    next = floor;
+                }
+            }
+            for (Map.Entry<Integer, List<Direction>> call : calls.entrySet()) {
+                int floor = call.getKey();
+                if (floor < currentFloor && floor > next && call.getValue().contains(Direction.DOWN)) {
+                    next = floor;
+                }
+            }
+            return next;
+        }
+        return currentFloor;
+    }
+    
+    /**
+     * Ends the current run and adds its closed-form duration to the travel time
+     * A run is the travel between two standstills: a stop or a reversal
+     */
+    private void completeRun() {
+        if (runFloors > 0) {
+            travelSeconds += motionProfile.tripTime(runFloors);
+            runFloors = 0;
+        }
+    }
+    
+    /**
+     * Gets the motion profile used to compute travel and door times
+     * 
+     * @return the motion profile
+     */
+    public MotionProfile getMotionProfile() {
+        return motionProfile;
+    }
+    
+    /**
+     * Sets the motion profile used to compute travel and door times
+     * 
+     * @param motionProfile the motion profile
+     */
+    public void setMotionProfile(MotionProfile motionProfile) {
+        this.motionProfile = motionProfile;
+    }
+    
+    /**
+     * Gets the time spent travelling in completed runs
+     * 
+     * @return travel time in seconds
+     */
+    public double getTravelSeconds() {
+        return travelSeconds;
+    }
+    
+    /**
+     * Gets the time spent opening and closing doors
+     * 
+     * @return door operation time in seconds
+     */
+    public double getDoorSeconds() {
+        return doorSeconds;
+    }
+    
+    /**
+     * Gets the time spent by passengers boarding and alighting
+     * 
+     * @return passenger transfer time in seconds
+     */
+    public double getTransferSeconds() {
+        return transferSeconds;
+    }
+    
+    /**
+     * Gets the time doors stayed open at stops, which includes passenger transfers
+     * 
+     * @return dwell time in seconds
+     */
+    public double getDwellSeconds() {
+        return dwellSeconds;
+    }
+    
+    /**
+     * Gets the total simulated time of travel, door operations and dwells
+     * Passenger transfers happen during the dwell and are not added again
+     * 
+     * @return simulated time in seconds
+     */
+    public double getSimulatedSeconds() {
+        return travelSeconds + doorSeconds + dwellSeconds;
+    }
+    
+    /**
+     * Gets the total number of floors travelled by the elevator
+     * 
+     * @return floors travelled
+     */
+    public long getFloorsTravelled() {
+        return floorsTravelled;
+    }
+    
     /**
      * Checks if the elevator has reached a specific floor
      * 
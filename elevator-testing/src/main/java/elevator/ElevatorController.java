@@ -1,7 +1,23 @@
 package elevator;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * Main controller for the elevator system
@@ -10,12 +26,50 @@ import java.util.List;
  * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
  * @version 1.0
  */
-public class ElevatorController {
+public class ElevatorController implements ArrivalTarget {
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+    
     private Elevator elevator;
     private Door[] doors;
     private List<User> users;
+    private final List<User> boardingGroup;
+    private DwellPolicy dwellPolicy;
+    private AtomicReference<DirectionPolicy> directionPolicy;
+    private boolean stopInProgress;
+    private int stopFloor;
+    private int stopBoarded;
+    private int stopAlighted;
+    private long stopDwellMillis;
+    private double lastLobbyDeparture;
+    private long floorsAtLobbyDeparture;
     private int numberOfFloors;
     private int currentStep;
+    private SafetyMonitor safetyMonitor;
+    private final ControllerEventPublisher eventPublisher;
+    private final ElevatorListener callReopener;
+    private volatile ControllerSnapshot snapshot;
+    private boolean expressMode;
+    private int doorOpenSteps;
+    private int doorOpenFor;
+    private SimulationRandom passengerRandom;
+    private long nextPassengerId;
+    private final String name;
+    private ControllerMetrics metrics;
+    private Map<User, Integer> arrivalSteps;
+    private final Map<User, Integer> boardingSteps;
+    private final Map<User, DirectionPolicy> callPolicies;
+    private ObjectName controllerObjectName;
+    private ObjectName carObjectName;
+    private final Queue<SubmittedCall> submittedCalls;
+    private volatile CommandMailbox mailbox;
+    private Thread owner;
+    private final int[] waitingPerFloor;
+    private StepStateExporter stateExporter;
+    private StepHistoryBuffer stepHistory;
+    private TraceWriter traceWriter;
+    private Path historyDumpDirectory;
+    private int lastHistoryDumpStep = -1;
+    private final Queue<ConstraintViolation> monitoredViolations;
     
     /**
      * Constructor for ElevatorController
@@ -27,13 +81,46 @@ public class ElevatorController {
         this.elevator = new Elevator(0, numberOfFloors - 1);
         this.doors = new Door[numberOfFloors];
         this.users = new ArrayList<>();
+        this.boardingGroup = new ArrayList<>();
+        this.dwellPolicy = DwellPolicy.DEFAULT;
+        this.directionPolicy = new AtomicReference<>(StandardDirectionPolicy.COLLECTIVE);
+        elevator.shareDirectionPolicy(directionPolicy);
+        this.lastLobbyDeparture = -1.0;
         this.currentStep = 0;
+        this.name = "controller-" + INSTANCE_COUNTER.incrementAndGet();
+        this.metrics = new ControllerMetrics(this);
+        this.arrivalSteps = new HashMap<>();
+        this.boardingSteps = new HashMap<>();
+        this.callPolicies = new HashMap<>();
+        this.submittedCalls = new ConcurrentLinkedQueue<>();
+        this.monitoredViolations = new ConcurrentLinkedQueue<>();
+        this.waitingPerFloor = new int[numberOfFloors];
+        this.passengerRandom = SimulationRandom.unseeded().subsystem("passengers");
+        this.safetyMonitor = new SafetyMonitor(numberOfFloors);
+        // Violations may be reported on door timer threads; the step dumps the history
+        safetyMonitor.addViolationListener(violation -> {
+            if (stepHistory != null) {
+                monitoredViolations.add(violation);
+            }
+        });
+        elevator.addListener(safetyMonitor);
+        this.eventPublisher = new ControllerEventPublisher(this, ForkJoinPool.commonPool());
+        elevator.addListener(eventPublisher);
+        this.callReopener = new ElevatorListener() {
+            @Override
+            public void hallCallAtOpenDoor(int floor, Direction direction) {
+                reopenDoor(floor);
+            }
+        };
+        elevator.addListener(callReopener);
         
         // Initialize doors for each floor
         for (int i = 0; i < numberOfFloors; i++) {
             doors[i] = new Door(i, elevator);
         }
         
+        this.snapshot = ControllerSnapshot.of(this, waitingPerFloor);
+        
         System.out.println("Elevator controller initialized with " + numberOfFloors + " floors");
     }
     
@@ -46,6 +133,224 @@ public class ElevatorController {
         return elevator;
     }
     
+    /**
+     * Gets the number of floors served by this controller
+     * 
+     * @return number of floors
+     */
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+    
+    /**
+     * Sets the policy deciding how long the door stays open at each stop
+     * 
+     * @param policy the dwell policy
+     */
+    public void setDwellPolicy(DwellPolicy policy) {
+        this.dwellPolicy = policy;
+    }
+    
+    /**
+     * Gets the policy deciding how long the door stays open at each stop
+     * 
+     * @return the dwell policy
+     */
+    public DwellPolicy getDwellPolicy() {
+        return dwellPolicy;
+    }
+    
+    /**
+     * Sets the policy that picks the car's direction between stops
+     * The policy is kept when the controller is reset
+     * 
+     * @param policy the direction policy
+     */
+    public void setDirectionPolicy(DirectionPolicy policy) {
+        elevator.setDirectionPolicy(policy);
+    }
+    
+    /**
+     * Atomically switches the car to another direction policy while it runs
+     * May be called from any thread without pausing the stepping thread: the
+     * controller and its car read the same reference, so the swap is a single
+     * write, the car's next direction decision uses the new policy and every pending call
+     * and destination is kept. Passengers who call from then on are attributed
+     * to the new policy in the metrics, those already in the system stay with
+     * the policy that was active when they called
+     * 
+     * @param policy the new direction policy
+     * @return the policy it replaced
+     */
+    public DirectionPolicy swapDirectionPolicy(DirectionPolicy policy) {
+        DirectionPolicy previous = elevator.swapDirectionPolicy(policy);
+        metrics.recordPolicySwap();
+        System.out.println("Direction policy switched from " + previous.getName() + " to " + policy.getName());
+        return previous;
+    }
+    
+    /**
+     * Gets the policy that picks the car's direction between stops
+     * 
+     * @return the direction policy
+     */
+    public DirectionPolicy getDirectionPolicy() {
+        return directionPolicy.get();
+    }
+    
+    /**
+     * Makes the controller and its car read the direction policy from a shared
+     * reference, so that one swap switches every car holding it
+     * 
+     * @param reference the shared direction policy reference
+     */
+    void shareDirectionPolicy(AtomicReference<DirectionPolicy> reference) {
+        elevator.shareDirectionPolicy(reference);
+        this.directionPolicy = reference;
+    }
+    
+    /**
+     * Gets the publisher of the controller's activity events
+     * 
+     * @return the event publisher
+     */
+    public ControllerEventPublisher getEventPublisher() {
+        return eventPublisher;
+    }
+    
+    /**
+     * Gets the safety monitor that checks constraints on every transition
+     * 
+     * @return the safety monitor
+     */
+    public SafetyMonitor getSafetyMonitor() {
+        return safetyMonitor;
+    }
+    
+    /**
+     * Gets the name identifying this controller in management interfaces
+     * 
+     * @return controller name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Gets the live metrics of this controller
+     * 
+     * @return the controller metrics
+     */
+    public ControllerMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Registers the controller and car metrics as platform MXBeans
+     * Names are elevator:type=Controller,name=NAME and
+     * elevator:type=Car,controller=NAME,car=0
+     */
+    public synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (controllerObjectName == null) {
+                ObjectName objectName = new ObjectName("elevator:type=Controller,name=" + name);
+                server.registerMBean(metrics, objectName);
+                controllerObjectName = objectName;
+            }
+            if (carObjectName == null) {
+                ObjectName objectName = new ObjectName("elevator:type=Car,controller=" + name + ",car=0");
+                server.registerMBean(elevator.getMetrics(), objectName);
+                carObjectName = objectName;
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register MBeans for " + name, e);
+        }
+    }
+    
+    /**
+     * Unregisters the controller and car MXBeans if they are registered
+     */
+    public synchronized void unregisterMBeans() {
+        unregisterCarMBean();
+        if (controllerObjectName != null) {
+            unregister(controllerObjectName);
+            controllerObjectName = null;
+        }
+    }
+    
+    /**
+     * Unregisters the car MXBean if it is registered
+     */
+    private synchronized void unregisterCarMBean() {
+        if (carObjectName != null) {
+            unregister(carObjectName);
+            carObjectName = null;
+        }
+    }
+    
+    /**
+     * Unregisters an MBean, ignoring beans that are already gone
+     * 
+     * @param objectName the name of the MBean
+     */
+    private static void unregister(ObjectName objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister MBean " + objectName, e);
+        }
+    }
+    
+    /**
+     * Enables or disables express mode
+     * In express mode the elevator travels to its next stop in a single step,
+     * and the step counter advances by the number of floors travelled
+     * 
+     * @param expressMode true to enable express moves, false for one floor per step
+     */
+    public void setExpressMode(boolean expressMode) {
+        this.expressMode = expressMode;
+    }
+    
+    /**
+     * Checks if express mode is enabled
+     * 
+     * @return true if express moves are enabled, false otherwise
+     */
+    public boolean isExpressMode() {
+        return expressMode;
+    }
+    
+    /**
+     * Sets how many steps a door stays open in step-driven door mode
+     * With a positive value the doors no longer close on wall-clock timers;
+     * the door at the open floor is closed once it has been open for that many
+     * steps and nobody is entering, and users added afterwards board without
+     * sleeping, so simulations run as fast as possible
+     * 
+     * @param steps number of steps a door stays open, or 0 to use the door timers
+     */
+    public void setDoorOpenSteps(int steps) {
+        this.doorOpenSteps = Math.max(0, steps);
+        this.doorOpenFor = 0;
+        for (Door door : doors) {
+            door.setTimerEnabled(doorOpenSteps == 0);
+        }
+    }
+    
+    /**
+     * Gets how many steps a door stays open in step-driven door mode
+     * 
+     * @return number of steps, or 0 if the doors use wall-clock timers
+     */
+    public int getDoorOpenSteps() {
+        return doorOpenSteps;
+    }
+    
     /**
      * Gets all doors
      * 
@@ -79,30 +384,119 @@ public class ElevatorController {
      */
     public void addUser(User user) {
         if (!users.contains(user)) {
+            if (doorOpenSteps > 0) {
+                user.setEntryDelayEnabled(false);
+            }
             users.add(user);
+            arrivalSteps.put(user, currentStep);
+            callPolicies.put(user, elevator.getDirectionPolicy());
             System.out.println("User added to system: " + user);
         }
     }
     
+    /**
+     * Sets the random hierarchy of the run
+     * Passengers added with addArrival draw their seeds from its "passengers"
+     * subsystem in arrival order, so runs with the same seed are reproducible
+     * 
+     * @param random the root of the run's random hierarchy
+     */
+    public void setRandom(SimulationRandom random) {
+        this.passengerRandom = random.subsystem("passengers");
+        this.nextPassengerId = 0;
+    }
+    
+    /**
+     * Adds a passenger arriving at a floor and lets them call the elevator
+     * 
+     * @param origin the floor where the passenger arrives
+     * @param destination the floor the passenger wants to reach
+     * @param distracted true if the passenger may miss the elevator
+     * @return the new user
+     */
+    public User addArrival(int origin, int destination, boolean distracted) {
+        return addArrival(origin, destination, distracted, CallPriority.NORMAL);
+    }
+    
+    /**
+     * Adds a passenger of a service class arriving at a floor and lets them call the elevator
+     * 
+     * @param origin the floor where the passenger arrives
+     * @param destination the floor the passenger wants to reach
+     * @param distracted true if the passenger may miss the elevator
+     * @param priority the service class of the passenger's call
+     * @return the new user
+     */
+    public User addArrival(int origin, int destination, boolean distracted, CallPriority priority) {
+        Direction direction = destination > origin ? Direction.UP : Direction.DOWN;
+        User user = new User(origin, destination, direction, passengerRandom.childSeed(nextPassengerId++));
+        user.setDistracted(distracted);
+        user.setPriority(priority);
+        addUser(user);
+        user.callElevator(elevator);
+        return user;
+    }
+    
     /**
      * Executes one step of the simulation
      * Coordinates elevator movement, door operations, and user actions
      */
     public void step() {
+        if (mailbox != null) {
+            checkOwner();
+        }
+        StepEvent event = new StepEvent();
+        event.begin();
+        // Phase timings are only taken while a recording is capturing steps
+        boolean profiling = event.isEnabled();
+        long phaseStart = profiling ? System.nanoTime() : 0L;
+        long now;
+        
         currentStep++;
+        safetyMonitor.setCurrentStep(currentStep);
+        metrics.recordStep();
+        
+        // Apply hall calls and commands submitted from other threads since the last step
+        drainSubmittedCalls();
+        if (mailbox != null) {
+            mailbox.drain(this);
+        }
+        
+        if (doorOpenSteps > 0) {
+            advanceDoorClock();
+        }
         
         // Check if elevator should choose a new direction
         if (elevator.isStopped() && elevator.canRestart()) {
             elevator.chooseDirection();
         }
+        if (profiling) {
+            now = System.nanoTime();
+            event.directionTime = now - phaseStart;
+            phaseStart = now;
+        }
         
         // Move elevator if it has a direction and can move
         if (elevator.getDirection() != Direction.NONE && elevator.canRestart()) {
             // Ensure no doors are open before moving
             if (!anyDoorOpen()) {
-                elevator.move();
+                if (expressMode) {
+                    // A multi-floor jump takes one step per floor travelled
+                    int floors = elevator.moveExpress();
+                    if (floors > 1) {
+                        currentStep += floors - 1;
+                        safetyMonitor.setCurrentStep(currentStep);
+                    }
+                } else {
+                    elevator.move();
+                }
             }
         }
+        if (profiling) {
+            now = System.nanoTime();
+            event.moveTime = now - phaseStart;
+            phaseStart = now;
+        }
         
         // If elevator stopped, check if door should open
         if (elevator.isStopped()) {
@@ -111,18 +505,333 @@ public class ElevatorController {
                 currentDoor.checkElevatorArrival();
             }
         }
+        if (profiling) {
+            now = System.nanoTime();
+            event.doorTime = now - phaseStart;
+            phaseStart = now;
+        }
         
         // Process user actions
         processUsers();
+        if (profiling) {
+            now = System.nanoTime();
+            event.userTime = now - phaseStart;
+            phaseStart = now;
+        }
         
         // Ensure only one door is open at a time
         enforceOneDoorConstraint();
+        
+        if (stateExporter != null) {
+            stateExporter.record(this);
+        }
+        if (stepHistory != null) {
+            stepHistory.record(this);
+            dumpMonitoredViolations();
+        }
+        if (traceWriter != null) {
+            traceWriter.record(this);
+        }
+        snapshot = ControllerSnapshot.of(this, waitingPerFloor);
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.constraintTime = System.nanoTime() - phaseStart;
+            event.step = currentStep;
+            event.floor = elevator.getCurrentFloor();
+            event.direction = elevator.getDirection().name();
+            event.commit();
+        }
+    }
+    
+    /**
+     * Gets the state published at the end of the last step
+     * Safe to call from any thread; the snapshot never changes once published
+     * 
+     * @return the latest snapshot
+     */
+    public ControllerSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Gets the number of users waiting at a floor after the last step
+     * 
+     * @param floor the floor number
+     * @return number of waiting users, or 0 if the floor is invalid
+     */
+    public int getWaitingCount(int floor) {
+        if (floor >= 0 && floor < numberOfFloors) {
+            return waitingPerFloor[floor];
+        }
+        return 0;
+    }
+    
+    /**
+     * Gets the number of users still waiting or travelling
+     * Users are removed from the system once they reach their destination
+     * 
+     * @return number of active users
+     */
+    public int getActiveUserCount() {
+        return users.size();
+    }
+    
+    /**
+     * Attaches an exporter that receives the system state after every step
+     * 
+     * @param exporter the exporter, or null to stop exporting
+     */
+    public void setStateExporter(StepStateExporter exporter) {
+        this.stateExporter = exporter;
+    }
+    
+    /**
+     * Attaches a writer that records the changes of every step to a trace
+     * A trace covers one run: a reset detaches the writer, attach a new one
+     * to trace the next run
+     * 
+     * @param writer the trace writer, or null to stop tracing
+     */
+    public void setTraceWriter(TraceWriter writer) {
+        this.traceWriter = writer;
+        if (writer != null) {
+            writer.attach(this);
+        }
+    }
+    
+    /**
+     * Gets the writer recording the steps to a trace
+     * 
+     * @return the trace writer, or null if none is attached
+     */
+    public TraceWriter getTraceWriter() {
+        return traceWriter;
+    }
+    
+    /**
+     * Attaches a ring buffer keeping the state of the most recent steps
+     * The buffer is dumped whenever the safety monitor reports a violation,
+     * at the end of the step, or validateConstraints finds one, at most once
+     * per step
+     * 
+     * @param history the buffer, or null to stop recording
+     * @param dumpDirectory directory of the dump files, or null to dump to standard output
+     */
+    public void setStepHistory(StepHistoryBuffer history, Path dumpDirectory) {
+        this.stepHistory = history;
+        this.historyDumpDirectory = dumpDirectory;
+        this.lastHistoryDumpStep = -1;
+        monitoredViolations.clear();
+    }
+    
+    /**
+     * Gets the ring buffer of the most recent steps
+     * 
+     * @return the buffer, or null if none is attached
+     */
+    public StepHistoryBuffer getStepHistory() {
+        return stepHistory;
+    }
+    
+    /**
+     * Dumps the step history if the safety monitor reported violations since
+     * the last step
+     */
+    private void dumpMonitoredViolations() {
+        if (monitoredViolations.isEmpty()) {
+            return;
+        }
+        List<String> violations = new ArrayList<>();
+        ConstraintViolation violation;
+        while ((violation = monitoredViolations.poll()) != null) {
+            violations.add(violation.toString());
+        }
+        dumpStepHistory(violations);
+    }
+    
+    /**
+     * Dumps the step history after a constraint violation
+     * 
+     * @param violations the violations found
+     */
+    private void dumpStepHistory(List<String> violations) {
+        if (stepHistory == null || lastHistoryDumpStep == currentStep) {
+            return;
+        }
+        lastHistoryDumpStep = currentStep;
+        try {
+            if (historyDumpDirectory != null) {
+                Path file = historyDumpDirectory.resolve("step-history-" + name + "-" + currentStep + ".txt");
+                stepHistory.dump(file);
+                System.out.println("Constraint violated at step " + currentStep + " " + violations
+                                   + ", step history written to " + file);
+            } else {
+                System.out.println("Constraint violated at step " + currentStep + " " + violations
+                                   + ", last " + stepHistory.size() + " steps:");
+                stepHistory.dump(new PrintWriter(System.out));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not dump step history: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Submits a hall call from any thread
+     * The call is queued and added to the elevator at the start of the next step,
+     * so submitting never touches state owned by the stepping thread
+     * 
+     * @param floor the floor where the call is made
+     * @param direction the direction requested (UP or DOWN)
+     * @return true if the call was queued, false if floor or direction is invalid
+     */
+    public boolean submitHallCall(int floor, Direction direction) {
+        if (floor < 0 || floor >= numberOfFloors || direction == null || direction == Direction.NONE) {
+            return false;
+        }
+        CommandMailbox target = mailbox;
+        if (target != null) {
+            target.post(controller -> controller.getElevator().addCall(floor, direction));
+        } else {
+            submittedCalls.offer(new SubmittedCall(floor, direction));
+        }
+        return true;
+    }
+    
+    /**
+     * Switches the single-writer actor mode on or off
+     * In actor mode every mutation from another thread, including door timer
+     * expiries, is a command posted to the mailbox; the first thread that
+     * steps the controller owns it and applies the commands in batches at
+     * the start of each step, so no state is mutated concurrently
+     * 
+     * @param batchSize maximum number of commands applied per step, or 0 to leave actor mode
+     */
+    public void setActorMode(int batchSize) {
+        CommandMailbox next = batchSize > 0 ? new CommandMailbox(batchSize) : null;
+        if (mailbox != null) {
+            mailbox.clear();
+        }
+        mailbox = next;
+        owner = null;
+        for (Door door : doors) {
+            door.setMailbox(next);
+        }
+    }
+    
+    /**
+     * Checks if the controller runs in actor mode
+     * 
+     * @return true if mutations go through the mailbox
+     */
+    public boolean isActorMode() {
+        return mailbox != null;
+    }
+    
+    /**
+     * Gets the mailbox of the actor mode
+     * 
+     * @return the mailbox, or null outside actor mode
+     */
+    public CommandMailbox getMailbox() {
+        return mailbox;
+    }
+    
+    /**
+     * Posts a command from any thread
+     * The command is applied by the owning thread at the start of the next step
+     * 
+     * @param command the command
+     * @throws IllegalStateException if the controller is not in actor mode
+     */
+    public void post(ControllerCommand command) {
+        CommandMailbox target = mailbox;
+        if (target == null) {
+            throw new IllegalStateException("Controller is not in actor mode");
+        }
+        target.post(command);
+    }
+    
+    /**
+     * Posts the arrival of a passenger from any thread
+     * 
+     * @param origin the floor where the passenger arrives
+     * @param destination the floor the passenger wants to reach
+     * @param priority the service class of the passenger's call
+     * @throws IllegalStateException if the controller is not in actor mode
+     */
+    public void postArrival(int origin, int destination, CallPriority priority) {
+        post(controller -> controller.addArrival(origin, destination, false, priority));
+    }
+    
+    /**
+     * Binds the actor mode to the first stepping thread and rejects the others
+     */
+    private void checkOwner() {
+        Thread current = Thread.currentThread();
+        if (owner == null) {
+            owner = current;
+        } else if (owner != current) {
+            throw new IllegalStateException("Controller in actor mode is owned by " + owner.getName());
+        }
+    }
+    
+    /**
+     * Adds all queued hall calls to the elevator
+     */
+    private void drainSubmittedCalls() {
+        SubmittedCall call;
+        while ((call = submittedCalls.poll()) != null) {
+            elevator.addCall(call.floor, call.direction);
+        }
+    }
+    
+    /**
+     * Keeps the door at a floor open for a hall call made there
+     * With door timers the door is held for the dwell of the current stop
+     * under the dwell policy; in step-driven mode the door clock restarts.
+     * Either way the caller boards before the door closes
+     * 
+     * @param floor the floor of the call
+     */
+    private void reopenDoor(int floor) {
+        long dwell = stopInProgress ? stopDwellMillis : dwellPolicy.dwellMillis(0, 0,
+            elevator.getPendingCallCount() + elevator.getPendingDestinationCount());
+        if (doors[floor].reopen(dwell) && doorOpenSteps > 0) {
+            doorOpenFor = 0;
+        }
+    }
+    
+    /**
+     * Closes the open door once it has been open for the configured number of steps
+     */
+    private void advanceDoorClock() {
+        int openFloor = safetyMonitor.getOpenDoorFloor();
+        if (openFloor < 0) {
+            doorOpenFor = 0;
+            return;
+        }
+        doorOpenFor++;
+        if (doorOpenFor >= doorOpenSteps) {
+            doors[openFloor].checkTimeout();
+            if (!doors[openFloor].isOpen()) {
+                doorOpenFor = 0;
+            }
+        }
     }
     
     /**
      * Processes actions for all users in the system
+     * Passengers leave first, then everyone waiting at the open floor boards
+     * as one group
      */
     private void processUsers() {
+        Arrays.fill(waitingPerFloor, 0);
+        int carFloor = elevator.getCurrentFloor();
+        Door carDoor = doors[carFloor];
+        boolean doorOpenAtCar = carDoor.isOpen() && elevator.isStopped();
+        int alighted = 0;
+        
         for (User user : users) {
             if (user.hasReachedDestination()) {
                 continue; // User has completed journey
@@ -130,24 +839,158 @@ public class ElevatorController {
             
             if (!user.isInElevator()) {
                 // User is waiting for elevator
-                Door userDoor = doors[user.getCurrentFloor()];
-                
-                if (userDoor.isOpen() && elevator.getCurrentFloor() == user.getCurrentFloor()) {
-                    // Try to enter
-                    if (user.tryToEnter(elevator, userDoor)) {
-                        user.enterDestination(elevator);
-                    }
+                if (doorOpenAtCar && user.getCurrentFloor() == carFloor) {
+                    boardingGroup.add(user);
+                } else {
+                    waitingPerFloor[user.getCurrentFloor()]++;
                 }
             } else {
                 // User is in elevator
-                if (elevator.getCurrentFloor() == user.getDestination() && elevator.isStopped()) {
-                    Door destDoor = doors[user.getDestination()];
-                    if (destDoor.isOpen()) {
-                        user.exit(elevator);
+                if (doorOpenAtCar && carFloor == user.getDestination()) {
+                    user.exit(elevator);
+                    if (!user.isInElevator()) {
+                        alighted++;
+                        elevator.getMetrics().recordAlighting();
+                        Integer boardingStep = boardingSteps.remove(user);
+                        if (boardingStep != null) {
+                            metrics.recordRide(currentStep - boardingStep);
+                            DirectionPolicy callPolicy = callPolicies.get(user);
+                            if (callPolicy != null) {
+                                metrics.recordPolicyRide(callPolicy.getName(), currentStep - boardingStep);
+                            }
+                        }
+                        eventPublisher.publish(ControllerEvent.Type.ALIGHTING, user.getDestination());
                     }
                 }
             }
         }
+        
+        if (alighted > 0) {
+            elevator.recordPassengerTransfer(alighted);
+        }
+        int boarded = 0;
+        if (!boardingGroup.isEmpty()) {
+            boarded = boardGroup();
+        }
+        updateDwell(carDoor, doorOpenAtCar, boarded, alighted);
+        
+        // Drop served users so long replays keep a bounded user list
+        users.removeIf(user -> {
+            if (user.hasReachedDestination()) {
+                arrivalSteps.remove(user);
+                boardingSteps.remove(user);
+                callPolicies.remove(user);
+                return true;
+            }
+            return false;
+        });
+    }
+    
+    /**
+     * Boards the waiting group at the open door in one batch
+     * The group's transfer time is accounted once, instead of one entry delay
+     * and door timer re-arm per user
+     * 
+     * @return number of users who boarded
+     */
+    private int boardGroup() {
+        int boarded = 0;
+        for (User user : boardingGroup) {
+            if (user.enterWithGroup(elevator)) {
+                user.enterDestination(elevator);
+                recordBoarding(user);
+                boarded++;
+            } else {
+                waitingPerFloor[user.getCurrentFloor()]++;
+            }
+        }
+        boardingGroup.clear();
+        
+        if (boarded > 0) {
+            elevator.recordPassengerTransfer(boarded);
+        }
+        return boarded;
+    }
+    
+    /**
+     * Makes the dwell decision of the current stop and accounts finished stops
+     * The dwell is decided when the door opens and revised only when
+     * passengers board or alight, so the door timer is set once per change
+     * 
+     * @param carDoor the door at the car's floor
+     * @param doorOpenAtCar true if that door is open and the car is stopped
+     * @param boarded number of users who boarded in this step
+     * @param alighted number of users who alighted in this step
+     */
+    private void updateDwell(Door carDoor, boolean doorOpenAtCar, int boarded, int alighted) {
+        if (!doorOpenAtCar) {
+            if (stopInProgress) {
+                finishStop();
+            }
+            return;
+        }
+        boolean newStop = !stopInProgress;
+        if (newStop) {
+            stopInProgress = true;
+            stopFloor = elevator.getCurrentFloor();
+            stopBoarded = 0;
+            stopAlighted = 0;
+        }
+        if (newStop || boarded > 0 || alighted > 0) {
+            stopBoarded += boarded;
+            stopAlighted += alighted;
+            int pendingElsewhere = elevator.getPendingCallCount() + elevator.getPendingDestinationCount();
+            stopDwellMillis = dwellPolicy.dwellMillis(stopBoarded, stopAlighted, pendingElsewhere);
+            carDoor.setDwell(stopDwellMillis);
+        }
+    }
+    
+    /**
+     * Accounts the dwell of the stop whose door just closed
+     * A stop at the lobby after travelling also completes a round trip
+     */
+    private void finishStop() {
+        stopInProgress = false;
+        elevator.recordDwell(stopDwellMillis / 1000.0);
+        metrics.recordDwell(stopDwellMillis);
+        if (stopFloor == 0) {
+            double now = elevator.getSimulatedSeconds();
+            long floors = elevator.getFloorsTravelled();
+            if (lastLobbyDeparture >= 0 && floors > floorsAtLobbyDeparture) {
+                metrics.recordRoundTrip(now - lastLobbyDeparture);
+            }
+            if (lastLobbyDeparture < 0 || floors > floorsAtLobbyDeparture) {
+                lastLobbyDeparture = now;
+                floorsAtLobbyDeparture = floors;
+            }
+        }
+    }
+    
+    /**
+     * Records a passenger boarding to the metrics and flight recorder
+     * 
+     * @param user the user who boarded
+     */
+    private void recordBoarding(User user) {
+        elevator.getMetrics().recordBoarding();
+        eventPublisher.publish(ControllerEvent.Type.BOARDING, user.getCurrentFloor());
+        Integer arrivalStep = arrivalSteps.remove(user);
+        if (arrivalStep != null) {
+            metrics.recordWait(user.getPriority(), currentStep - arrivalStep);
+            DirectionPolicy callPolicy = callPolicies.get(user);
+            if (callPolicy != null) {
+                metrics.recordPolicyWait(callPolicy.getName(), currentStep - arrivalStep);
+            }
+        }
+        boardingSteps.put(user, currentStep);
+        
+        BoardingEvent event = new BoardingEvent();
+        if (event.shouldCommit()) {
+            event.step = currentStep;
+            event.floor = user.getCurrentFloor();
+            event.destination = user.getDestination();
+            event.commit();
+        }
     }
     
     /**
@@ -156,12 +999,7 @@ public class ElevatorController {
      * @return true if at least one door is open, false otherwise
      */
     private boolean anyDoorOpen() {
-        for (Door door : doors) {
-            if (door.isOpen()) {
-                return true;
-            }
-        }
-        return false;
+        return safetyMonitor.getOpenDoorCount() > 0;
     }
     
     /**
@@ -169,6 +1007,13 @@ public class ElevatorController {
      * If multiple doors are open, closes all except the one at elevator's current floor
      */
     private void enforceOneDoorConstraint() {
+        // Nothing to enforce unless a door other than the current floor's is open
+        int monitoredOpenDoors = safetyMonitor.getOpenDoorCount();
+        if (monitoredOpenDoors == 0 || 
+            (monitoredOpenDoors == 1 && safetyMonitor.isDoorOpen(elevator.getCurrentFloor()))) {
+            return;
+        }
+        
         int openDoorCount = 0;
         Door currentFloorDoor = doors[elevator.getCurrentFloor()];
         
@@ -245,10 +1090,17 @@ public class ElevatorController {
     
     /**
      * Validates system constraints
+     * Uses the incrementally maintained safety monitor state, so the doors
+     * are only scanned when a violation has to be described
      * 
      * @return list of constraint violations (empty if all constraints satisfied)
      */
     public List<String> validateConstraints() {
+        int openDoorCount = safetyMonitor.getOpenDoorCount();
+        if (openDoorCount == 0) {
+            return Collections.emptyList();
+        }
+        
         List<String> violations = new ArrayList<>();
         
         // Check: No doors open when elevator is moving
@@ -262,16 +1114,13 @@ public class ElevatorController {
         }
         
         // Check: Only one door open at a time
-        int openDoorCount = 0;
-        for (Door door : doors) {
-            if (door.isOpen()) {
-                openDoorCount++;
-            }
-        }
         if (openDoorCount > 1) {
             violations.add("Multiple doors are open simultaneously: " + openDoorCount);
         }
         
+        if (!violations.isEmpty()) {
+            dumpStepHistory(violations);
+        }
         return violations;
     }
     
@@ -286,14 +1135,50 @@ public class ElevatorController {
     
     /**
      * Resets the simulation
+     * An attached trace writer is detached; the caller still closes it
      */
     public void reset() {
         currentStep = 0;
+        // The steps start over, which would break the order of an attached trace
+        traceWriter = null;
+        // Detach the old elevator and stop its door timers before replacing them
+        elevator.removeListener(safetyMonitor);
+        elevator.removeListener(eventPublisher);
+        elevator.removeListener(callReopener);
+        for (Door door : doors) {
+            door.forceClose();
+        }
         elevator = new Elevator(0, numberOfFloors - 1);
+        elevator.shareDirectionPolicy(directionPolicy);
+        safetyMonitor.reset();
+        elevator.addListener(safetyMonitor);
+        elevator.addListener(eventPublisher);
+        elevator.addListener(callReopener);
         users.clear();
+        arrivalSteps.clear();
+        boardingSteps.clear();
+        callPolicies.clear();
+        submittedCalls.clear();
+        monitoredViolations.clear();
+        if (mailbox != null) {
+            mailbox.clear();
+        }
+        Arrays.fill(waitingPerFloor, 0);
+        nextPassengerId = 0;
+        stopInProgress = false;
+        lastLobbyDeparture = -1.0;
         for (int i = 0; i < numberOfFloors; i++) {
             doors[i] = new Door(i, elevator);
+            doors[i].setTimerEnabled(doorOpenSteps == 0);
+            doors[i].setMailbox(mailbox);
         }
+        doorOpenFor = 0;
+        if (carObjectName != null) {
+            // Publish the replacement car under the same name
+            unregisterCarMBean();
+            registerMBeans();
+        }
+        snapshot = ControllerSnapshot.of(this, waitingPerFloor);
         System.out.println("Elevator controller reset");
     }
     
@@ -346,4 +1231,17 @@ public class ElevatorController {
         // Print final state
         controller.printState();
     }
+    
+    /**
+     * Hall call submitted from another thread, waiting for the next step
+     */
+    private static final class SubmittedCall {
+        private final int floor;
+        private final Direction direction;
+        
+        SubmittedCall(int floor, Direction direction) {
+            this.floor = floor;
+            this.direction = direction;
+        }
+    }
 }
@@ -0,0 +1,326 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Group of cars serving the same floors, each run by its own controller
+ * Passengers arriving during a step are collected and assigned together at
+ * the start of the next step by the car assignment engine, which takes
+ * every car's position and pending stops into account
+ * All cars read their direction policy from one reference held by the group,
+ * which is only swapped between two group steps
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ElevatorGroup implements ArrivalTarget {
+    private final int numberOfFloors;
+    private final List<ElevatorController> cars;
+    private final CarAssignmentEngine assignmentEngine;
+    private final List<User> unassigned;
+    private final AtomicReference<DirectionPolicy> directionPolicy;
+    private final Object stepLock;
+    private long policySwaps;
+    private SimulationRandom passengerRandom;
+    private long nextPassengerId;
+    private long stepsExecuted;
+    
+    /**
+     * Constructor for ElevatorGroup
+     * The assignment engine searches on the common fork/join pool
+     * 
+     * @param numberOfFloors the total number of floors in the building
+     * @param numberOfCars the number of cars
+     */
+    public ElevatorGroup(int numberOfFloors, int numberOfCars) {
+        this(numberOfFloors, numberOfCars, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Constructor for ElevatorGroup with a dedicated search pool
+     * 
+     * @param numberOfFloors the total number of floors in the building
+     * @param numberOfCars the number of cars
+     * @param pool the pool the assignment engine searches on
+     */
+    public ElevatorGroup(int numberOfFloors, int numberOfCars, ForkJoinPool pool) {
+        if (numberOfCars < 1) {
+            throw new IllegalArgumentException("At least one car is required: " + numberOfCars);
+        }
+        this.numberOfFloors = numberOfFloors;
+        this.directionPolicy = new AtomicReference<>(StandardDirectionPolicy.COLLECTIVE);
+        this.stepLock = new Object();
+        List<ElevatorController> controllers = new ArrayList<>(numberOfCars);
+        for (int i = 0; i < numberOfCars; i++) {
+            ElevatorController car = new ElevatorController(numberOfFloors);
+            car.shareDirectionPolicy(directionPolicy);
+            controllers.add(car);
+        }
+        this.cars = Collections.unmodifiableList(controllers);
+        this.assignmentEngine = new CarAssignmentEngine(pool);
+        this.unassigned = new ArrayList<>();
+        this.passengerRandom = SimulationRandom.unseeded().subsystem("passengers");
+    }
+    
+    /**
+     * Sets the random hierarchy of the run
+     * Passengers draw their seeds from its "passengers" subsystem in arrival
+     * order, as with a single controller, so a one-car group reproduces a
+     * single controller's run
+     * 
+     * @param random the root of the run's random hierarchy
+     */
+    public void setRandom(SimulationRandom random) {
+        this.passengerRandom = random.subsystem("passengers");
+        this.nextPassengerId = 0;
+        for (int i = 0; i < cars.size(); i++) {
+            cars.get(i).setRandom(random.subsystem("car-" + i));
+        }
+        assignmentEngine.setRandom(random.subsystem("dispatch"));
+    }
+    
+    /**
+     * Sets the number of steps a door stays open on every car
+     * 
+     * @param steps number of steps, or 0 for timer-driven doors
+     */
+    public void setDoorOpenSteps(int steps) {
+        for (ElevatorController car : cars) {
+            car.setDoorOpenSteps(steps);
+        }
+    }
+    
+    /**
+     * Sets the dwell policy of every car
+     * 
+     * @param policy the dwell policy
+     */
+    public void setDwellPolicy(DwellPolicy policy) {
+        for (ElevatorController car : cars) {
+            car.setDwellPolicy(policy);
+        }
+    }
+    
+    /**
+     * Sets the direction policy of every car
+     * 
+     * @param policy the direction policy
+     */
+    public void setDirectionPolicy(DirectionPolicy policy) {
+        if (policy == null) {
+            throw new NullPointerException("Direction policy is required");
+        }
+        synchronized (stepLock) {
+            directionPolicy.set(policy);
+        }
+    }
+    
+    /**
+     * Atomically switches every car to another direction policy while the group runs
+     * May be called from any thread: the swap waits for a step in progress to
+     * finish, so every car steps either on the old policy or on the new one and
+     * passengers assigned in one step are all attributed to the same policy.
+     * Each car keeps its pending stops
+     * 
+     * @param policy the new direction policy
+     * @return the policy the group used before the switch
+     */
+    public DirectionPolicy swapDirectionPolicy(DirectionPolicy policy) {
+        if (policy == null) {
+            throw new NullPointerException("Direction policy is required");
+        }
+        DirectionPolicy previous;
+        synchronized (stepLock) {
+            previous = directionPolicy.getAndSet(policy);
+            policySwaps++;
+            for (ElevatorController car : cars) {
+                car.getMetrics().recordPolicySwap();
+            }
+        }
+        System.out.println("Group direction policy switched from " + previous.getName() + " to " + policy.getName());
+        return previous;
+    }
+    
+    /**
+     * Gets the direction policy shared by every car
+     * 
+     * @return the direction policy
+     */
+    public DirectionPolicy getDirectionPolicy() {
+        return directionPolicy.get();
+    }
+    
+    /**
+     * Gets the number of times the group switched its direction policy
+     * 
+     * @return policy swap count
+     */
+    public long getPolicySwaps() {
+        synchronized (stepLock) {
+            return policySwaps;
+        }
+    }
+    
+    /**
+     * Gets the controllers of the cars
+     * 
+     * @return unmodifiable list of car controllers
+     */
+    public List<ElevatorController> getCars() {
+        return cars;
+    }
+    
+    /**
+     * Gets the controller of a car
+     * 
+     * @param index the car index
+     * @return the car controller
+     */
+    public ElevatorController getCar(int index) {
+        return cars.get(index);
+    }
+    
+    /**
+     * Gets the number of cars
+     * 
+     * @return car count
+     */
+    public int getCarCount() {
+        return cars.size();
+    }
+    
+    /**
+     * Gets the engine that assigns hall calls to cars
+     * 
+     * @return the assignment engine
+     */
+    public CarAssignmentEngine getAssignmentEngine() {
+        return assignmentEngine;
+    }
+    
+    @Override
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+    
+    @Override
+    public int getCurrentStep() {
+        int step = 0;
+        for (ElevatorController car : cars) {
+            step = Math.max(step, car.getCurrentStep());
+        }
+        return step;
+    }
+    
+    /**
+     * Gets the number of times the group was stepped
+     * 
+     * @return step call count
+     */
+    public long getStepsExecuted() {
+        return stepsExecuted;
+    }
+    
+    @Override
+    public User addArrival(int origin, int destination, boolean distracted) {
+        return addArrival(origin, destination, distracted, CallPriority.NORMAL);
+    }
+    
+    /**
+     * Adds a passenger of a service class arriving at a floor
+     * The passenger calls a car once the group has assigned one
+     * 
+     * @param origin the floor where the passenger arrives
+     * @param destination the floor the passenger wants to reach
+     * @param distracted true if the passenger may miss the elevator
+     * @param priority the service class of the passenger's call
+     * @return the new user
+     */
+    public User addArrival(int origin, int destination, boolean distracted, CallPriority priority) {
+        Direction direction = destination > origin ? Direction.UP : Direction.DOWN;
+        User user = new User(origin, destination, direction, passengerRandom.childSeed(nextPassengerId++));
+        user.setDistracted(distracted);
+        user.setPriority(priority);
+        unassigned.add(user);
+        return user;
+    }
+    
+    /**
+     * Gets the number of passengers waiting for a car assignment
+     * 
+     * @return unassigned passenger count
+     */
+    public int getUnassignedCount() {
+        return unassigned.size();
+    }
+    
+    /**
+     * Gets the number of passengers in the system, assigned or not
+     * 
+     * @return active passenger count
+     */
+    public int getActiveUserCount() {
+        int active = unassigned.size();
+        for (ElevatorController car : cars) {
+            active += car.getActiveUserCount();
+        }
+        return active;
+    }
+    
+    /**
+     * Executes one step of every car
+     * Passengers that arrived since the last step are assigned first. A policy
+     * swap cannot happen during the step
+     */
+    public void step() {
+        synchronized (stepLock) {
+            assignArrivals();
+            for (ElevatorController car : cars) {
+                car.step();
+            }
+            stepsExecuted++;
+        }
+    }
+    
+    /**
+     * Assigns the waiting passengers to cars and lets them call their car
+     */
+    private void assignArrivals() {
+        if (unassigned.isEmpty()) {
+            return;
+        }
+        int[] assignment;
+        if (cars.size() == 1) {
+            assignment = new int[unassigned.size()];
+        } else {
+            CarAssignmentEngine.CarState[] states = new CarAssignmentEngine.CarState[cars.size()];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = CarAssignmentEngine.CarState.of(cars.get(i));
+            }
+            int[] origins = new int[unassigned.size()];
+            int[] destinations = new int[unassigned.size()];
+            for (int i = 0; i < origins.length; i++) {
+                origins[i] = unassigned.get(i).getCurrentFloor();
+                destinations[i] = unassigned.get(i).getDestination();
+            }
+            assignment = assignmentEngine.assign(states, origins, destinations);
+        }
+        for (int i = 0; i < assignment.length; i++) {
+            ElevatorController car = cars.get(assignment[i]);
+            User user = unassigned.get(i);
+            car.addUser(user);
+            user.callElevator(car.getElevator());
+        }
+        unassigned.clear();
+    }
+    
+    @Override
+    public String toString() {
+        return "ElevatorGroup{cars=" + cars.size() + ", floors=" + numberOfFloors
+            + ", step=" + getCurrentStep() + ", unassigned=" + unassigned.size() + "}";
+    }
+}
@@ -0,0 +1,66 @@
+package elevator;
+
+/**
+ * Listener for elevator and door state transitions
+ * Implementations are notified only when a state actually changes,
+ * so they can maintain derived state incrementally instead of rescanning
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public interface ElevatorListener {
+    
+    /**
+     * Called when the elevator starts moving away from a stop
+     * 
+     * @param floor the floor the elevator is leaving
+     */
+    default void carDeparted(int floor) {
+    }
+    
+    /**
+     * Called when the elevator reaches another floor
+     * An express move reports the whole jump as one move
+     * 
+     * @param fromFloor the floor the elevator left
+     * @param toFloor the floor the elevator reached
+     */
+    default void carMoved(int fromFloor, int toFloor) {
+    }
+    
+    /**
+     * Called when the elevator comes to a stop
+     * 
+     * @param floor the floor where the elevator stopped
+     */
+    default void carStopped(int floor) {
+    }
+    
+    /**
+     * Called when a hall call is made at the floor where the car is stopped
+     * with its door open, in the car's direction
+     * The call is not queued: the listener owning the door keeps it open so
+     * the caller boards at this stop
+     * 
+     * @param floor the floor of the call
+     * @param direction the direction requested
+     */
+    default void hallCallAtOpenDoor(int floor, Direction direction) {
+    }
+    
+    /**
+     * Called when a door opens
+     * 
+     * @param floor the floor of the door
+     */
+    default void doorOpened(int floor) {
+    }
+    
+    /**
+     * Called when a door closes, either normally or forcibly
+     * 
+     * @param floor the floor of the door
+     */
+    default void doorClosed(int floor) {
+    }
+}
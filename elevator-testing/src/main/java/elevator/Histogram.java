@@ -0,0 +1,162 @@
+package elevator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size log-linear histogram of non-negative long values
+ * Values below 64 are counted exactly, larger values fall into 32 sub-buckets
+ * per power of two (about 3% relative error), so recording never allocates
+ * and any thread can read percentiles while another thread records
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class Histogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BITS = 6;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - LINEAR_BITS) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+    
+    /**
+     * Constructor for Histogram
+     */
+    public Histogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0L);
+    }
+    
+    /**
+     * Records a value
+     * Negative values are recorded as zero
+     * 
+     * @param value the value to record
+     */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        counts.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+    
+    /**
+     * Gets the number of recorded values
+     * 
+     * @return value count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+    
+    /**
+     * Gets the mean of the recorded values
+     * 
+     * @return mean, or 0.0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+    
+    /**
+     * Gets the largest recorded value
+     * 
+     * @return maximum value, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+    
+    /**
+     * Gets a percentile of the recorded values
+     * 
+     * @param percentile the percentile between 0 and 100
+     * @return the lower bound of the bucket holding the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * n);
+        rank = Math.max(1L, rank);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(lowerBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+    
+    /**
+     * Adds every value recorded by another histogram
+     * 
+     * @param other the histogram to merge into this one
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = other.counts.get(i);
+            if (bucket != 0) {
+                counts.addAndGet(i, bucket);
+            }
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        max.accumulate(other.max.get());
+    }
+    
+    /**
+     * Clears all recorded values
+     * Not atomic with respect to concurrent recording
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+    
+    /**
+     * Computes the bucket index of a value
+     * 
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+    
+    /**
+     * Computes the smallest value that falls into a bucket
+     * 
+     * @param bucket bucket index
+     * @return lower bound of the bucket
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+}
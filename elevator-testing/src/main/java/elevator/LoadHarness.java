@@ -0,0 +1,602 @@
+package elevator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded load harness for concurrent call submission
+ * Producer threads issue hall calls and car destinations against a controller
+ * that a separate thread keeps stepping, like the hall panels of a busy
+ * building. The report gives acknowledgement latency percentiles, throughput
+ * and lost updates, so concurrency changes to the elevator can be compared
+ * 
+ * A request is acknowledged when it has been applied to the elevator. It is
+ * lost when it was acknowledged but is neither pending at the end of the run
+ * nor served by a stop at its floor after it was submitted; the count is a
+ * lower bound, as a lost request at a floor served later goes unnoticed
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class LoadHarness {
+    /**
+     * How producers reach the elevator
+     */
+    public enum Mode {
+        /**
+         * Producers call addCall and addDestination on the elevator themselves
+         * The elevator is not thread-safe, so this mode races the stepping
+         * thread on purpose: it demonstrates lost updates and failures, and
+         * how many occur depends on the scheduling of the run
+         */
+        DIRECT,
+        
+        /**
+         * Producers post commands that the stepping thread applies in actor mode
+         */
+        ACTOR
+    }
+    
+    private static final long DRAIN_TIMEOUT_NANOS = 10_000_000_000L;
+    
+    private final int numberOfFloors;
+    private Mode mode;
+    private int producers;
+    private int requestsPerProducer;
+    private double destinationShare;
+    private long seed;
+    
+    /**
+     * Constructor for LoadHarness
+     * Defaults to 4 direct producers issuing 10000 requests each, a quarter of
+     * them car destinations
+     * 
+     * @param numberOfFloors the number of floors of the building
+     */
+    public LoadHarness(int numberOfFloors) {
+        if (numberOfFloors < 2) {
+            throw new IllegalArgumentException("At least two floors are required: " + numberOfFloors);
+        }
+        this.numberOfFloors = numberOfFloors;
+        this.mode = Mode.DIRECT;
+        this.producers = 4;
+        this.requestsPerProducer = 10000;
+        this.destinationShare = 0.25;
+        this.seed = 1L;
+    }
+    
+    /**
+     * Sets how producers reach the elevator
+     * 
+     * @param mode the submission mode
+     */
+    public void setMode(Mode mode) {
+        if (mode == null) {
+            throw new NullPointerException("Mode is required");
+        }
+        this.mode = mode;
+    }
+    
+    /**
+     * Sets the number of producer threads
+     * 
+     * @param producers the number of producers
+     */
+    public void setProducers(int producers) {
+        if (producers < 1) {
+            throw new IllegalArgumentException("At least one producer is required: " + producers);
+        }
+        this.producers = producers;
+    }
+    
+    /**
+     * Sets the number of requests each producer issues
+     * 
+     * @param requests the requests per producer
+     */
+    public void setRequestsPerProducer(int requests) {
+        if (requests < 1) {
+            throw new IllegalArgumentException("At least one request is required: " + requests);
+        }
+        this.requestsPerProducer = requests;
+    }
+    
+    /**
+     * Sets the fraction of requests that are car destinations instead of hall calls
+     * 
+     * @param share the destination share between 0 and 1
+     */
+    public void setDestinationShare(double share) {
+        if (!(share >= 0.0 && share <= 1.0)) {
+            throw new IllegalArgumentException("Destination share must be between 0 and 1: " + share);
+        }
+        this.destinationShare = share;
+    }
+    
+    /**
+     * Sets the seed of the request floors and directions
+     * 
+     * @param seed the random seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Runs the load against a fresh controller
+     * Starts the stepper and the producers, waits for them and builds the
+     * report. The simulation log goes to standard output like any controller's
+     * 
+     * @return the report of the run
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public Report run() throws InterruptedException {
+        ElevatorController controller = new ElevatorController(numberOfFloors);
+        controller.setDoorOpenSteps(1);
+        if (mode == Mode.ACTOR) {
+            controller.setActorMode(CommandMailbox.DEFAULT_BATCH_SIZE);
+        }
+        Elevator elevator = controller.getElevator();
+        AtomicLongArray servedAt = new AtomicLongArray(numberOfFloors);
+        elevator.addListener(new ElevatorListener() {
+            @Override
+            public void carStopped(int floor) {
+                markServed(servedAt, floor);
+            }
+            
+            @Override
+            public void doorOpened(int floor) {
+                markServed(servedAt, floor);
+            }
+            
+            @Override
+            public void hallCallAtOpenDoor(int floor, Direction direction) {
+                markServed(servedAt, floor);
+            }
+        });
+        
+        Producer[] workers = new Producer[producers];
+        SimulationRandom random = new SimulationRandom(seed).subsystem("load");
+        Stepper stepper = new Stepper(controller);
+        for (int p = 0; p < producers; p++) {
+            workers[p] = new Producer(new SplittableRandom(random.childSeed(p)), controller, servedAt, stepper.go);
+        }
+        
+        Thread stepping = new Thread(stepper, "load-stepper");
+        stepping.setDaemon(true);
+        stepping.start();
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(workers[p], "load-producer-" + p);
+            threads[p].setDaemon(true);
+            threads[p].start();
+        }
+        
+        long start = System.nanoTime();
+        stepper.go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stepper.producersDone = true;
+        stepping.join(DRAIN_TIMEOUT_NANOS / 1_000_000L);
+        if (stepping.isAlive()) {
+            // A corrupted collection can keep the stepper spinning, leave it behind
+            stepper.stalled = true;
+        }
+        long end = System.nanoTime();
+        
+        Report report = new Report(mode, producers, stepper.steps, stepper.failures.sum(), stepper.stalled,
+                                   end - start);
+        for (Producer worker : workers) {
+            worker.account(elevator, servedAt, report, stepper.stalled);
+        }
+        return report;
+    }
+    
+    /**
+     * Records that the car served a floor
+     * 
+     * @param servedAt last service time per floor
+     * @param floor the floor served
+     */
+    private static void markServed(AtomicLongArray servedAt, int floor) {
+        if (floor >= 0 && floor < servedAt.length()) {
+            servedAt.accumulateAndGet(floor, System.nanoTime(), Math::max);
+        }
+    }
+    
+    /**
+     * Main method for running the load harness
+     * Prints only the report, the simulation log is silenced
+     * Options: --floors N, --producers N, --requests N, --destinations SHARE,
+     * --mode direct|actor, --seed N
+     * 
+     * @param args command line arguments
+     * @throws InterruptedException if interrupted while running
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int floors = 20;
+        int producers = 4;
+        int requests = 10000;
+        double destinations = 0.25;
+        Mode mode = Mode.DIRECT;
+        long seed = 1L;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--floors":
+                    floors = Integer.parseInt(value);
+                    break;
+                case "--producers":
+                    producers = Integer.parseInt(value);
+                    break;
+                case "--requests":
+                    requests = Integer.parseInt(value);
+                    break;
+                case "--destinations":
+                    destinations = Double.parseDouble(value);
+                    break;
+                case "--mode":
+                    mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        LoadHarness harness = new LoadHarness(floors);
+        harness.setProducers(producers);
+        harness.setRequestsPerProducer(requests);
+        harness.setDestinationShare(destinations);
+        harness.setMode(mode);
+        harness.setSeed(seed);
+        // Keep the console for the report; not restored, as a stalled stepper may still log
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        stdout.println(harness.run());
+    }
+    
+    /**
+     * Thread that steps the controller until the producers are done and
+     * every posted command has been applied
+     */
+    private static final class Stepper implements Runnable {
+        private final ElevatorController controller;
+        private final CountDownLatch go;
+        private final LongAdder failures;
+        private volatile boolean producersDone;
+        private volatile boolean stalled;
+        private long steps;
+        
+        Stepper(ElevatorController controller) {
+            this.controller = controller;
+            this.go = new CountDownLatch(1);
+            this.failures = new LongAdder();
+        }
+        
+        @Override
+        public void run() {
+            try {
+                go.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            CommandMailbox mailbox = controller.getMailbox();
+            while (!stalled && (!producersDone || (mailbox != null && mailbox.getPendingCount() > 0))) {
+                try {
+                    controller.step();
+                } catch (RuntimeException e) {
+                    // Concurrent modifications in direct mode surface here, keep going
+                    failures.increment();
+                }
+                steps++;
+            }
+        }
+    }
+    
+    /**
+     * Thread that issues one producer's requests and keeps their timestamps
+     */
+    private final class Producer implements Runnable {
+        private final ElevatorController controller;
+        private final CountDownLatch go;
+        private final AtomicLongArray servedAt;
+        private final int[] floors;
+        private final Direction[] directions;
+        private final long[] submittedAt;
+        private final long[] acknowledgedAt;
+        private final boolean[] failed;
+        
+        Producer(SplittableRandom random, ElevatorController controller, AtomicLongArray servedAt,
+                 CountDownLatch go) {
+            this.controller = controller;
+            this.go = go;
+            this.servedAt = servedAt;
+            this.floors = new int[requestsPerProducer];
+            this.directions = new Direction[requestsPerProducer];
+            this.submittedAt = new long[requestsPerProducer];
+            this.acknowledgedAt = new long[requestsPerProducer];
+            this.failed = new boolean[requestsPerProducer];
+            // Requests are drawn up front so the producers only measure submission
+            for (int i = 0; i < requestsPerProducer; i++) {
+                int floor = random.nextInt(numberOfFloors);
+                floors[i] = floor;
+                if (random.nextDouble() < destinationShare) {
+                    directions[i] = Direction.NONE;
+                } else if (floor == 0) {
+                    directions[i] = Direction.UP;
+                } else if (floor == numberOfFloors - 1) {
+                    directions[i] = Direction.DOWN;
+                } else {
+                    directions[i] = random.nextBoolean() ? Direction.UP : Direction.DOWN;
+                }
+            }
+        }
+        
+        @Override
+        public void run() {
+            try {
+                go.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (int i = 0; i < requestsPerProducer; i++) {
+                int request = i;
+                submittedAt[i] = System.nanoTime();
+                if (mode == Mode.ACTOR) {
+                    controller.post(c -> apply(c.getElevator(), request));
+                } else {
+                    try {
+                        apply(controller.getElevator(), request);
+                    } catch (RuntimeException e) {
+                        failed[i] = true;
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Applies one request to the elevator and stamps its acknowledgement
+         * 
+         * @param elevator the elevator
+         * @param request the request index
+         */
+        private void apply(Elevator elevator, int request) {
+            int floor = floors[request];
+            if (directions[request] == Direction.NONE) {
+                // A destination at the car's floor is served on the spot
+                if (floor == elevator.getCurrentFloor()) {
+                    markServed(servedAt, floor);
+                }
+                elevator.addDestination(floor);
+            } else {
+                elevator.addCall(floor, directions[request]);
+            }
+            acknowledgedAt[request] = System.nanoTime();
+        }
+        
+        /**
+         * Adds this producer's requests to the report
+         * 
+         * @param elevator the elevator after the run
+         * @param servedAt last service time per floor
+         * @param report the report
+         * @param stalled true if the stepper did not finish, so state is not inspected
+         */
+        void account(Elevator elevator, AtomicLongArray servedAt, Report report, boolean stalled) {
+            for (int i = 0; i < requestsPerProducer; i++) {
+                if (failed[i]) {
+                    report.failedRequests++;
+                    continue;
+                }
+                if (acknowledgedAt[i] == 0L) {
+                    report.unacknowledged++;
+                    continue;
+                }
+                report.acknowledged++;
+                report.latencyMicros.record((acknowledgedAt[i] - submittedAt[i]) / 1000L);
+                report.lastAcknowledgedNanos = Math.max(report.lastAcknowledgedNanos, acknowledgedAt[i]);
+                report.firstSubmittedNanos = Math.min(report.firstSubmittedNanos, submittedAt[i]);
+                if (stalled) {
+                    continue;
+                }
+                int floor = floors[i];
+                boolean pending = directions[i] == Direction.NONE ? elevator.hasDestination(floor)
+                    : elevator.hasCallAtFloor(floor, directions[i]);
+                if (!pending && servedAt.get(floor) < submittedAt[i]) {
+                    report.lostUpdates++;
+                }
+            }
+            report.requests += requestsPerProducer;
+        }
+    }
+    
+    /**
+     * Result of a load run
+     */
+    public static final class Report {
+        private final Mode mode;
+        private final int producers;
+        private final long steps;
+        private final long stepFailures;
+        private final boolean stalled;
+        private final long elapsedNanos;
+        private final Histogram latencyMicros;
+        private long requests;
+        private long acknowledged;
+        private long unacknowledged;
+        private long failedRequests;
+        private long lostUpdates;
+        private long firstSubmittedNanos;
+        private long lastAcknowledgedNanos;
+        
+        Report(Mode mode, int producers, long steps, long stepFailures, boolean stalled, long elapsedNanos) {
+            this.mode = mode;
+            this.producers = producers;
+            this.steps = steps;
+            this.stepFailures = stepFailures;
+            this.stalled = stalled;
+            this.elapsedNanos = elapsedNanos;
+            this.latencyMicros = new Histogram();
+            this.firstSubmittedNanos = Long.MAX_VALUE;
+            this.lastAcknowledgedNanos = Long.MIN_VALUE;
+        }
+        
+        /**
+         * Gets the submission mode of the run
+         * 
+         * @return the mode
+         */
+        public Mode getMode() {
+            return mode;
+        }
+        
+        /**
+         * Gets the number of producer threads
+         * 
+         * @return producer count
+         */
+        public int getProducers() {
+            return producers;
+        }
+        
+        /**
+         * Gets the number of requests issued
+         * 
+         * @return request count
+         */
+        public long getRequests() {
+            return requests;
+        }
+        
+        /**
+         * Gets the number of requests applied to the elevator
+         * 
+         * @return acknowledged request count
+         */
+        public long getAcknowledged() {
+            return acknowledged;
+        }
+        
+        /**
+         * Gets the number of posted requests that were never applied
+         * 
+         * @return unacknowledged request count
+         */
+        public long getUnacknowledged() {
+            return unacknowledged;
+        }
+        
+        /**
+         * Gets the number of requests that threw while being applied
+         * 
+         * @return failed request count
+         */
+        public long getFailedRequests() {
+            return failedRequests;
+        }
+        
+        /**
+         * Gets the number of acknowledged requests that left no trace
+         * 
+         * @return lost update count, a lower bound
+         */
+        public long getLostUpdates() {
+            return lostUpdates;
+        }
+        
+        /**
+         * Gets the number of steps executed during the run
+         * 
+         * @return step count
+         */
+        public long getSteps() {
+            return steps;
+        }
+        
+        /**
+         * Gets the number of steps that threw
+         * 
+         * @return failed step count
+         */
+        public long getStepFailures() {
+            return stepFailures;
+        }
+        
+        /**
+         * Checks if the stepping thread failed to finish
+         * Lost updates are not counted then
+         * 
+         * @return true if the stepper stalled
+         */
+        public boolean isStalled() {
+            return stalled;
+        }
+        
+        /**
+         * Gets the wall-clock duration of the run
+         * 
+         * @return elapsed seconds
+         */
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+        
+        /**
+         * Gets the acknowledged requests per second, from the first submission
+         * to the last acknowledgement
+         * 
+         * @return throughput in requests per second
+         */
+        public double getThroughput() {
+            if (acknowledged == 0) {
+                return 0.0;
+            }
+            long span = Math.max(1L, lastAcknowledgedNanos - firstSubmittedNanos);
+            return acknowledged * 1e9 / span;
+        }
+        
+        /**
+         * Gets the histogram of acknowledgement latencies
+         * 
+         * @return latencies in microseconds
+         */
+        public Histogram getLatencyHistogram() {
+            return latencyMicros;
+        }
+        
+        /**
+         * Gets a percentile of the acknowledgement latency
+         * 
+         * @param percentile the percentile between 0 and 100
+         * @return latency in microseconds
+         */
+        public long getLatencyMicros(double percentile) {
+            return latencyMicros.getPercentile(percentile);
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "{\"mode\":\"%s\",\"producers\":%d,\"requests\":%d,\"acknowledged\":%d,\"unacknowledged\":%d,"
+                + "\"failedRequests\":%d,\"lostUpdates\":%d,\"steps\":%d,\"stepFailures\":%d,\"stalled\":%b,"
+                + "\"elapsedSeconds\":%.4f,\"throughput\":%.1f,\"ackP50Micros\":%d,\"ackP95Micros\":%d,"
+                + "\"ackP99Micros\":%d,\"ackMaxMicros\":%d}",
+                mode.name().toLowerCase(Locale.ROOT), producers, requests, acknowledged, unacknowledged,
+                failedRequests, lostUpdates, steps, stepFailures, stalled, getElapsedSeconds(), getThroughput(),
+                getLatencyMicros(50.0), getLatencyMicros(95.0), getLatencyMicros(99.0), latencyMicros.getMax());
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package elevator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional embedded HTTP endpoint for a running controller, bound to localhost
+ * 
+ * GET /metrics returns the controller and car metrics in Prometheus text format.
+ * POST /calls accepts a batch of hall calls, one "floor direction" pair per line
+ * (for example "3 UP"). The batch is validated as a whole and queued through
+ * ElevatorController.submitHallCall, so requests never block the step thread.
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class MetricsHttpServer {
+    private static final int DEFAULT_THREADS = 4;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    
+    private final ElevatorController controller;
+    private final int requestedPort;
+    private final int threads;
+    private HttpServer server;
+    private ExecutorService executor;
+    
+    /**
+     * Constructor for MetricsHttpServer
+     * 
+     * @param controller the controller to expose
+     * @param port the local port to listen on, or 0 for any free port
+     */
+    public MetricsHttpServer(ElevatorController controller, int port) {
+        this(controller, port, DEFAULT_THREADS);
+    }
+    
+    /**
+     * Constructor for MetricsHttpServer
+     * 
+     * @param controller the controller to expose
+     * @param port the local port to listen on, or 0 for any free port
+     * @param threads number of request handling threads
+     */
+    public MetricsHttpServer(ElevatorController controller, int port, int threads) {
+        this.controller = controller;
+        this.requestedPort = port;
+        this.threads = Math.max(1, threads);
+    }
+    
+    /**
+     * Starts the server on the loopback interface
+     * 
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        HttpServer httpServer = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort), 0);
+        httpServer.createContext("/metrics", this::handleMetrics);
+        httpServer.createContext("/calls", this::handleCalls);
+        
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "elevator-http-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        server = httpServer;
+        System.out.println("Metrics endpoint listening on http://localhost:" + getPort());
+    }
+    
+    /**
+     * Stops the server and its request threads
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        executor = null;
+    }
+    
+    /**
+     * Gets the port the server is listening on
+     * 
+     * @return the bound port, or -1 if the server is not running
+     */
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+    
+    /**
+     * Serves the metrics in Prometheus text format
+     * 
+     * @param exchange the HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Method not allowed\n");
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        respond(exchange, 200, renderMetrics());
+    }
+    
+    /**
+     * Accepts a batch of hall calls
+     * 
+     * @param exchange the HTTP exchange
+     * @throws IOException if the request cannot be read or the response written
+     */
+    private void handleCalls(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Method not allowed\n");
+            return;
+        }
+        String body = readBody(exchange.getRequestBody());
+        if (body == null) {
+            respond(exchange, 413, "Request body too large\n");
+            return;
+        }
+        
+        // Validate the whole batch before queueing any call
+        List<Integer> floors = new ArrayList<>();
+        List<Direction> directions = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : body.split("\n")) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split("\\s+");
+            Direction direction = parts.length == 2 ? parseDirection(parts[1]) : null;
+            int floor = parts.length == 2 ? parseFloor(parts[0]) : -1;
+            if (direction == null || floor < 0 || floor >= controller.getNumberOfFloors()) {
+                respond(exchange, 400, "Invalid call on line " + lineNumber + ": " + trimmed + "\n");
+                return;
+            }
+            floors.add(floor);
+            directions.add(direction);
+        }
+        
+        for (int i = 0; i < floors.size(); i++) {
+            controller.submitHallCall(floors.get(i), directions.get(i));
+        }
+        respond(exchange, 202, "accepted " + floors.size() + "\n");
+    }
+    
+    /**
+     * Renders the controller and car metrics in Prometheus text format
+     * 
+     * @return the metrics text
+     */
+    String renderMetrics() {
+        ControllerMetrics metrics = controller.getMetrics();
+        CarMetrics car = controller.getElevator().getMetrics();
+        ControllerSnapshot state = controller.getSnapshot();
+        String labels = "{controller=\"" + controller.getName() + "\"}";
+        String carLabels = "{controller=\"" + controller.getName() + "\",car=\"0\"}";
+        StringBuilder out = new StringBuilder(2048);
+        
+        metric(out, "elevator_steps_total", "counter", "Steps executed by the controller",
+               labels, metrics.getStepsExecuted());
+        metric(out, "elevator_current_step", "gauge", "Current simulation step",
+               labels, metrics.getCurrentStep());
+        metric(out, "elevator_pending_hall_calls", "gauge", "Pending hall calls",
+               labels, metrics.getPendingHallCalls());
+        metric(out, "elevator_pending_car_calls", "gauge", "Pending car calls",
+               labels, metrics.getPendingCarCalls());
+        metric(out, "elevator_boardings_total", "counter", "Passengers that boarded",
+               labels, metrics.getBoardings());
+        metric(out, "elevator_alightings_total", "counter", "Passengers delivered to their destination",
+               labels, metrics.getAlightings());
+        metric(out, "elevator_door_open_seconds_total", "counter", "Time doors were open",
+               labels, metrics.getOpenDoorMillis() / 1000.0);
+        metric(out, "elevator_door_timer_rearms_total", "counter", "Door close timer re-arms",
+               labels, metrics.getDoorTimerRearms());
+        metric(out, "elevator_door_reopens_total", "counter", "Hall calls served by reopening the door",
+               labels, metrics.getDoorReopens());
+        metric(out, "elevator_constraint_violations_total", "counter", "Safety constraint violations",
+               labels, metrics.getConstraintViolations());
+        metric(out, "elevator_mailbox_commands_total", "counter", "Commands applied in actor mode",
+               labels, metrics.getCommandsApplied());
+        metric(out, "elevator_mailbox_pending_commands", "gauge", "Commands waiting in the mailbox",
+               labels, metrics.getPendingCommands());
+        metric(out, "elevator_mailbox_latency_p95_microseconds", "gauge", "95th percentile mailbox queueing latency",
+               labels, metrics.getP95CommandLatencyMicros());
+        metric(out, "elevator_dwell_stops_total", "counter", "Stops with a door dwell decision",
+               labels, metrics.getDwellStops());
+        metric(out, "elevator_dwell_mean_seconds", "gauge", "Mean door dwell per stop",
+               labels, metrics.getMeanDwellMillis() / 1000.0);
+        metric(out, "elevator_round_trips_total", "counter", "Round trips from the lobby back to the lobby",
+               labels, metrics.getRoundTrips());
+        metric(out, "elevator_round_trip_mean_seconds", "gauge", "Mean simulated round trip time",
+               labels, metrics.getMeanRoundTripSeconds());
+        
+        Histogram waits = metrics.getWaitHistogram();
+        String prefix = "{controller=\"" + controller.getName() + "\",quantile=\"";
+        out.append("# HELP elevator_wait_steps Passenger wait from arrival to boarding in steps\n");
+        out.append("# TYPE elevator_wait_steps summary\n");
+        out.append("elevator_wait_steps").append(prefix).append("0.5\"} ")
+           .append(waits.getPercentile(50.0)).append('\n');
+        out.append("elevator_wait_steps").append(prefix).append("0.95\"} ")
+           .append(waits.getPercentile(95.0)).append('\n');
+        out.append("elevator_wait_steps").append(prefix).append("0.99\"} ")
+           .append(waits.getPercentile(99.0)).append('\n');
+        out.append("elevator_wait_steps_sum").append(labels).append(' ')
+           .append(format(waits.getMean() * waits.getCount())).append('\n');
+        out.append("elevator_wait_steps_count").append(labels).append(' ')
+           .append(waits.getCount()).append('\n');
+        
+        String classPrefix = "{controller=\"" + controller.getName() + "\",class=\"";
+        out.append("# HELP elevator_class_wait_p95_steps 95th percentile wait of a service class in steps\n");
+        out.append("# TYPE elevator_class_wait_p95_steps gauge\n");
+        for (CallPriority priority : CallPriority.values()) {
+            Histogram classWaits = metrics.getWaitHistogram(priority);
+            if (classWaits.getCount() > 0) {
+                out.append("elevator_class_wait_p95_steps").append(classPrefix).append(priority.name())
+                   .append("\"} ").append(classWaits.getPercentile(95.0)).append('\n');
+            }
+        }
+        out.append("# HELP elevator_class_wait_target_missed_total Passengers who waited longer than their class target\n");
+        out.append("# TYPE elevator_class_wait_target_missed_total counter\n");
+        for (CallPriority priority : CallPriority.values()) {
+            if (priority.getTargetWaitSteps() > 0) {
+                out.append("elevator_class_wait_target_missed_total").append(classPrefix).append(priority.name())
+                   .append("\"} ").append(metrics.getMissedWaitTargets(priority)).append('\n');
+            }
+        }
+        
+        metric(out, "elevator_policy_swaps_total", "counter", "Direction policy switches at runtime",
+               labels, metrics.getPolicySwaps());
+        String policyPrefix = "{controller=\"" + controller.getName() + "\",policy=\"";
+        out.append("# HELP elevator_policy_wait_mean_steps Mean wait of passengers who called under a direction policy\n");
+        out.append("# TYPE elevator_policy_wait_mean_steps gauge\n");
+        for (Map.Entry<String, Double> entry : metrics.getMeanWaitStepsByPolicy().entrySet()) {
+            out.append("elevator_policy_wait_mean_steps").append(policyPrefix).append(entry.getKey())
+               .append("\"} ").append(format(entry.getValue())).append('\n');
+        }
+        out.append("# HELP elevator_policy_ride_mean_steps Mean ride of passengers who called under a direction policy\n");
+        out.append("# TYPE elevator_policy_ride_mean_steps gauge\n");
+        for (Map.Entry<String, Double> entry : metrics.getMeanRideStepsByPolicy().entrySet()) {
+            out.append("elevator_policy_ride_mean_steps").append(policyPrefix).append(entry.getKey())
+               .append("\"} ").append(format(entry.getValue())).append('\n');
+        }
+        
+        metric(out, "elevator_car_floor", "gauge", "Current floor of the car",
+               carLabels, state.getFloor());
+        metric(out, "elevator_car_passengers", "gauge", "Passengers inside the car",
+               carLabels, state.getPassengers());
+        metric(out, "elevator_car_floors_travelled_total", "counter", "Floors travelled by the car",
+               carLabels, state.getFloorsTravelled());
+        metric(out, "elevator_car_decision_cache_hit_ratio", "gauge", "Direction decisions served from the cache",
+               carLabels, car.getDecisionCacheHitRate());
+        metric(out, "elevator_car_simulated_seconds_total", "counter", "Simulated travel, door and dwell time",
+               carLabels, state.getSimulatedSeconds());
+        return out.toString();
+    }
+    
+    /**
+     * Appends one metric with its help and type lines
+     * 
+     * @param out the buffer to append to
+     * @param name the metric name
+     * @param type the Prometheus metric type
+     * @param help the help text
+     * @param labels the label set including braces
+     * @param value the sample value
+     */
+    private static void metric(StringBuilder out, String name, String type, String help,
+                               String labels, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append(name).append(labels).append(' ').append(format(value)).append('\n');
+    }
+    
+    /**
+     * Formats a sample value, printing whole numbers without a fraction
+     * 
+     * @param value the value
+     * @return the formatted value
+     */
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+    
+    /**
+     * Parses a floor number
+     * 
+     * @param text the text to parse
+     * @return the floor, or -1 if the text is not a number
+     */
+    private static int parseFloor(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Parses a hall call direction
+     * 
+     * @param text the text to parse
+     * @return UP or DOWN, or null if the text is not a hall call direction
+     */
+    private static Direction parseDirection(String text) {
+        String upper = text.toUpperCase(Locale.ROOT);
+        if (upper.equals("UP")) {
+            return Direction.UP;
+        } else if (upper.equals("DOWN")) {
+            return Direction.DOWN;
+        }
+        return null;
+    }
+    
+    /**
+     * Reads a request body up to the size limit
+     * 
+     * @param in the request body stream
+     * @return the body, or null if it exceeds the limit
+     * @throws IOException if the body cannot be read
+     */
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+            if (buffer.size() > MAX_BODY_BYTES) {
+                return null;
+            }
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Sends a plain text response and closes the exchange
+     * 
+     * @param exchange the HTTP exchange
+     * @param status the HTTP status code
+     * @param body the response body
+     * @throws IOException if the response cannot be written
+     */
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package elevator;
+
+/**
+ * Kinematic motion profile of the elevator car and its doors
+ * Trip times are computed in closed form from a jerk-limited (S-curve) profile,
+ * so the duration of a run does not depend on how many steps simulate it
+ * 
+ * All values are in SI units: meters, seconds, m/s, m/s^2 and m/s^3
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public final class MotionProfile {
+    
+    /**
+     * Typical mid-rise passenger elevator
+     */
+    public static final MotionProfile DEFAULT = new MotionProfile(2.5, 1.0, 1.5, 3.5, 1.8, 2.6, 1.2);
+    
+    private static final double DEFAULT_TRANSFER_TIME = 1.2;
+    
+    private final double ratedSpeed;
+    private final double acceleration;
+    private final double jerk;
+    private final double floorHeight;
+    private final double doorOpenTime;
+    private final double doorCloseTime;
+    private final double transferTime;
+    
+    /**
+     * Constructor for MotionProfile
+     * 
+     * @param ratedSpeed maximum car speed in m/s
+     * @param acceleration maximum acceleration in m/s^2
+     * @param jerk maximum jerk in m/s^3
+     * @param floorHeight height of one floor in meters
+     * @param doorOpenTime time for the door to open in seconds
+     * @param doorCloseTime time for the door to close in seconds
+     */
+    public MotionProfile(double ratedSpeed, double acceleration, double jerk,
+                         double floorHeight, double doorOpenTime, double doorCloseTime) {
+        this(ratedSpeed, acceleration, jerk, floorHeight, doorOpenTime, doorCloseTime,
+             DEFAULT_TRANSFER_TIME);
+    }
+    
+    /**
+     * Constructor for MotionProfile with a passenger transfer time
+     * 
+     * @param ratedSpeed maximum car speed in m/s
+     * @param acceleration maximum acceleration in m/s^2
+     * @param jerk maximum jerk in m/s^3
+     * @param floorHeight height of one floor in meters
+     * @param doorOpenTime time for the door to open in seconds
+     * @param doorCloseTime time for the door to close in seconds
+     * @param transferTime time for one passenger to pass the door in seconds
+     */
+    public MotionProfile(double ratedSpeed, double acceleration, double jerk, double floorHeight,
+                         double doorOpenTime, double doorCloseTime, double transferTime) {
+        if (ratedSpeed <= 0 || acceleration <= 0 || jerk <= 0 || floorHeight <= 0) {
+            throw new IllegalArgumentException("Speed, acceleration, jerk and floor height must be positive");
+        }
+        if (doorOpenTime < 0 || doorCloseTime < 0 || transferTime < 0) {
+            throw new IllegalArgumentException("Door and transfer times must not be negative");
+        }
+        this.ratedSpeed = ratedSpeed;
+        this.acceleration = acceleration;
+        this.jerk = jerk;
+        this.floorHeight = floorHeight;
+        this.doorOpenTime = doorOpenTime;
+        this.doorCloseTime = doorCloseTime;
+        this.transferTime = transferTime;
+    }
+    
+    /**
+     * Computes the time to travel a distance from standstill to standstill
+     * 
+     * Three cases of the jerk-limited profile are handled:
+     * - rated speed is reached and the car cruises
+     * - maximum acceleration is reached but not rated speed
+     * - neither is reached and the profile is jerk phases only
+     * 
+     * @param distance distance in meters
+     * @return travel time in seconds
+     */
+    public double travelTime(double distance) {
+        if (distance <= 0) {
+            return 0.0;
+        }
+        double v = ratedSpeed;
+        double a = acceleration;
+        double j = jerk;
+        
+        // Acceleration actually reached on the way to rated speed
+        double peakAcceleration = Math.min(a, Math.sqrt(v * j));
+        double cruiseDistance = v * (v / peakAcceleration + peakAcceleration / j);
+        if (distance >= cruiseDistance) {
+            return distance / v + v / peakAcceleration + peakAcceleration / j;
+        }
+        
+        // Shortest distance on which maximum acceleration is reached
+        double fullAccelerationDistance = 2 * a * a * a / (j * j);
+        if (distance >= fullAccelerationDistance) {
+            double peakSpeed = a / 2 * (-a / j + Math.sqrt(a * a / (j * j) + 4 * distance / a));
+            return 2 * (peakSpeed / a + a / j);
+        }
+        
+        return 4 * Math.cbrt(distance / (2 * j));
+    }
+    
+    /**
+     * Computes the time of a run over a number of floors
+     * 
+     * @param floors number of floors travelled without stopping
+     * @return travel time in seconds
+     */
+    public double tripTime(int floors) {
+        return travelTime(Math.abs(floors) * floorHeight);
+    }
+    
+    /**
+     * Computes the time for a group of passengers to pass the door
+     * Passengers move through the door one after the other, so the group
+     * time grows linearly with its size
+     * 
+     * @param passengers number of boarding or alighting passengers
+     * @return transfer time in seconds
+     */
+    public double groupTransferTime(int passengers) {
+        return Math.max(0, passengers) * transferTime;
+    }
+    
+    /**
+     * Gets the rated speed
+     * 
+     * @return speed in m/s
+     */
+    public double getRatedSpeed() {
+        return ratedSpeed;
+    }
+    
+    /**
+     * Gets the maximum acceleration
+     * 
+     * @return acceleration in m/s^2
+     */
+    public double getAcceleration() {
+        return acceleration;
+    }
+    
+    /**
+     * Gets the maximum jerk
+     * 
+     * @return jerk in m/s^3
+     */
+    public double getJerk() {
+        return jerk;
+    }
+    
+    /**
+     * Gets the height of one floor
+     * 
+     * @return floor height in meters
+     */
+    public double getFloorHeight() {
+        return floorHeight;
+    }
+    
+    /**
+     * Gets the door opening time
+     * 
+     * @return time in seconds
+     */
+    public double getDoorOpenTime() {
+        return doorOpenTime;
+    }
+    
+    /**
+     * Gets the door closing time
+     * 
+     * @return time in seconds
+     */
+    public double getDoorCloseTime() {
+        return doorCloseTime;
+    }
+    
+    /**
+     * Gets the time for one passenger to pass the door
+     * 
+     * @return time in seconds
+     */
+    public double getTransferTime() {
+        return transferTime;
+    }
+    
+    /**
+     * Returns string representation of the profile
+     * 
+     * @return string describing the profile
+     */
+    @Override
+    public String toString() {
+        return "MotionProfile[speed=" + ratedSpeed + ", acceleration=" + acceleration +
+               ", jerk=" + jerk + ", floorHeight=" + floorHeight +
+               ", doorOpen=" + doorOpenTime + ", doorClose=" + doorCloseTime +
+               ", transfer=" + transferTime + "]";
+    }
+}
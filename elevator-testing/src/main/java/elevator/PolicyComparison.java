@@ -0,0 +1,486 @@
+package elevator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Side-by-side evaluation of direction policies with common random numbers
+ * Every replication runs one controller per policy in lockstep: a single
+ * traffic generator feeds the same arrivals to all of them, and passengers
+ * draw from the same per-passenger seeds. Differences between policies are
+ * then measured on identical traffic, and the paired differences of each
+ * replication give confidence intervals much narrower than those of
+ * independent runs, so fewer replications reach significance
+ * 
+ * The first policy is the baseline the others are compared against
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class PolicyComparison {
+    // Two-sided 95% quantiles of Student's t for 1 to 30 degrees of freedom
+    private static final double[] T_975 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_975 = 1.959964;
+    
+    private final int numberOfFloors;
+    private final List<DirectionPolicy> policies;
+    private TrafficProfile traffic;
+    private double arrivalsPerStep;
+    private double distractedProbability;
+    private int steps;
+    private int doorOpenSteps;
+    
+    /**
+     * Constructor for PolicyComparison
+     * Defaults to mixed traffic of 0.05 arrivals per step over 5000 steps
+     * 
+     * @param numberOfFloors the number of floors
+     * @param policies the policies to compare, the first one being the baseline
+     */
+    public PolicyComparison(int numberOfFloors, List<? extends DirectionPolicy> policies) {
+        if (policies.size() < 2) {
+            throw new IllegalArgumentException("At least two policies are required: " + policies.size());
+        }
+        this.numberOfFloors = numberOfFloors;
+        this.policies = Collections.unmodifiableList(new ArrayList<>(policies));
+        this.traffic = TrafficProfile.MIXED;
+        this.arrivalsPerStep = 0.05;
+        this.steps = 5000;
+        this.doorOpenSteps = 2;
+    }
+    
+    /**
+     * Sets the traffic of every replication
+     * 
+     * @param profile the traffic profile
+     * @param arrivalsPerStep mean arrivals per step
+     * @param distractedProbability probability that a passenger is distracted
+     */
+    public void setTraffic(TrafficProfile profile, double arrivalsPerStep, double distractedProbability) {
+        this.traffic = profile;
+        this.arrivalsPerStep = arrivalsPerStep;
+        this.distractedProbability = distractedProbability;
+    }
+    
+    /**
+     * Sets the number of steps of every replication
+     * 
+     * @param steps the step count
+     */
+    public void setSteps(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("At least one step is required: " + steps);
+        }
+        this.steps = steps;
+    }
+    
+    /**
+     * Sets the number of steps a door stays open
+     * 
+     * @param steps number of steps
+     */
+    public void setDoorOpenSteps(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("Lockstep runs need step-driven doors: " + steps);
+        }
+        this.doorOpenSteps = steps;
+    }
+    
+    /**
+     * Runs the replications
+     * Replication r uses the seed derived from the root seed and r, so
+     * adding replications keeps the earlier ones unchanged
+     * 
+     * @param seed the root seed
+     * @param replications the number of replications, at least 2
+     * @return the per-policy means and paired differences
+     */
+    public Result run(long seed, int replications) {
+        if (replications < 2) {
+            throw new IllegalArgumentException("At least two replications are required: " + replications);
+        }
+        SimulationRandom root = new SimulationRandom(seed);
+        double[][] waits = new double[policies.size()][replications];
+        double[][] rides = new double[policies.size()][replications];
+        
+        for (int r = 0; r < replications; r++) {
+            List<ElevatorController> controllers = runReplication(new SimulationRandom(root.childSeed(r)));
+            for (int p = 0; p < controllers.size(); p++) {
+                waits[p][r] = controllers.get(p).getMetrics().getMeanWaitSteps();
+                rides[p][r] = controllers.get(p).getMetrics().getMeanRideSteps();
+            }
+        }
+        return new Result(policies, waits, rides);
+    }
+    
+    /**
+     * Runs one replication of every policy in lockstep
+     * 
+     * @param random the random hierarchy of the replication
+     * @return the controllers after the run, in policy order
+     */
+    private List<ElevatorController> runReplication(SimulationRandom random) {
+        List<ElevatorController> controllers = new ArrayList<>(policies.size());
+        for (DirectionPolicy policy : policies) {
+            ElevatorController controller = new ElevatorController(numberOfFloors);
+            // Same hierarchy for every policy: passenger n gets the same seed everywhere
+            controller.setRandom(random);
+            controller.setDoorOpenSteps(doorOpenSteps);
+            controller.setDirectionPolicy(policy);
+            controllers.add(controller);
+        }
+        TrafficGenerator generator = new TrafficGenerator(traffic, numberOfFloors, arrivalsPerStep,
+                                                          distractedProbability, random);
+        Lockstep lockstep = new Lockstep(controllers);
+        for (int step = 0; step < steps; step++) {
+            generator.feed(lockstep);
+            for (ElevatorController controller : controllers) {
+                controller.step();
+            }
+        }
+        return controllers;
+    }
+    
+    /**
+     * Gets the two-sided 95% quantile of Student's t distribution
+     * Exact table values up to 30 degrees of freedom, a Cornish-Fisher
+     * expansion of the normal quantile beyond
+     * 
+     * @param degreesOfFreedom the degrees of freedom, at least 1
+     * @return the quantile
+     */
+    static double tQuantile975(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T_975.length) {
+            return T_975[degreesOfFreedom - 1];
+        }
+        double z = Z_975;
+        double n = degreesOfFreedom;
+        return z + (z * z * z + z) / (4 * n) + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * n * n);
+    }
+    
+    /**
+     * Main method for comparing policies from the command line
+     * Prints only the result, the simulation log is silenced
+     * Options: --floors N, --steps N, --traffic PROFILE, --rate R,
+     * --policies A,B,..., --replications N, --seed N
+     * 
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        int floors = 10;
+        int steps = 5000;
+        TrafficProfile profile = TrafficProfile.MIXED;
+        double rate = 0.05;
+        List<DirectionPolicy> policies = new ArrayList<>();
+        int replications = 10;
+        long seed = 1L;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--floors":
+                    floors = Integer.parseInt(value);
+                    break;
+                case "--steps":
+                    steps = Integer.parseInt(value);
+                    break;
+                case "--traffic":
+                    profile = TrafficProfile.fromName(value);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--policies":
+                    for (String name : value.split(",")) {
+                        policies.add(StandardDirectionPolicy.fromName(name));
+                    }
+                    break;
+                case "--replications":
+                    replications = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (policies.isEmpty()) {
+            policies.add(StandardDirectionPolicy.COLLECTIVE);
+            policies.add(StandardDirectionPolicy.NEAREST_STOP);
+        }
+        PolicyComparison comparison = new PolicyComparison(floors, policies);
+        comparison.setTraffic(profile, rate, 0.0);
+        comparison.setSteps(steps);
+        // Keep the console for the result, the simulation log is not needed
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            stdout.println(comparison.run(seed, replications));
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+    
+    /**
+     * Arrival target that hands every arrival to all controllers of a replication
+     */
+    private static final class Lockstep implements ArrivalTarget {
+        private final List<ElevatorController> controllers;
+        
+        Lockstep(List<ElevatorController> controllers) {
+            this.controllers = controllers;
+        }
+        
+        @Override
+        public int getNumberOfFloors() {
+            return controllers.get(0).getNumberOfFloors();
+        }
+        
+        @Override
+        public int getCurrentStep() {
+            return controllers.get(0).getCurrentStep();
+        }
+        
+        @Override
+        public User addArrival(int origin, int destination, boolean distracted) {
+            User first = null;
+            for (ElevatorController controller : controllers) {
+                User user = controller.addArrival(origin, destination, distracted);
+                if (first == null) {
+                    first = user;
+                }
+            }
+            return first;
+        }
+    }
+    
+    /**
+     * Per-policy means and paired differences against the baseline
+     */
+    public static final class Result {
+        private final List<DirectionPolicy> policies;
+        private final double[][] waits;
+        private final double[][] rides;
+        
+        Result(List<DirectionPolicy> policies, double[][] waits, double[][] rides) {
+            this.policies = policies;
+            this.waits = waits;
+            this.rides = rides;
+        }
+        
+        /**
+         * Gets the number of replications
+         * 
+         * @return replication count
+         */
+        public int getReplications() {
+            return waits[0].length;
+        }
+        
+        /**
+         * Gets the compared policies, the baseline first
+         * 
+         * @return the policies
+         */
+        public List<DirectionPolicy> getPolicies() {
+            return policies;
+        }
+        
+        /**
+         * Gets the mean wait of a policy over all replications
+         * 
+         * @param policy the policy index
+         * @return mean wait in steps
+         */
+        public double getMeanWait(int policy) {
+            return mean(waits[policy]);
+        }
+        
+        /**
+         * Gets the mean ride of a policy over all replications
+         * 
+         * @param policy the policy index
+         * @return mean ride in steps
+         */
+        public double getMeanRide(int policy) {
+            return mean(rides[policy]);
+        }
+        
+        /**
+         * Gets the paired difference in mean wait between a policy and the baseline
+         * 
+         * @param policy the policy index, at least 1
+         * @return the difference, positive if the policy waits longer
+         */
+        public Difference getWaitDifference(int policy) {
+            return new Difference(waits[policy], waits[0]);
+        }
+        
+        /**
+         * Gets the paired difference in mean ride between a policy and the baseline
+         * 
+         * @param policy the policy index, at least 1
+         * @return the difference, positive if the policy rides longer
+         */
+        public Difference getRideDifference(int policy) {
+            return new Difference(rides[policy], rides[0]);
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "%d replications, baseline %s: wait %.3f, ride %.3f%n",
+                                      getReplications(), policies.get(0).getName(), getMeanWait(0), getMeanRide(0)));
+            for (int p = 1; p < policies.size(); p++) {
+                text.append(String.format(Locale.ROOT, "%s: wait %.3f, ride %.3f%n",
+                                          policies.get(p).getName(), getMeanWait(p), getMeanRide(p)));
+                text.append("  wait difference ").append(getWaitDifference(p)).append(System.lineSeparator());
+                text.append("  ride difference ").append(getRideDifference(p)).append(System.lineSeparator());
+            }
+            return text.toString();
+        }
+        
+        /**
+         * Computes the mean of a sample
+         * 
+         * @param values the sample
+         * @return the mean
+         */
+        private static double mean(double[] values) {
+            double sum = 0.0;
+            for (double value : values) {
+                sum += value;
+            }
+            return sum / values.length;
+        }
+    }
+    
+    /**
+     * Paired difference of a metric with its 95% confidence interval
+     */
+    public static final class Difference {
+        private final double mean;
+        private final double halfWidth;
+        private final double independentHalfWidth;
+        
+        /**
+         * Constructor for Difference
+         * 
+         * @param policy the metric of the policy, one value per replication
+         * @param baseline the metric of the baseline, one value per replication
+         */
+        Difference(double[] policy, double[] baseline) {
+            int n = policy.length;
+            double[] differences = new double[n];
+            for (int r = 0; r < n; r++) {
+                differences[r] = policy[r] - baseline[r];
+            }
+            double t = tQuantile975(n - 1);
+            this.mean = Result.mean(differences);
+            this.halfWidth = t * Math.sqrt(variance(differences) / n);
+            // The interval two independent sets of runs would have given
+            this.independentHalfWidth = t * Math.sqrt((variance(policy) + variance(baseline)) / n);
+        }
+        
+        /**
+         * Gets the mean paired difference
+         * 
+         * @return policy minus baseline
+         */
+        public double getMean() {
+            return mean;
+        }
+        
+        /**
+         * Gets the half width of the 95% confidence interval
+         * 
+         * @return half width
+         */
+        public double getHalfWidth() {
+            return halfWidth;
+        }
+        
+        /**
+         * Gets the lower bound of the 95% confidence interval
+         * 
+         * @return lower bound
+         */
+        public double getLower() {
+            return mean - halfWidth;
+        }
+        
+        /**
+         * Gets the upper bound of the 95% confidence interval
+         * 
+         * @return upper bound
+         */
+        public double getUpper() {
+            return mean + halfWidth;
+        }
+        
+        /**
+         * Checks if the interval excludes zero
+         * 
+         * @return true if the difference is significant at the 5% level
+         */
+        public boolean isSignificant() {
+            return getLower() > 0.0 || getUpper() < 0.0;
+        }
+        
+        /**
+         * Gets the half width independent runs would have given for the same replications
+         * 
+         * @return unpaired half width
+         */
+        public double getIndependentHalfWidth() {
+            return independentHalfWidth;
+        }
+        
+        /**
+         * Gets how many times fewer replications the pairing needs for the
+         * same interval width as independent runs
+         * 
+         * @return ratio of unpaired to paired variance
+         */
+        public double getVarianceReduction() {
+            if (halfWidth == 0.0) {
+                return independentHalfWidth == 0.0 ? 1.0 : Double.POSITIVE_INFINITY;
+            }
+            double ratio = independentHalfWidth / halfWidth;
+            return ratio * ratio;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%+.3f [%+.3f, %+.3f]%s, unpaired +/-%.3f, variance reduction %.1fx",
+                                 mean, getLower(), getUpper(), isSignificant() ? " significant" : "",
+                                 independentHalfWidth, getVarianceReduction());
+        }
+        
+        /**
+         * Computes the unbiased sample variance
+         * 
+         * @param values the sample
+         * @return the variance
+         */
+        private static double variance(double[] values) {
+            double mean = Result.mean(values);
+            double sum = 0.0;
+            for (double value : values) {
+                sum += (value - mean) * (value - mean);
+            }
+            return sum / (values.length - 1);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package elevator;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Continuous safety monitor for the elevator system
+ * Maintains the invariant state incrementally from door and elevator transitions,
+ * so each check costs a few field updates instead of a scan over all doors
+ * 
+ * Checked constraints:
+ * - no door is open while the elevator is moving
+ * - at most one door is open at a time
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class SafetyMonitor implements ElevatorListener {
+    private final boolean[] openDoors;
+    private int openDoorCount;
+    private int lastOpenedFloor;
+    private boolean moving;
+    private int currentStep;
+    private long violationCount;
+    private ConstraintViolation lastViolation;
+    private final List<Consumer<ConstraintViolation>> violationListeners;
+    
+    /**
+     * Constructor for SafetyMonitor
+     * Assumes the elevator is stopped and all doors are closed
+     * 
+     * @param numberOfFloors the number of floors (and doors) to monitor
+     */
+    public SafetyMonitor(int numberOfFloors) {
+        this.openDoors = new boolean[numberOfFloors];
+        this.violationListeners = new CopyOnWriteArrayList<>();
+        reset();
+    }
+    
+    /**
+     * Resets the monitored state to stopped with all doors closed
+     * Violation counters and listeners are kept
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < openDoors.length; i++) {
+            openDoors[i] = false;
+        }
+        openDoorCount = 0;
+        lastOpenedFloor = -1;
+        moving = false;
+    }
+    
+    /**
+     * Registers a listener that receives every violation as it occurs
+     * 
+     * @param listener the listener to add
+     */
+    public void addViolationListener(Consumer<ConstraintViolation> listener) {
+        violationListeners.add(listener);
+    }
+    
+    /**
+     * Removes a previously registered violation listener
+     * 
+     * @param listener the listener to remove
+     */
+    public void removeViolationListener(Consumer<ConstraintViolation> listener) {
+        violationListeners.remove(listener);
+    }
+    
+    /**
+     * Sets the current simulation step, used to stamp violations
+     * 
+     * @param step the current step number
+     */
+    public void setCurrentStep(int step) {
+        this.currentStep = step;
+    }
+    
+    @Override
+    public synchronized void carDeparted(int floor) {
+        moving = true;
+        if (openDoorCount > 0) {
+            for (int i = 0; i < openDoors.length; i++) {
+                if (openDoors[i]) {
+                    report(ConstraintViolation.Type.DOOR_OPEN_WHILE_MOVING, i);
+                }
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void carStopped(int floor) {
+        moving = false;
+    }
+    
+    @Override
+    public synchronized void doorOpened(int floor) {
+        if (floor < 0 || floor >= openDoors.length || openDoors[floor]) {
+            return;
+        }
+        openDoors[floor] = true;
+        openDoorCount++;
+        lastOpenedFloor = floor;
+        
+        if (moving) {
+            report(ConstraintViolation.Type.DOOR_OPEN_WHILE_MOVING, floor);
+        }
+        if (openDoorCount > 1) {
+            report(ConstraintViolation.Type.MULTIPLE_DOORS_OPEN, floor);
+        }
+    }
+    
+    @Override
+    public synchronized void doorClosed(int floor) {
+        if (floor < 0 || floor >= openDoors.length || !openDoors[floor]) {
+            return;
+        }
+        openDoors[floor] = false;
+        openDoorCount--;
+    }
+    
+    /**
+     * Records a violation and notifies the listeners
+     * 
+     * @param type the violated constraint
+     * @param floor the floor of the door involved
+     */
+    private void report(ConstraintViolation.Type type, int floor) {
+        ConstraintViolation violation = new ConstraintViolation(type, currentStep, floor, openDoorCount);
+        violationCount++;
+        lastViolation = violation;
+        for (Consumer<ConstraintViolation> listener : violationListeners) {
+            listener.accept(violation);
+        }
+    }
+    
+    /**
+     * Gets the number of doors currently open
+     * 
+     * @return open door count
+     */
+    public synchronized int getOpenDoorCount() {
+        return openDoorCount;
+    }
+    
+    /**
+     * Checks if the door at a specific floor is open
+     * 
+     * @param floor the floor to check
+     * @return true if the door is open, false otherwise
+     */
+    public synchronized boolean isDoorOpen(int floor) {
+        return floor >= 0 && floor < openDoors.length && openDoors[floor];
+    }
+    
+    /**
+     * Gets the floor of an open door
+     * With the one-door constraint satisfied this is the only open door
+     * 
+     * @return floor of an open door, or -1 if all doors are closed
+     */
+    public synchronized int getOpenDoorFloor() {
+        if (openDoorCount == 0) {
+            return -1;
+        }
+        if (lastOpenedFloor >= 0 && openDoors[lastOpenedFloor]) {
+            return lastOpenedFloor;
+        }
+        for (int i = 0; i < openDoors.length; i++) {
+            if (openDoors[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Checks if the elevator is currently moving
+     * 
+     * @return true if moving, false if stopped
+     */
+    public synchronized boolean isMoving() {
+        return moving;
+    }
+    
+    /**
+     * Gets the total number of violations reported so far
+     * 
+     * @return violation count
+     */
+    public synchronized long getViolationCount() {
+        return violationCount;
+    }
+    
+    /**
+     * Gets the most recent violation
+     * 
+     * @return the last violation, or null if none occurred
+     */
+    public synchronized ConstraintViolation getLastViolation() {
+        return lastViolation;
+    }
+}
@@ -0,0 +1,366 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams a recorded scenario file into a controller
+ * The file is read through memory-mapped windows and parsed without building
+ * strings, and only the next pending arrival is kept in memory, so scenarios
+ * with millions of arrivals replay in constant memory
+ * 
+ * Scenario format (plain text, one entry per line, '#' starts a comment):
+ * - building parameters first: "floors N"
+ * - then arrivals sorted by step: "step origin destination [distracted]"
+ *   where distracted is 0 or 1 (default 0)
+ * 
+ * An arrival is added to the controller, and calls the elevator, once the
+ * controller has reached its step.
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ScenarioLoader implements Closeable {
+    private static final long DEFAULT_WINDOW_BYTES = 64L << 20;
+    
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowBytes;
+    private MappedByteBuffer window;
+    private long windowStart;
+    
+    private byte[] line;
+    private int lineLength;
+    private int lineNumber;
+    private int position;
+    private int tokenStart;
+    private int tokenEnd;
+    
+    private int numberOfFloors;
+    private boolean hasNext;
+    private int nextStep;
+    private int nextOrigin;
+    private int nextDestination;
+    private boolean nextDistracted;
+    private long arrivalsLoaded;
+    
+    /**
+     * Constructor for ScenarioLoader
+     * Reads the building parameters and the first arrival
+     * 
+     * @param path the scenario file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid scenario
+     */
+    public ScenarioLoader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_BYTES);
+    }
+    
+    /**
+     * Constructor for ScenarioLoader with a custom mapping window size
+     * 
+     * @param path the scenario file
+     * @param windowBytes number of bytes mapped at a time
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid scenario
+     */
+    ScenarioLoader(Path path, long windowBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowBytes = Math.max(1, windowBytes);
+        this.line = new byte[256];
+        this.numberOfFloors = -1;
+        try {
+            map(0);
+            readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Gets the number of floors declared by the scenario
+     * 
+     * @return number of floors
+     */
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+    
+    /**
+     * Checks if arrivals remain to be fed
+     * 
+     * @return true if at least one arrival has not been added yet
+     */
+    public boolean hasRemaining() {
+        return hasNext;
+    }
+    
+    /**
+     * Gets the number of arrivals added to controllers so far
+     * 
+     * @return number of loaded arrivals
+     */
+    public long getArrivalsLoaded() {
+        return arrivalsLoaded;
+    }
+    
+    /**
+     * Adds every arrival due at or before the target's current step
+     * Each arriving user is added to the target and calls an elevator
+     * 
+     * @param target the controller or group to feed
+     * @return number of users added
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if an arrival is invalid for the target
+     */
+    public int feed(ArrivalTarget target) throws IOException {
+        int added = 0;
+        while (hasNext && nextStep <= target.getCurrentStep()) {
+            if (nextOrigin >= target.getNumberOfFloors() || nextDestination >= target.getNumberOfFloors()) {
+                throw new IllegalArgumentException("Arrival on line " + lineNumber + " is outside the building");
+            }
+            target.addArrival(nextOrigin, nextDestination, nextDistracted);
+            added++;
+            arrivalsLoaded++;
+            readArrival();
+        }
+        return added;
+    }
+    
+    /**
+     * Closes the scenario file
+     * 
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+    
+    /**
+     * Reads the building parameters and the first arrival
+     * 
+     * @throws IOException if the file cannot be read
+     */
+    private void readHeader() throws IOException {
+        while (nextEntry()) {
+            if (!tokenEquals("floors")) {
+                break;
+            }
+            if (!nextToken()) {
+                throw invalid("missing number of floors");
+            }
+            numberOfFloors = tokenInt();
+            if (numberOfFloors < 2) {
+                throw invalid("a building needs at least 2 floors");
+            }
+            if (nextToken()) {
+                throw invalid("unexpected value");
+            }
+        }
+        if (numberOfFloors < 0) {
+            throw new IllegalArgumentException("Scenario does not declare the number of floors");
+        }
+        if (lineLength >= 0 && tokenEnd > tokenStart) {
+            parseArrival();
+        }
+    }
+    
+    /**
+     * Reads the next arrival, or marks the scenario as finished
+     * 
+     * @throws IOException if the file cannot be read
+     */
+    private void readArrival() throws IOException {
+        if (nextEntry()) {
+            parseArrival();
+        } else {
+            hasNext = false;
+        }
+    }
+    
+    /**
+     * Parses the arrival on the current line, starting at its first token
+     */
+    private void parseArrival() {
+        int step = tokenInt();
+        if (hasNext && step < nextStep) {
+            throw invalid("arrivals must be sorted by step");
+        }
+        if (!nextToken()) {
+            throw invalid("missing origin floor");
+        }
+        int origin = tokenInt();
+        if (!nextToken()) {
+            throw invalid("missing destination floor");
+        }
+        int destination = tokenInt();
+        boolean distracted = false;
+        if (nextToken()) {
+            int flag = tokenInt();
+            if (flag != 0 && flag != 1) {
+                throw invalid("distracted flag must be 0 or 1");
+            }
+            distracted = flag == 1;
+        }
+        if (nextToken()) {
+            throw invalid("unexpected value");
+        }
+        if (origin >= numberOfFloors || destination >= numberOfFloors || origin == destination) {
+            throw invalid("invalid origin or destination");
+        }
+        nextStep = step;
+        nextOrigin = origin;
+        nextDestination = destination;
+        nextDistracted = distracted;
+        hasNext = true;
+    }
+    
+    /**
+     * Advances to the first token of the next non-empty line
+     * 
+     * @return false at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private boolean nextEntry() throws IOException {
+        while (readLine()) {
+            if (nextToken()) {
+                return true;
+            }
+        }
+        lineLength = -1;
+        return false;
+    }
+    
+    /**
+     * Reads the next line into the line buffer, dropping comments
+     * 
+     * @return false at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private boolean readLine() throws IOException {
+        int b = read();
+        if (b < 0) {
+            return false;
+        }
+        lineNumber++;
+        lineLength = 0;
+        position = 0;
+        boolean comment = false;
+        while (b >= 0 && b != '\n') {
+            if (b == '#') {
+                comment = true;
+            }
+            if (!comment && b != '\r') {
+                if (lineLength == line.length) {
+                    byte[] grown = new byte[line.length * 2];
+                    System.arraycopy(line, 0, grown, 0, lineLength);
+                    line = grown;
+                }
+                line[lineLength++] = (byte) b;
+            }
+            b = read();
+        }
+        return true;
+    }
+    
+    /**
+     * Moves to the next whitespace separated token of the current line
+     * 
+     * @return true if a token was found
+     */
+    private boolean nextToken() {
+        while (position < lineLength && (line[position] == ' ' || line[position] == '\t')) {
+            position++;
+        }
+        tokenStart = position;
+        while (position < lineLength && line[position] != ' ' && line[position] != '\t') {
+            position++;
+        }
+        tokenEnd = position;
+        return tokenEnd > tokenStart;
+    }
+    
+    /**
+     * Parses the current token as a non-negative integer
+     * 
+     * @return the parsed value
+     */
+    private int tokenInt() {
+        long value = 0;
+        for (int i = tokenStart; i < tokenEnd; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid("expected a number");
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                throw invalid("number too large");
+            }
+        }
+        return (int) value;
+    }
+    
+    /**
+     * Compares the current token with a keyword
+     * 
+     * @param keyword the keyword
+     * @return true if the token equals the keyword
+     */
+    private boolean tokenEquals(String keyword) {
+        if (tokenEnd - tokenStart != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (line[tokenStart + i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Creates the exception for an invalid current line
+     * 
+     * @param reason what is wrong with the line
+     * @return the exception to throw
+     */
+    private IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid scenario line " + lineNumber + ": " + reason);
+    }
+    
+    /**
+     * Reads the next byte of the file, mapping the next window when needed
+     * 
+     * @return the byte, or -1 at the end of the file
+     * @throws IOException if the file cannot be mapped
+     */
+    private int read() throws IOException {
+        if (!window.hasRemaining()) {
+            long next = windowStart + window.limit();
+            if (next >= fileSize) {
+                return -1;
+            }
+            map(next);
+        }
+        return window.get() & 0xFF;
+    }
+    
+    /**
+     * Maps the window starting at a file offset
+     * 
+     * @param start the file offset
+     * @throws IOException if the file cannot be mapped
+     */
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowBytes, fileSize - start));
+    }
+}
@@ -0,0 +1,108 @@
+package elevator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node of a deterministic hierarchy of random seeds
+ * A run has one root seed; subsystems (traffic, passengers, ...) derive their
+ * own seed from the root and their name, and passengers derive theirs from
+ * their subsystem and id. Derivation uses the SplitMix64 finalizer, so every
+ * seed depends only on its path in the hierarchy and not on creation order,
+ * and parallel runs with different roots are independent
+ * 
+ * Passengers do not hold a generator: they keep a seed and a draw counter
+ * and use draw, which hashes both into a value without allocating
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public final class SimulationRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final AtomicLong UNSEEDED = new AtomicLong(System.nanoTime());
+    
+    private final long seed;
+    
+    /**
+     * Constructor for SimulationRandom
+     * 
+     * @param seed the seed of this node, usually the root seed of a run
+     */
+    public SimulationRandom(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Creates a root with a seed that differs on every call
+     * Used where no run seed was configured
+     * 
+     * @return a new root
+     */
+    public static SimulationRandom unseeded() {
+        return new SimulationRandom(mix(UNSEEDED.addAndGet(GOLDEN_GAMMA)));
+    }
+    
+    /**
+     * Gets the seed of this node
+     * 
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Derives the node of a named subsystem
+     * 
+     * @param name the subsystem name, for example "traffic"
+     * @return the subsystem node
+     */
+    public SimulationRandom subsystem(String name) {
+        return new SimulationRandom(mix(seed ^ mix(name.hashCode() * GOLDEN_GAMMA)));
+    }
+    
+    /**
+     * Derives the seed of a numbered child, such as a passenger
+     * 
+     * @param index the child index
+     * @return the child seed
+     */
+    public long childSeed(long index) {
+        return mix(seed ^ mix((index + 1) * GOLDEN_GAMMA));
+    }
+    
+    /**
+     * Creates a generator for the sequential draws of this node
+     * The generator must not be shared between threads
+     * 
+     * @return a new generator seeded from this node
+     */
+    public SplittableRandom newGenerator() {
+        return new SplittableRandom(seed);
+    }
+    
+    /**
+     * Draws a value from a seed and a draw counter without any state
+     * 
+     * @param seed the seed of the stream
+     * @param draw the index of the draw in the stream
+     * @param bound the upper bound (exclusive), must be positive
+     * @return a value between 0 (inclusive) and bound (exclusive)
+     */
+    public static int draw(long seed, long draw, int bound) {
+        long bits = mix(seed + (draw + 1) * GOLDEN_GAMMA) >>> 1;
+        return (int) (bits % bound);
+    }
+    
+    /**
+     * SplitMix64 finalizer, a bijective mixing of 64 bits
+     * 
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,520 @@
+package elevator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Command-line entry point for headless batch simulations
+ * Runs a generated or recorded workload with step-driven doors and prints a
+ * one-line JSON summary of the key performance indicators, so performance
+ * sweeps can be scripted without writing Java
+ * Runs are seeded, and multi-car groups assign calls in deterministic mode
+ * so the same options always print the same summary
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public final class SimulationRunner {
+    private static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: java -jar elevator-testing.jar [options]",
+        "  --floors N          number of floors (default 10)",
+        "  --cars N            number of cars (default 1)",
+        "  --steps N           step budget (default 10000)",
+        "  --seed N            random seed (default 1)",
+        "  --traffic PROFILE   up-peak, down-peak, interfloor or mixed (default mixed)",
+        "  --rate R            mean arrivals per step (default 0.05)",
+        "  --distracted P      probability that a passenger is distracted (default 0)",
+        "  --mode MODE         normal or express (default normal)",
+        "  --policy NAME       direction policy, collective or nearest-stop (default collective)",
+        "  --policy-switch STEP:NAME[,STEP:NAME...]",
+        "                      switch the direction policy at the given steps during the run",
+        "  --door-steps N      steps a door stays open (default 2)",
+        "  --dwell-min MS      shortest door dwell per stop (default 800)",
+        "  --dwell-max MS      longest door dwell per stop (default 6000)",
+        "  --scenario FILE     replay a recorded scenario instead of generated traffic",
+        "  --export FILE       write the per-step state to a columnar binary file",
+        "  --trace FILE        write a compact delta-encoded trace of the run",
+        "  --summary FILE      also write the JSON summary to a file",
+        "  --verbose           keep the simulation log on standard output");
+    
+    private SimulationRunner() {
+    }
+    
+    /**
+     * Main method for running a batch simulation
+     * 
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        try {
+            System.out.println(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Runs a simulation described by command line arguments
+     * 
+     * @param args command line arguments
+     * @return the JSON summary
+     * @throws IOException if a scenario, export or summary file cannot be accessed
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    static String run(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        
+        ScenarioLoader scenario = null;
+        StepStateExporter exporter = null;
+        TraceWriter trace = null;
+        PrintStream stdout = System.out;
+        try {
+            if (!options.verbose) {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            }
+            int floors = options.floors;
+            if (options.scenario != null) {
+                scenario = new ScenarioLoader(options.scenario);
+                floors = scenario.getNumberOfFloors();
+            }
+            
+            SimulationRandom random = new SimulationRandom(options.seed);
+            ElevatorGroup group = new ElevatorGroup(floors, options.cars);
+            group.setRandom(random);
+            group.getAssignmentEngine().setDeterministic(true);
+            group.setDoorOpenSteps(options.doorSteps);
+            group.setDwellPolicy(options.dwellPolicy());
+            group.setDirectionPolicy(options.policy);
+            // Express mode, export and trace are single-car only, see Options.parse
+            ElevatorController controller = group.getCar(0);
+            controller.setExpressMode(options.express);
+            TrafficGenerator generator = scenario != null ? null :
+                new TrafficGenerator(options.traffic, floors, options.rate, options.distracted, random);
+            if (options.export != null) {
+                exporter = new StepStateExporter(options.export, floors);
+                controller.setStateExporter(exporter);
+            }
+            if (options.trace != null) {
+                trace = new TraceWriter(options.trace, floors);
+                controller.setTraceWriter(trace);
+            }
+            
+            NavigableMap<Integer, StandardDirectionPolicy> switches = new TreeMap<>(options.policySwitches);
+            long start = System.nanoTime();
+            int fedSteps = 0;
+            while (group.getCurrentStep() < options.steps) {
+                while (!switches.isEmpty() && switches.firstKey() <= group.getCurrentStep()) {
+                    group.swapDirectionPolicy(switches.pollFirstEntry().getValue());
+                }
+                if (scenario != null) {
+                    if (!scenario.hasRemaining() && group.getActiveUserCount() == 0) {
+                        break;
+                    }
+                    scenario.feed(group);
+                } else {
+                    // Express moves skip steps, generate their arrivals too
+                    while (fedSteps <= group.getCurrentStep()) {
+                        generator.feed(group);
+                        fedSteps++;
+                    }
+                }
+                group.step();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.setOut(stdout);
+            
+            long arrivals = scenario != null ? scenario.getArrivalsLoaded() : generator.getArrivalsGenerated();
+            String summary = summarize(options, group, floors, arrivals, elapsed);
+            if (options.summary != null) {
+                Files.write(options.summary, (summary + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            }
+            return summary;
+        } finally {
+            System.setOut(stdout);
+            if (exporter != null) {
+                exporter.close();
+            }
+            if (trace != null) {
+                trace.close();
+            }
+            if (scenario != null) {
+                scenario.close();
+            }
+        }
+    }
+    
+    /**
+     * Builds the JSON summary of a finished run
+     * 
+     * @param options the run options
+     * @param group the cars after the run
+     * @param floors number of floors simulated
+     * @param arrivals number of passengers that arrived
+     * @param elapsedNanos wall-clock duration of the run
+     * @return the JSON summary on one line
+     */
+    private static String summarize(Options options, ElevatorGroup group, int floors,
+                                    long arrivals, long elapsedNanos) {
+        // Counts add up over the cars, means are weighted by their samples
+        Histogram waits = new Histogram();
+        Histogram rides = new Histogram();
+        long boarded = 0;
+        long handled = 0;
+        long floorsTravelled = 0;
+        double simulated = 0.0;
+        long dwellStops = 0;
+        double dwellMillis = 0.0;
+        long roundTrips = 0;
+        double roundTripSeconds = 0.0;
+        long violations = 0;
+        Set<String> policyNames = new TreeSet<>();
+        for (ElevatorController car : group.getCars()) {
+            ControllerMetrics metrics = car.getMetrics();
+            CarMetrics carMetrics = car.getElevator().getMetrics();
+            waits.add(metrics.getWaitHistogram());
+            rides.add(metrics.getRideHistogram());
+            boarded += metrics.getBoardings();
+            handled += metrics.getAlightings();
+            floorsTravelled += carMetrics.getFloorsTravelled();
+            simulated = Math.max(simulated, carMetrics.getSimulatedSeconds());
+            dwellStops += metrics.getDwellStops();
+            dwellMillis += metrics.getMeanDwellMillis() * metrics.getDwellStops();
+            roundTrips += metrics.getRoundTrips();
+            roundTripSeconds += metrics.getMeanRoundTripSeconds() * metrics.getRoundTrips();
+            violations += metrics.getConstraintViolations();
+            policyNames.addAll(metrics.getPolicyNames());
+        }
+        long stepCalls = group.getStepsExecuted();
+        long policySwaps = group.getPolicySwaps();
+        double seconds = elapsedNanos / 1e9;
+        
+        StringBuilder json = new StringBuilder(512);
+        json.append('{');
+        field(json, "floors", floors);
+        field(json, "cars", options.cars);
+        json.append(",\"traffic\":\"")
+            .append(options.scenario != null ? "scenario" : options.traffic.getName()).append('"');
+        json.append(",\"mode\":\"").append(options.express ? "express" : "normal").append('"');
+        json.append(",\"policy\":\"").append(options.policy.getName()).append('"');
+        field(json, "seed", options.seed);
+        field(json, "steps", group.getCurrentStep());
+        field(json, "stepCalls", stepCalls);
+        field(json, "elapsedSeconds", seconds);
+        field(json, "stepsPerSecond", seconds > 0 ? stepCalls / seconds : 0.0);
+        field(json, "arrivals", arrivals);
+        field(json, "boarded", boarded);
+        field(json, "handled", handled);
+        field(json, "remaining", group.getActiveUserCount());
+        field(json, "waitMean", waits.getMean());
+        field(json, "waitP50", waits.getPercentile(50.0));
+        field(json, "waitP95", waits.getPercentile(95.0));
+        field(json, "waitP99", waits.getPercentile(99.0));
+        field(json, "waitMax", waits.getMax());
+        field(json, "rideMean", rides.getMean());
+        field(json, "handlingCapacity", simulated > 0 ? handled * 300.0 / simulated : 0.0);
+        field(json, "floorsTravelled", floorsTravelled);
+        field(json, "simulatedSeconds", simulated);
+        field(json, "dwellMean", dwellStops > 0 ? dwellMillis / dwellStops / 1000.0 : 0.0);
+        field(json, "roundTrips", roundTrips);
+        field(json, "roundTripMean", roundTrips > 0 ? roundTripSeconds / roundTrips : 0.0);
+        if (group.getCarCount() > 1) {
+            CarAssignmentEngine engine = group.getAssignmentEngine();
+            field(json, "assignmentSearches", engine.getSearches());
+            field(json, "assignmentFallbacks", engine.getGreedyFallbacks());
+            field(json, "assignmentTruncated", engine.getTruncatedSearches());
+            field(json, "assignmentP95Micros", engine.getDecisionHistogram().getPercentile(95.0));
+        }
+        if (!options.policySwitches.isEmpty()) {
+            field(json, "policySwaps", policySwaps);
+            json.append(",\"policies\":{");
+            String separator = "";
+            for (String name : policyNames) {
+                Histogram policyWaits = new Histogram();
+                Histogram policyRides = new Histogram();
+                for (ElevatorController car : group.getCars()) {
+                    policyWaits.add(car.getMetrics().getPolicyWaitHistogram(name));
+                    policyRides.add(car.getMetrics().getPolicyRideHistogram(name));
+                }
+                StringBuilder policy = new StringBuilder();
+                field(policy, "boarded", policyWaits.getCount());
+                field(policy, "waitMean", policyWaits.getMean());
+                field(policy, "waitP95", policyWaits.getPercentile(95.0));
+                field(policy, "rideMean", policyRides.getMean());
+                json.append(separator).append('"').append(name).append("\":{")
+                    .append(policy, 1, policy.length()).append('}');
+                separator = ",";
+            }
+            json.append('}');
+        }
+        field(json, "constraintViolations", violations);
+        json.deleteCharAt(1); // comma before the first field
+        json.append('}');
+        return json.toString();
+    }
+    
+    /**
+     * Appends a numeric JSON field preceded by a comma
+     * 
+     * @param json the buffer to append to
+     * @param name the field name
+     * @param value the field value
+     */
+    private static void field(StringBuilder json, String name, double value) {
+        json.append(",\"").append(name).append("\":");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            json.append((long) value);
+        } else {
+            json.append(String.format(Locale.ROOT, "%.4f", value));
+        }
+    }
+    
+    /**
+     * Parsed command line options
+     */
+    static final class Options {
+        int floors = 10;
+        int cars = 1;
+        int steps = 10000;
+        long seed = 1L;
+        TrafficProfile traffic = TrafficProfile.MIXED;
+        double rate = 0.05;
+        double distracted = 0.0;
+        boolean express;
+        StandardDirectionPolicy policy = StandardDirectionPolicy.COLLECTIVE;
+        Map<Integer, StandardDirectionPolicy> policySwitches = new TreeMap<>();
+        int doorSteps = 2;
+        long dwellMin = DwellPolicy.DEFAULT.getMinDwell();
+        long dwellMax = DwellPolicy.DEFAULT.getMaxDwell();
+        Path scenario;
+        Path export;
+        Path trace;
+        Path summary;
+        boolean verbose;
+        
+        /**
+         * Parses command line arguments
+         * 
+         * @param args the arguments
+         * @return the parsed options
+         * @throws IllegalArgumentException if an option is unknown or invalid
+         */
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--verbose")) {
+                    options.verbose = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--floors":
+                        options.floors = parseInt(option, value, 2);
+                        break;
+                    case "--cars":
+                        options.cars = parseInt(option, value, 1);
+                        break;
+                    case "--steps":
+                        options.steps = parseInt(option, value, 1);
+                        break;
+                    case "--seed":
+                        options.seed = parseLong(option, value);
+                        break;
+                    case "--traffic":
+                        options.traffic = parseTraffic(value);
+                        break;
+                    case "--rate":
+                        options.rate = parseDouble(option, value, 0.0, 100.0);
+                        break;
+                    case "--distracted":
+                        options.distracted = parseDouble(option, value, 0.0, 1.0);
+                        break;
+                    case "--mode":
+                        options.express = parseMode(value);
+                        break;
+                    case "--policy":
+                        options.policy = parsePolicy(value);
+                        break;
+                    case "--policy-switch":
+                        parsePolicySwitches(value, options.policySwitches);
+                        break;
+                    case "--door-steps":
+                        options.doorSteps = parseInt(option, value, 1);
+                        break;
+                    case "--dwell-min":
+                        options.dwellMin = parseInt(option, value, 0);
+                        break;
+                    case "--dwell-max":
+                        options.dwellMax = parseInt(option, value, 0);
+                        break;
+                    case "--scenario":
+                        options.scenario = Paths.get(value);
+                        break;
+                    case "--export":
+                        options.export = Paths.get(value);
+                        break;
+                    case "--trace":
+                        options.trace = Paths.get(value);
+                        break;
+                    case "--summary":
+                        options.summary = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (options.cars > 1 && (options.express || options.export != null || options.trace != null)) {
+                throw new IllegalArgumentException("Express mode, --export and --trace need a single car");
+            }
+            if (options.dwellMin > options.dwellMax) {
+                throw new IllegalArgumentException("--dwell-min must not exceed --dwell-max");
+            }
+            return options;
+        }
+        
+        /**
+         * Builds the dwell policy from the default one and the dwell bounds
+         * 
+         * @return the dwell policy of the run
+         */
+        DwellPolicy dwellPolicy() {
+            DwellPolicy defaults = DwellPolicy.DEFAULT;
+            return new DwellPolicy(dwellMin, dwellMax, defaults.getPerBoarding(),
+                                   defaults.getPerAlighting(), defaults.getIdleHold());
+        }
+        
+        /**
+         * Parses a whole number option
+         * 
+         * @param option the option name
+         * @param value the option value
+         * @param min smallest accepted value
+         * @return the parsed value
+         */
+        private static int parseInt(String option, String value, int min) {
+            long parsed = parseLong(option, value);
+            if (parsed < min || parsed > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(option + " must be at least " + min + ": " + value);
+            }
+            return (int) parsed;
+        }
+        
+        /**
+         * Parses a long option
+         * 
+         * @param option the option name
+         * @param value the option value
+         * @return the parsed value
+         */
+        private static long parseLong(String option, String value) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " expects a whole number: " + value);
+            }
+        }
+        
+        /**
+         * Parses a decimal option within bounds
+         * 
+         * @param option the option name
+         * @param value the option value
+         * @param min smallest accepted value
+         * @param max largest accepted value
+         * @return the parsed value
+         */
+        private static double parseDouble(String option, String value, double min, double max) {
+            double parsed;
+            try {
+                parsed = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " expects a number: " + value);
+            }
+            if (!(parsed >= min && parsed <= max)) {
+                throw new IllegalArgumentException(option + " must be between " + min + " and " + max);
+            }
+            return parsed;
+        }
+        
+        /**
+         * Parses a traffic profile option
+         * 
+         * @param value the option value
+         * @return the traffic profile
+         */
+        private static TrafficProfile parseTraffic(String value) {
+            try {
+                return TrafficProfile.fromName(value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown traffic profile " + value);
+            }
+        }
+        
+        /**
+         * Parses a direction policy option
+         * 
+         * @param value the option value
+         * @return the direction policy
+         */
+        private static StandardDirectionPolicy parsePolicy(String value) {
+            try {
+                return StandardDirectionPolicy.fromName(value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown direction policy " + value);
+            }
+        }
+        
+        /**
+         * Parses a list of policy switches of the form STEP:NAME[,STEP:NAME...]
+         * 
+         * @param value the option value
+         * @param switches the map receiving the policy by switch step
+         */
+        private static void parsePolicySwitches(String value, Map<Integer, StandardDirectionPolicy> switches) {
+            for (String entry : value.split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("--policy-switch expects STEP:NAME: " + entry);
+                }
+                int step = parseInt("--policy-switch", entry.substring(0, colon).trim(), 0);
+                if (switches.put(step, parsePolicy(entry.substring(colon + 1).trim())) != null) {
+                    throw new IllegalArgumentException("Duplicate policy switch at step " + step);
+                }
+            }
+        }
+        
+        /**
+         * Parses the run mode option
+         * 
+         * @param value the option value
+         * @return true for express mode, false for normal mode
+         */
+        private static boolean parseMode(String value) {
+            if (value.equals("express")) {
+                return true;
+            } else if (value.equals("normal")) {
+                return false;
+            }
+            throw new IllegalArgumentException("Unknown mode " + value);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package elevator;
+
+import java.util.Locale;
+
+/**
+ * Enum of the built-in direction policies
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public enum StandardDirectionPolicy implements DirectionPolicy {
+    /**
+     * Collective control from the specification: keep the current direction
+     * while work lies ahead, then reverse, and start upwards when idle
+     */
+    COLLECTIVE {
+        @Override
+        public Direction chooseDirection(Elevator elevator) {
+            return elevator.collectiveDirection();
+        }
+    },
+    
+    /**
+     * Head for the nearest pending floor, keeping the current direction on ties
+     * Shortens short trips but can starve floors at the ends of the shaft
+     */
+    NEAREST_STOP {
+        @Override
+        public Direction chooseDirection(Elevator elevator) {
+            int floor = elevator.getCurrentFloor();
+            int lowest = elevator.getLowestFloor();
+            int highest = elevator.getHighestFloor();
+            boolean preferDown = elevator.getDirection() == Direction.DOWN;
+            for (int distance = 1; distance <= highest - lowest; distance++) {
+                boolean above = floor + distance <= highest && isPending(elevator, floor + distance);
+                boolean below = floor - distance >= lowest && isPending(elevator, floor - distance);
+                if (above && below) {
+                    return preferDown ? Direction.DOWN : Direction.UP;
+                } else if (above) {
+                    return Direction.UP;
+                } else if (below) {
+                    return Direction.DOWN;
+                }
+            }
+            return Direction.NONE;
+        }
+    };
+    
+    /**
+     * Checks if a floor has a pending call or destination
+     * 
+     * @param elevator the elevator
+     * @param floor the floor to check
+     * @return true if the car has work at that floor
+     */
+    private static boolean isPending(Elevator elevator, int floor) {
+        return elevator.hasDestination(floor) || elevator.hasCallAtFloor(floor, Direction.UP)
+            || elevator.hasCallAtFloor(floor, Direction.DOWN);
+    }
+    
+    /**
+     * Parses a policy name such as "collective" or "nearest-stop"
+     * 
+     * @param name the policy name
+     * @return the matching policy
+     * @throws IllegalArgumentException if no policy has that name
+     */
+    public static StandardDirectionPolicy fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+    
+    @Override
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
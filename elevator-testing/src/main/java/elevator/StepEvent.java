@@ -0,0 +1,52 @@
+package elevator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one ElevatorController step
+ * The event duration is the whole step, the fields break it down by phase
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+@Name("elevator.Step")
+@Label("Controller Step")
+@Category("Elevator")
+@Description("One simulation step of the elevator controller")
+@StackTrace(false)
+class StepEvent extends jdk.jfr.Event {
+    
+    @Label("Step")
+    int step;
+    
+    @Label("Floor")
+    int floor;
+    
+    @Label("Direction")
+    String direction;
+    
+    @Label("Direction Decision Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long directionTime;
+    
+    @Label("Move Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long moveTime;
+    
+    @Label("Door Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long doorTime;
+    
+    @Label("User Processing Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long userTime;
+    
+    @Label("Constraint Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long constraintTime;
+}
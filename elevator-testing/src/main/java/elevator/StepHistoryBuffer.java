@@ -0,0 +1,264 @@
+package elevator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Fixed-size off-heap ring buffer of the most recent step states
+ * Each step overwrites the oldest slot of a direct ByteBuffer with a compact
+ * state vector using absolute puts, so recording never allocates and the
+ * history does not grow the heap however long the run. The buffer is dumped
+ * as text on demand, and by the controller when validateConstraints fails
+ * 
+ * Slot layout: int step, short floor, byte direction (0 NONE, 1 UP, 2 DOWN),
+ * byte flags, short open door floor (-1 if none), short passengers,
+ * then one short queue length per floor
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class StepHistoryBuffer {
+    /**
+     * Flag set when the car is stopped
+     */
+    public static final int FLAG_STOPPED = 1;
+    
+    /**
+     * Flag set when the car may restart
+     */
+    public static final int FLAG_CAN_RESTART = 2;
+    
+    /**
+     * Flag set when more than one door is open
+     */
+    public static final int FLAG_MULTIPLE_DOORS = 4;
+    
+    private static final int HEADER_BYTES = 4 + 2 + 1 + 1 + 2 + 2;
+    
+    private final int capacity;
+    private final int numberOfFloors;
+    private final int slotBytes;
+    private final ByteBuffer slots;
+    private long recorded;
+    
+    /**
+     * Constructor for StepHistoryBuffer
+     * 
+     * @param capacity number of most recent steps kept
+     * @param numberOfFloors number of floors of the recorded controller
+     */
+    public StepHistoryBuffer(int capacity, int numberOfFloors) {
+        if (capacity < 1 || numberOfFloors < 1) {
+            throw new IllegalArgumentException("Capacity and number of floors must be positive");
+        }
+        this.capacity = capacity;
+        this.numberOfFloors = numberOfFloors;
+        this.slotBytes = HEADER_BYTES + 2 * numberOfFloors;
+        this.slots = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, slotBytes));
+    }
+    
+    /**
+     * Records the state of a controller after a step, replacing the oldest one
+     * 
+     * @param controller the controller to record
+     */
+    public void record(ElevatorController controller) {
+        Elevator elevator = controller.getElevator();
+        SafetyMonitor monitor = controller.getSafetyMonitor();
+        int flags = (elevator.isStopped() ? FLAG_STOPPED : 0)
+            | (elevator.canRestart() ? FLAG_CAN_RESTART : 0)
+            | (monitor.getOpenDoorCount() > 1 ? FLAG_MULTIPLE_DOORS : 0);
+        
+        int offset = (int) (recorded % capacity) * slotBytes;
+        slots.putInt(offset, controller.getCurrentStep());
+        slots.putShort(offset + 4, (short) elevator.getCurrentFloor());
+        slots.put(offset + 6, StepStateExporter.encodeDirection(elevator.getDirection()));
+        slots.put(offset + 7, (byte) flags);
+        slots.putShort(offset + 8, (short) monitor.getOpenDoorFloor());
+        slots.putShort(offset + 10, (short) Math.min(Short.MAX_VALUE, elevator.getUserCount()));
+        int queueOffset = offset + HEADER_BYTES;
+        for (int floor = 0; floor < numberOfFloors; floor++) {
+            slots.putShort(queueOffset + 2 * floor,
+                           (short) Math.min(Short.MAX_VALUE, controller.getWaitingCount(floor)));
+        }
+        recorded++;
+    }
+    
+    /**
+     * Gets the number of steps kept in the buffer
+     * 
+     * @return number of readable entries, at most the capacity
+     */
+    public int size() {
+        return (int) Math.min(recorded, capacity);
+    }
+    
+    /**
+     * Gets the number of steps recorded since the buffer was created
+     * 
+     * @return total recorded steps, including overwritten ones
+     */
+    public long getRecordedCount() {
+        return recorded;
+    }
+    
+    /**
+     * Gets the capacity of the buffer
+     * 
+     * @return number of most recent steps kept
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Gets the step number of a kept entry
+     * 
+     * @param index entry index, 0 being the oldest kept step
+     * @return the step number
+     */
+    public int getStep(int index) {
+        return slots.getInt(slotOffset(index));
+    }
+    
+    /**
+     * Gets the car floor of a kept entry
+     * 
+     * @param index entry index, 0 being the oldest kept step
+     * @return the floor number
+     */
+    public int getFloor(int index) {
+        return slots.getShort(slotOffset(index) + 4);
+    }
+    
+    /**
+     * Gets the flags of a kept entry
+     * 
+     * @param index entry index, 0 being the oldest kept step
+     * @return combination of the FLAG constants
+     */
+    public int getFlags(int index) {
+        return slots.get(slotOffset(index) + 7);
+    }
+    
+    /**
+     * Gets the open door floor of a kept entry
+     * 
+     * @param index entry index, 0 being the oldest kept step
+     * @return floor of the open door, or -1 if all doors were closed
+     */
+    public int getOpenDoorFloor(int index) {
+        return slots.getShort(slotOffset(index) + 8);
+    }
+    
+    /**
+     * Gets the queue length at a floor for a kept entry
+     * 
+     * @param index entry index, 0 being the oldest kept step
+     * @param floor the floor number
+     * @return number of users waiting at that floor
+     */
+    public int getWaitingCount(int index, int floor) {
+        if (floor < 0 || floor >= numberOfFloors) {
+            throw new IndexOutOfBoundsException("Invalid floor: " + floor);
+        }
+        return slots.getShort(slotOffset(index) + HEADER_BYTES + 2 * floor);
+    }
+    
+    /**
+     * Writes the kept steps as text, oldest first, one line per step
+     * 
+     * @param out the writer
+     * @throws IOException if writing fails
+     */
+    public void dump(Writer out) throws IOException {
+        out.write("# step floor direction flags openDoor passengers queues...\n");
+        StringBuilder line = new StringBuilder(64 + 6 * numberOfFloors);
+        for (int index = 0; index < size(); index++) {
+            int offset = slotOffset(index);
+            line.setLength(0);
+            line.append(slots.getInt(offset)).append(' ')
+                .append(slots.getShort(offset + 4)).append(' ')
+                .append(decodeDirection(slots.get(offset + 6))).append(' ')
+                .append(flagsToString(slots.get(offset + 7))).append(' ')
+                .append(slots.getShort(offset + 8)).append(' ')
+                .append(slots.getShort(offset + 10));
+            for (int floor = 0; floor < numberOfFloors; floor++) {
+                line.append(' ').append(slots.getShort(offset + HEADER_BYTES + 2 * floor));
+            }
+            line.append('\n');
+            out.append(line);
+        }
+        out.flush();
+    }
+    
+    /**
+     * Writes the kept steps as text to a file
+     * 
+     * @param path the file to write, replaced if it exists
+     * @throws IOException if writing fails
+     */
+    public void dump(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            dump(out);
+        }
+    }
+    
+    /**
+     * Computes the byte offset of a kept entry
+     * 
+     * @param index entry index, 0 being the oldest kept step
+     * @return offset of the slot in the buffer
+     */
+    private int slotOffset(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Invalid history index: " + index);
+        }
+        long oldest = recorded - size();
+        return (int) ((oldest + index) % capacity) * slotBytes;
+    }
+    
+    /**
+     * Decodes a direction byte
+     * 
+     * @param code the encoded direction
+     * @return the direction name
+     */
+    private static String decodeDirection(byte code) {
+        switch (code) {
+            case 1:
+                return "UP";
+            case 2:
+                return "DOWN";
+            default:
+                return "NONE";
+        }
+    }
+    
+    /**
+     * Formats flags as letters, S stopped, R can restart, M multiple doors
+     * 
+     * @param flags the flags
+     * @return the letters, or "-" if no flag is set
+     */
+    private static String flagsToString(int flags) {
+        if (flags == 0) {
+            return "-";
+        }
+        StringBuilder letters = new StringBuilder(3);
+        if ((flags & FLAG_STOPPED) != 0) {
+            letters.append('S');
+        }
+        if ((flags & FLAG_CAN_RESTART) != 0) {
+            letters.append('R');
+        }
+        if ((flags & FLAG_MULTIPLE_DOORS) != 0) {
+            letters.append('M');
+        }
+        return letters.toString();
+    }
+}
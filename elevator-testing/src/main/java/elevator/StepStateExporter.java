@@ -0,0 +1,282 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streaming exporter of the per-step system state in a columnar binary format
+ * The step thread only copies a few values into column arrays; full blocks are
+ * serialized into pooled direct buffers and written by a background thread
+ * with large FileChannel writes
+ * 
+ * File layout (big-endian):
+ * - header: magic "ELVS", short version, short number of floors
+ * - blocks: int row count followed by the columns of that many rows:
+ *   int step, short floor, byte direction (0 NONE, 1 UP, 2 DOWN),
+ *   byte stopped (0 or 1), short open door floor (-1 if none),
+ *   then one short queue length column per floor
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class StepStateExporter implements Closeable {
+    static final int MAGIC = 0x454C5653; // "ELVS"
+    static final short VERSION = 1;
+    
+    private static final int DEFAULT_BLOCK_ROWS = 8192;
+    private static final int BUFFER_COUNT = 4;
+    
+    private final int numberOfFloors;
+    private final int blockRows;
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> freeBuffers;
+    private final BlockingQueue<ByteBuffer> fullBuffers;
+    private final Thread writer;
+    private final ByteBuffer endOfStream;
+    private volatile IOException writeFailure;
+    private boolean closed;
+    
+    // Column arrays of the block being filled
+    private final int[] steps;
+    private final short[] floors;
+    private final byte[] directions;
+    private final byte[] stopped;
+    private final short[] openDoors;
+    private final short[][] queueLengths;
+    private int rows;
+    private long rowsWritten;
+    
+    /**
+     * Constructor for StepStateExporter
+     * 
+     * @param path the file to write, replaced if it exists
+     * @param numberOfFloors number of floors of the exported controller
+     * @throws IOException if the file cannot be created
+     */
+    public StepStateExporter(Path path, int numberOfFloors) throws IOException {
+        this(path, numberOfFloors, DEFAULT_BLOCK_ROWS);
+    }
+    
+    /**
+     * Constructor for StepStateExporter
+     * 
+     * @param path the file to write, replaced if it exists
+     * @param numberOfFloors number of floors of the exported controller
+     * @param blockRows number of steps per block
+     * @throws IOException if the file cannot be created
+     */
+    public StepStateExporter(Path path, int numberOfFloors, int blockRows) throws IOException {
+        this.numberOfFloors = numberOfFloors;
+        this.blockRows = Math.max(1, blockRows);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        
+        this.steps = new int[this.blockRows];
+        this.floors = new short[this.blockRows];
+        this.directions = new byte[this.blockRows];
+        this.stopped = new byte[this.blockRows];
+        this.openDoors = new short[this.blockRows];
+        this.queueLengths = new short[numberOfFloors][this.blockRows];
+        
+        int blockBytes = 4 + this.blockRows * (4 + 2 + 1 + 1 + 2 + 2 * numberOfFloors);
+        this.freeBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        this.fullBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT + 1);
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            freeBuffers.add(ByteBuffer.allocateDirect(blockBytes));
+        }
+        this.endOfStream = ByteBuffer.allocate(0);
+        
+        ByteBuffer header = ByteBuffer.allocate(8);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) numberOfFloors).flip();
+        writeFully(header);
+        
+        this.writer = new Thread(this::writeLoop, "elevator-state-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Records the state of a controller after a step
+     * Blocks only if the background writer is more than a few blocks behind
+     * 
+     * @param controller the controller to record
+     */
+    public void record(ElevatorController controller) {
+        Elevator elevator = controller.getElevator();
+        int row = rows;
+        steps[row] = controller.getCurrentStep();
+        floors[row] = (short) elevator.getCurrentFloor();
+        directions[row] = encodeDirection(elevator.getDirection());
+        stopped[row] = (byte) (elevator.isStopped() ? 1 : 0);
+        openDoors[row] = (short) controller.getSafetyMonitor().getOpenDoorFloor();
+        for (int floor = 0; floor < numberOfFloors; floor++) {
+            queueLengths[floor][row] = (short) Math.min(Short.MAX_VALUE, controller.getWaitingCount(floor));
+        }
+        rows++;
+        if (rows == blockRows) {
+            flushBlock();
+        }
+    }
+    
+    /**
+     * Gets the number of steps handed to the writer so far
+     * 
+     * @return number of exported rows
+     */
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+    
+    /**
+     * Flushes the partial block, waits for the writer and closes the file
+     * The writer is always stopped and joined before the file is closed, also
+     * when the calling thread is interrupted or the export failed
+     * 
+     * @throws IOException if writing failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rows > 0 && writeFailure == null) {
+                flushBlock();
+            }
+        } finally {
+            // The queue has room for every pooled buffer plus the end of the stream
+            fullBuffers.add(endOfStream);
+            joinWriter();
+            channel.close();
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+    
+    /**
+     * Waits for the writer to finish even if interrupted, then restores the interrupt
+     */
+    private void joinWriter() {
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Serializes the current block column by column and hands it to the writer
+     */
+    private void flushBlock() {
+        if (writeFailure != null) {
+            throw new UncheckedIOException("State export failed", writeFailure);
+        }
+        // Wait for a free buffer even if interrupted, the block would otherwise be
+        // left full and the next record would write past the column arrays
+        ByteBuffer buffer = null;
+        boolean interrupted = false;
+        while (buffer == null) {
+            try {
+                buffer = freeBuffers.take();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        
+        buffer.clear();
+        buffer.putInt(rows);
+        for (int i = 0; i < rows; i++) {
+            buffer.putInt(steps[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            buffer.putShort(floors[i]);
+        }
+        buffer.put(directions, 0, rows);
+        buffer.put(stopped, 0, rows);
+        for (int i = 0; i < rows; i++) {
+            buffer.putShort(openDoors[i]);
+        }
+        for (int floor = 0; floor < numberOfFloors; floor++) {
+            short[] column = queueLengths[floor];
+            for (int i = 0; i < rows; i++) {
+                buffer.putShort(column[i]);
+            }
+        }
+        buffer.flip();
+        
+        rowsWritten += rows;
+        rows = 0;
+        fullBuffers.add(buffer);
+    }
+    
+    /**
+     * Background loop writing full blocks to the file
+     */
+    private void writeLoop() {
+        try {
+            while (true) {
+                ByteBuffer buffer = fullBuffers.take();
+                if (buffer == endOfStream) {
+                    return;
+                }
+                try {
+                    if (writeFailure == null) {
+                        writeFully(buffer);
+                    }
+                } catch (IOException e) {
+                    writeFailure = e;
+                }
+                freeBuffers.add(buffer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Writes a buffer completely to the channel
+     * 
+     * @param buffer the buffer to write
+     * @throws IOException if writing fails
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Encodes a direction as a byte
+     * 
+     * @param direction the direction
+     * @return 0 for NONE, 1 for UP, 2 for DOWN
+     */
+    static byte encodeDirection(Direction direction) {
+        switch (direction) {
+            case UP:
+                return 1;
+            case DOWN:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+}
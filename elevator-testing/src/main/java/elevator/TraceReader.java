@@ -0,0 +1,435 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reader of the delta-encoded traces written by TraceWriter
+ * The reader holds the decoded state at a current step. seek jumps to any
+ * step by inflating only the block whose keyframe precedes it, and next
+ * moves forward one recorded change at a time
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class TraceReader implements Closeable {
+    private final FileChannel channel;
+    private final int numberOfFloors;
+    private final int keyframeInterval;
+    private final int[] indexSteps;
+    private final long[] indexOffsets;
+    private final int lastStep;
+    private final Inflater inflater;
+    private byte[] compressed;
+    private byte[] block;
+    private int blockLength;
+    private int position;
+    private int blockIndex;
+    
+    // Decoded state at the current step, changes are relative to the last decoded record
+    private int step;
+    private int recordStep;
+    private int floor;
+    private Direction direction;
+    private int openDoor;
+    private final boolean[] calls;
+    private final boolean[] destinations;
+    private int boardings;
+    private int alightings;
+    
+    /**
+     * Constructor for TraceReader
+     * Reads the header and the block index; no block is decoded yet
+     * 
+     * @param path the trace file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a complete trace
+     */
+    public TraceReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < TraceWriter.HEADER_BYTES + 4 + TraceWriter.FOOTER_BYTES) {
+                throw new IllegalArgumentException("Trace file is truncated");
+            }
+            ByteBuffer header = read(0, TraceWriter.HEADER_BYTES);
+            if (header.getInt() != TraceWriter.MAGIC || header.getShort() != TraceWriter.VERSION) {
+                throw new IllegalArgumentException("Not a trace file or unsupported version");
+            }
+            this.numberOfFloors = header.getShort();
+            this.keyframeInterval = header.getInt();
+            
+            ByteBuffer footer = read(size - TraceWriter.FOOTER_BYTES, TraceWriter.FOOTER_BYTES);
+            this.lastStep = footer.getInt();
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != TraceWriter.MAGIC) {
+                throw new IllegalArgumentException("Trace file has no index, was it closed?");
+            }
+            ByteBuffer index = read(indexOffset, (int) (size - TraceWriter.FOOTER_BYTES - indexOffset));
+            int count = index.getInt();
+            this.indexSteps = new int[count];
+            this.indexOffsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                indexSteps[i] = index.getInt();
+                indexOffsets[i] = index.getLong();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.inflater = new Inflater();
+        this.compressed = new byte[0];
+        this.block = new byte[0];
+        this.blockIndex = -1;
+        this.step = -1;
+        this.direction = Direction.NONE;
+        this.openDoor = -1;
+        this.calls = new boolean[2 * numberOfFloors];
+        this.destinations = new boolean[numberOfFloors];
+    }
+    
+    /**
+     * Gets the number of floors of the traced controller
+     * 
+     * @return number of floors
+     */
+    public int getNumberOfFloors() {
+        return numberOfFloors;
+    }
+    
+    /**
+     * Gets the number of steps between keyframes
+     * 
+     * @return keyframe interval in steps
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+    
+    /**
+     * Gets the first traced step
+     * 
+     * @return the step, or -1 for an empty trace
+     */
+    public int getFirstStep() {
+        return indexSteps.length == 0 ? -1 : indexSteps[0];
+    }
+    
+    /**
+     * Gets the last traced step
+     * 
+     * @return the step, or -1 for an empty trace
+     */
+    public int getLastStep() {
+        return indexSteps.length == 0 ? -1 : lastStep;
+    }
+    
+    /**
+     * Gets the number of blocks of the trace
+     * 
+     * @return number of keyframe blocks
+     */
+    public int getBlockCount() {
+        return indexSteps.length;
+    }
+    
+    /**
+     * Moves to the state at a step
+     * Only the block of the closest preceding keyframe is decoded
+     * 
+     * @param target the step
+     * @return false if the step is outside the trace
+     * @throws IOException if the file cannot be read
+     */
+    public boolean seek(int target) throws IOException {
+        if (indexSteps.length == 0 || target < indexSteps[0] || target > lastStep) {
+            return false;
+        }
+        int found = Arrays.binarySearch(indexSteps, target);
+        int blockToLoad = found >= 0 ? found : -found - 2;
+        if (blockToLoad != blockIndex || target < recordStep) {
+            loadBlock(blockToLoad);
+        }
+        while (position < blockLength && peekStep() <= target) {
+            readChange();
+        }
+        if (recordStep != target) {
+            // No change at the target step itself
+            boardings = 0;
+            alightings = 0;
+        }
+        step = target;
+        return true;
+    }
+    
+    /**
+     * Moves to the next recorded change, crossing into the next block if needed
+     * Before the first call the reader is positioned before the trace
+     * 
+     * @return false at the end of the trace
+     * @throws IOException if the file cannot be read
+     */
+    public boolean next() throws IOException {
+        if (blockIndex >= 0 && position < blockLength) {
+            readChange();
+            return true;
+        }
+        if (blockIndex + 1 < indexSteps.length) {
+            loadBlock(blockIndex + 1);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Gets the current step
+     * 
+     * @return the step, or -1 before the trace
+     */
+    public int getStep() {
+        return step;
+    }
+    
+    /**
+     * Gets the car floor at the current step
+     * 
+     * @return floor number
+     */
+    public int getFloor() {
+        return floor;
+    }
+    
+    /**
+     * Gets the car direction at the current step
+     * 
+     * @return the direction
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+    
+    /**
+     * Gets the open door at the current step
+     * 
+     * @return floor of the open door, or -1 if all doors are closed
+     */
+    public int getOpenDoorFloor() {
+        return openDoor;
+    }
+    
+    /**
+     * Checks if a hall call is pending at the current step
+     * 
+     * @param callFloor the floor of the call
+     * @param callDirection the direction of the call
+     * @return true if the call is pending
+     */
+    public boolean hasCall(int callFloor, Direction callDirection) {
+        if (callFloor < 0 || callFloor >= numberOfFloors || callDirection == Direction.NONE) {
+            return false;
+        }
+        return calls[callDirection == Direction.UP ? 2 * callFloor : 2 * callFloor + 1];
+    }
+    
+    /**
+     * Checks if a car call is pending at the current step
+     * 
+     * @param destinationFloor the floor
+     * @return true if the floor is a destination
+     */
+    public boolean hasDestination(int destinationFloor) {
+        return destinationFloor >= 0 && destinationFloor < numberOfFloors && destinations[destinationFloor];
+    }
+    
+    /**
+     * Gets the boardings of the last decoded change or keyframe
+     * 
+     * @return number of passengers who boarded at that step
+     */
+    public int getBoardings() {
+        return boardings;
+    }
+    
+    /**
+     * Gets the alightings of the last decoded change or keyframe
+     * 
+     * @return number of passengers who alighted at that step
+     */
+    public int getAlightings() {
+        return alightings;
+    }
+    
+    /**
+     * Closes the trace file
+     * 
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+    
+    /**
+     * Inflates a block and applies its keyframe
+     * 
+     * @param index the block index
+     * @throws IOException if the file cannot be read
+     */
+    private void loadBlock(int index) throws IOException {
+        ByteBuffer header = read(indexOffsets[index], 8);
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        if (compressed.length < compressedLength) {
+            compressed = new byte[compressedLength];
+        }
+        if (block.length < rawLength) {
+            block = new byte[rawLength];
+        }
+        ByteBuffer data = ByteBuffer.wrap(compressed, 0, compressedLength);
+        long offset = indexOffsets[index] + 8;
+        while (data.hasRemaining()) {
+            if (channel.read(data, offset + data.position()) < 0) {
+                throw new IllegalArgumentException("Trace file is truncated");
+            }
+        }
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                inflated += inflater.inflate(block, inflated, rawLength - inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted trace block " + index, e);
+        }
+        blockIndex = index;
+        blockLength = rawLength;
+        position = 0;
+        
+        recordStep = (int) readVarint();
+        step = recordStep;
+        floor = (int) readVarint();
+        direction = decodeDirection(block[position++]);
+        openDoor = (int) readVarint() - 1;
+        Arrays.fill(calls, false);
+        readBits(calls);
+        Arrays.fill(destinations, false);
+        readBits(destinations);
+        boardings = (int) readVarint();
+        alightings = (int) readVarint();
+    }
+    
+    /**
+     * Decodes the change at the current position
+     */
+    private void readChange() {
+        recordStep += (int) readVarint();
+        step = recordStep;
+        int mask = block[position++];
+        if ((mask & TraceWriter.CHANGED_FLOOR) != 0) {
+            long encoded = readVarint();
+            floor += (int) (encoded >>> 1) ^ -(int) (encoded & 1);
+        }
+        if ((mask & TraceWriter.CHANGED_DIRECTION) != 0) {
+            direction = decodeDirection(block[position++]);
+        }
+        if ((mask & TraceWriter.CHANGED_DOOR) != 0) {
+            openDoor = (int) readVarint() - 1;
+        }
+        if ((mask & TraceWriter.CHANGED_CALLS) != 0) {
+            readBits(calls);
+        }
+        if ((mask & TraceWriter.CHANGED_DESTINATIONS) != 0) {
+            readBits(destinations);
+        }
+        boardings = (mask & TraceWriter.BOARDINGS) != 0 ? (int) readVarint() : 0;
+        alightings = (mask & TraceWriter.ALIGHTINGS) != 0 ? (int) readVarint() : 0;
+    }
+    
+    /**
+     * Reads the step of the change at the current position without consuming it
+     * 
+     * @return the step of the next change
+     */
+    private int peekStep() {
+        int saved = position;
+        int next = recordStep + (int) readVarint();
+        position = saved;
+        return next;
+    }
+    
+    /**
+     * Toggles the bits listed at the current position
+     * 
+     * @param bits the bit set to update
+     */
+    private void readBits(boolean[] bits) {
+        int count = (int) readVarint();
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            index += (int) readVarint();
+            bits[index] = !bits[index];
+        }
+    }
+    
+    /**
+     * Reads an unsigned variable-length integer at the current position
+     * 
+     * @return the value
+     */
+    private long readVarint() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = block[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+    
+    /**
+     * Reads a region of the file
+     * 
+     * @param offset the file offset
+     * @param length number of bytes
+     * @return a buffer positioned at the start of the region
+     * @throws IOException if the file cannot be read
+     */
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IllegalArgumentException("Trace file is truncated");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+    
+    /**
+     * Decodes a direction byte
+     * 
+     * @param code the encoded direction
+     * @return the direction
+     */
+    private static Direction decodeDirection(byte code) {
+        switch (code) {
+            case 1:
+                return Direction.UP;
+            case 2:
+                return Direction.DOWN;
+            default:
+                return Direction.NONE;
+        }
+    }
+}
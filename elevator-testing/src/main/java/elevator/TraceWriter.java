@@ -0,0 +1,466 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writer of the compact delta-encoded trace of a simulation
+ * Only the changes between steps are stored: floor deltas, direction changes,
+ * door toggles, hall call and car call set diffs and passenger events, packed
+ * as variable-length integers. Steps without any change cost nothing.
+ * Records are grouped in deflated blocks that start with a keyframe holding
+ * the full state, and an index of the keyframes at the end of the file lets
+ * TraceReader seek to any step by decoding a single block
+ * 
+ * File layout (big-endian):
+ * - header: magic "ELVT", short version, short number of floors, int keyframe interval
+ * - blocks: int raw length, int compressed length, deflated records
+ * - index: int block count, then int first step and long file offset per block
+ * - footer: int last step, long index offset, magic "ELVT"
+ * 
+ * Records inside a block (all numbers are unsigned varints unless noted):
+ * - keyframe: step, floor, direction byte, open door + 1, hall calls and
+ *   car calls as lists of set bits, boardings and alightings of that step
+ * - change: step delta, change mask byte, then for each bit of the mask:
+ *   zigzag floor delta, direction byte, open door + 1, hall call toggles,
+ *   car call toggles, boardings, alightings
+ * 
+ * Hall call bits are 2 * floor for UP and 2 * floor + 1 for DOWN, a list of
+ * bits is a count followed by the gaps between ascending bit indexes
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class TraceWriter implements Closeable {
+    static final int MAGIC = 0x454C5654; // "ELVT"
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 12;
+    static final int FOOTER_BYTES = 16;
+    
+    static final int CHANGED_FLOOR = 1;
+    static final int CHANGED_DIRECTION = 2;
+    static final int CHANGED_DOOR = 4;
+    static final int CHANGED_CALLS = 8;
+    static final int CHANGED_DESTINATIONS = 16;
+    static final int BOARDINGS = 32;
+    static final int ALIGHTINGS = 64;
+    
+    private static final int DEFAULT_KEYFRAME_INTERVAL = 4096;
+    
+    private final FileChannel channel;
+    private final int numberOfFloors;
+    private final int keyframeInterval;
+    private final Deflater deflater;
+    private byte[] block;
+    private int blockLength;
+    private byte[] compressed;
+    private long fileOffset;
+    private int[] indexSteps;
+    private long[] indexOffsets;
+    private int blockCount;
+    private boolean closed;
+    
+    // State as of the last record
+    private boolean started;
+    private int blockStartStep;
+    private int lastStep;
+    private int lastRecordedStep;
+    private int floor;
+    private byte direction;
+    private int openDoor;
+    private final boolean[] calls;
+    private final boolean[] destinations;
+    private long boardings;
+    private long alightings;
+    private final int[] callToggles;
+    private final int[] destinationToggles;
+    private long stepsRecorded;
+    
+    /**
+     * Constructor for TraceWriter
+     * 
+     * @param path the file to write, replaced if it exists
+     * @param numberOfFloors number of floors of the traced controller
+     * @throws IOException if the file cannot be created
+     */
+    public TraceWriter(Path path, int numberOfFloors) throws IOException {
+        this(path, numberOfFloors, DEFAULT_KEYFRAME_INTERVAL);
+    }
+    
+    /**
+     * Constructor for TraceWriter
+     * 
+     * @param path the file to write, replaced if it exists
+     * @param numberOfFloors number of floors of the traced controller
+     * @param keyframeInterval number of steps between keyframes
+     * @throws IOException if the file cannot be created
+     */
+    public TraceWriter(Path path, int numberOfFloors, int keyframeInterval) throws IOException {
+        if (numberOfFloors < 1 || numberOfFloors > Short.MAX_VALUE || keyframeInterval < 1) {
+            throw new IllegalArgumentException("Invalid number of floors or keyframe interval");
+        }
+        this.numberOfFloors = numberOfFloors;
+        this.keyframeInterval = keyframeInterval;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        this.deflater = new Deflater(Deflater.BEST_SPEED);
+        this.block = new byte[8192];
+        this.compressed = new byte[8192];
+        this.indexSteps = new int[64];
+        this.indexOffsets = new long[64];
+        this.calls = new boolean[2 * numberOfFloors];
+        this.destinations = new boolean[numberOfFloors];
+        this.callToggles = new int[2 * numberOfFloors];
+        this.destinationToggles = new int[numberOfFloors];
+        
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) numberOfFloors).putInt(keyframeInterval).flip();
+        writeFully(header);
+        fileOffset = HEADER_BYTES;
+    }
+    
+    /**
+     * Takes the passenger counts of a controller as the baseline of the first record
+     * Called when the writer is attached, so the first keyframe only counts the
+     * passengers of its own step
+     * 
+     * @param controller the controller being traced
+     */
+    void attach(ElevatorController controller) {
+        if (!started) {
+            boardings = controller.getElevator().getMetrics().getBoardings();
+            alightings = controller.getElevator().getMetrics().getAlightings();
+        }
+    }
+    
+    /**
+     * Records the state of a controller after a step
+     * Steps must be recorded in increasing order; unchanged steps add no bytes.
+     * A controller reset starts its steps over and detaches its writer, so a
+     * reset run needs a new writer
+     * 
+     * @param controller the controller to record
+     * @throws IllegalStateException if the step does not increase
+     * @throws UncheckedIOException if a finished block cannot be written
+     */
+    public void record(ElevatorController controller) {
+        Elevator elevator = controller.getElevator();
+        int step = controller.getCurrentStep();
+        stepsRecorded++;
+        if (started && step <= lastRecordedStep) {
+            throw new IllegalStateException("Steps must increase: " + step + " after " + lastRecordedStep
+                                            + ", a trace covers a single run");
+        }
+        lastRecordedStep = step;
+        
+        int newFloor = elevator.getCurrentFloor();
+        byte newDirection = StepStateExporter.encodeDirection(elevator.getDirection());
+        int newOpenDoor = controller.getSafetyMonitor().getOpenDoorFloor();
+        long newBoardings = elevator.getMetrics().getBoardings();
+        long newAlightings = elevator.getMetrics().getAlightings();
+        int callToggleCount = diffCalls(elevator);
+        int destinationToggleCount = diffDestinations(elevator);
+        
+        if (!started || step - blockStartStep >= keyframeInterval) {
+            if (started) {
+                try {
+                    flushBlock();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Trace recording failed", e);
+                }
+            }
+            started = true;
+            blockStartStep = step;
+            floor = newFloor;
+            direction = newDirection;
+            openDoor = newOpenDoor;
+            lastStep = step;
+            writeKeyframe(step, newBoardings - boardings, newAlightings - alightings);
+            boardings = newBoardings;
+            alightings = newAlightings;
+            return;
+        }
+        
+        int mask = 0;
+        if (newFloor != floor) {
+            mask |= CHANGED_FLOOR;
+        }
+        if (newDirection != direction) {
+            mask |= CHANGED_DIRECTION;
+        }
+        if (newOpenDoor != openDoor) {
+            mask |= CHANGED_DOOR;
+        }
+        if (callToggleCount > 0) {
+            mask |= CHANGED_CALLS;
+        }
+        if (destinationToggleCount > 0) {
+            mask |= CHANGED_DESTINATIONS;
+        }
+        if (newBoardings != boardings) {
+            mask |= BOARDINGS;
+        }
+        if (newAlightings != alightings) {
+            mask |= ALIGHTINGS;
+        }
+        if (mask == 0) {
+            return;
+        }
+        
+        writeVarint(step - lastStep);
+        writeByte(mask);
+        if ((mask & CHANGED_FLOOR) != 0) {
+            writeVarint(zigzag(newFloor - floor));
+        }
+        if ((mask & CHANGED_DIRECTION) != 0) {
+            writeByte(newDirection);
+        }
+        if ((mask & CHANGED_DOOR) != 0) {
+            writeVarint(newOpenDoor + 1);
+        }
+        if ((mask & CHANGED_CALLS) != 0) {
+            writeBits(callToggles, callToggleCount);
+        }
+        if ((mask & CHANGED_DESTINATIONS) != 0) {
+            writeBits(destinationToggles, destinationToggleCount);
+        }
+        if ((mask & BOARDINGS) != 0) {
+            writeVarint(newBoardings - boardings);
+        }
+        if ((mask & ALIGHTINGS) != 0) {
+            writeVarint(newAlightings - alightings);
+        }
+        lastStep = step;
+        floor = newFloor;
+        direction = newDirection;
+        openDoor = newOpenDoor;
+        boardings = newBoardings;
+        alightings = newAlightings;
+    }
+    
+    /**
+     * Gets the number of steps recorded
+     * 
+     * @return recorded steps, including steps without changes
+     */
+    public long getStepsRecorded() {
+        return stepsRecorded;
+    }
+    
+    /**
+     * Gets the number of bytes written to the file so far
+     * Records of the block being filled are not counted until it is flushed
+     * 
+     * @return file size in bytes
+     */
+    public long getBytesWritten() {
+        return fileOffset;
+    }
+    
+    /**
+     * Flushes the last block, writes the index and closes the file
+     * 
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (started) {
+                flushBlock();
+            }
+            long indexOffset = fileOffset;
+            ByteBuffer index = ByteBuffer.allocate(4 + blockCount * 12 + FOOTER_BYTES);
+            index.putInt(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                index.putInt(indexSteps[i]).putLong(indexOffsets[i]);
+            }
+            index.putInt(lastRecordedStep).putLong(indexOffset).putInt(MAGIC).flip();
+            writeFully(index);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+    
+    /**
+     * Compares the hall calls with the last record and collects the toggled bits
+     * 
+     * @param elevator the elevator
+     * @return number of toggled bits
+     */
+    private int diffCalls(Elevator elevator) {
+        int count = 0;
+        for (int f = 0; f < numberOfFloors; f++) {
+            boolean up = elevator.hasCallAtFloor(f, Direction.UP);
+            if (up != calls[2 * f]) {
+                calls[2 * f] = up;
+                callToggles[count++] = 2 * f;
+            }
+            boolean down = elevator.hasCallAtFloor(f, Direction.DOWN);
+            if (down != calls[2 * f + 1]) {
+                calls[2 * f + 1] = down;
+                callToggles[count++] = 2 * f + 1;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Compares the car calls with the last record and collects the toggled floors
+     * 
+     * @param elevator the elevator
+     * @return number of toggled floors
+     */
+    private int diffDestinations(Elevator elevator) {
+        int count = 0;
+        for (int f = 0; f < numberOfFloors; f++) {
+            boolean destination = elevator.hasDestination(f);
+            if (destination != destinations[f]) {
+                destinations[f] = destination;
+                destinationToggles[count++] = f;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Starts a block with the full current state
+     * 
+     * @param step the step of the keyframe
+     * @param stepBoardings passengers who boarded at that step
+     * @param stepAlightings passengers who alighted at that step
+     */
+    private void writeKeyframe(int step, long stepBoardings, long stepAlightings) {
+        writeVarint(step);
+        writeVarint(floor);
+        writeByte(direction);
+        writeVarint(openDoor + 1);
+        writeBits(callToggles, collectSet(calls, callToggles));
+        writeBits(destinationToggles, collectSet(destinations, destinationToggles));
+        writeVarint(stepBoardings);
+        writeVarint(stepAlightings);
+    }
+    
+    /**
+     * Collects the indexes of the set entries of a bit set
+     * 
+     * @param bits the bit set
+     * @param out the array receiving the indexes
+     * @return number of set entries
+     */
+    private static int collectSet(boolean[] bits, int[] out) {
+        int count = 0;
+        for (int i = 0; i < bits.length; i++) {
+            if (bits[i]) {
+                out[count++] = i;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Writes ascending bit indexes as a count followed by gaps
+     * 
+     * @param indexes the ascending indexes
+     * @param count number of indexes
+     */
+    private void writeBits(int[] indexes, int count) {
+        writeVarint(count);
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarint(indexes[i] - previous);
+            previous = indexes[i];
+        }
+    }
+    
+    /**
+     * Deflates the current block and writes it to the file
+     * 
+     * @throws IOException if writing fails
+     */
+    private void flushBlock() throws IOException {
+        deflater.reset();
+        deflater.setInput(block, 0, blockLength);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        
+        if (blockCount == indexSteps.length) {
+            indexSteps = Arrays.copyOf(indexSteps, blockCount * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, blockCount * 2);
+        }
+        indexSteps[blockCount] = blockStartStep;
+        indexOffsets[blockCount] = fileOffset;
+        blockCount++;
+        
+        ByteBuffer header = ByteBuffer.allocate(8);
+        header.putInt(blockLength).putInt(compressedLength).flip();
+        writeFully(header);
+        writeFully(ByteBuffer.wrap(compressed, 0, compressedLength));
+        fileOffset += 8 + compressedLength;
+        blockLength = 0;
+    }
+    
+    /**
+     * Appends an unsigned variable-length integer to the block
+     * 
+     * @param value the value, must not be negative
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+    
+    /**
+     * Appends a byte to the block
+     * 
+     * @param value the byte
+     */
+    private void writeByte(int value) {
+        if (blockLength == block.length) {
+            block = Arrays.copyOf(block, block.length * 2);
+        }
+        block[blockLength++] = (byte) value;
+    }
+    
+    /**
+     * Maps a signed value to an unsigned one with small magnitudes kept small
+     * 
+     * @param value the signed value
+     * @return the zigzag encoded value
+     */
+    static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+    
+    /**
+     * Writes a buffer completely to the channel
+     * 
+     * @param buffer the buffer to write
+     * @throws IOException if writing fails
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
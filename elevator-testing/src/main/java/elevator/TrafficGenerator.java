@@ -0,0 +1,106 @@
+package elevator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates random passenger arrivals for a traffic profile
+ * Arrivals per step follow a Poisson distribution with the configured rate,
+ * and the lobby is floor 0
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class TrafficGenerator {
+    private final TrafficProfile profile;
+    private final int numberOfFloors;
+    private final double arrivalsPerStep;
+    private final double distractedProbability;
+    private final SplittableRandom random;
+    private long arrivalsGenerated;
+    
+    /**
+     * Constructor for TrafficGenerator
+     * 
+     * @param profile the traffic pattern
+     * @param numberOfFloors number of floors of the building
+     * @param arrivalsPerStep mean number of passengers arriving per step
+     * @param distractedProbability probability that a passenger is distracted
+     * @param random the run's random hierarchy, the "traffic" subsystem is used
+     */
+    public TrafficGenerator(TrafficProfile profile, int numberOfFloors, double arrivalsPerStep,
+                            double distractedProbability, SimulationRandom random) {
+        if (numberOfFloors < 2) {
+            throw new IllegalArgumentException("A building needs at least 2 floors");
+        }
+        if (arrivalsPerStep < 0.0 || distractedProbability < 0.0 || distractedProbability > 1.0) {
+            throw new IllegalArgumentException("Invalid arrival rate or distracted probability");
+        }
+        this.profile = profile;
+        this.numberOfFloors = numberOfFloors;
+        this.arrivalsPerStep = arrivalsPerStep;
+        this.distractedProbability = distractedProbability;
+        this.random = random.subsystem("traffic").newGenerator();
+    }
+    
+    /**
+     * Gets the number of passengers generated so far
+     * 
+     * @return number of arrivals
+     */
+    public long getArrivalsGenerated() {
+        return arrivalsGenerated;
+    }
+    
+    /**
+     * Adds the passengers arriving during the next step to the target
+     * 
+     * @param target the controller or group to feed
+     * @return number of passengers added
+     */
+    public int feed(ArrivalTarget target) {
+        int arrivals = nextArrivalCount();
+        for (int i = 0; i < arrivals; i++) {
+            TrafficProfile trip = profile;
+            if (trip == TrafficProfile.MIXED) {
+                trip = TrafficProfile.values()[random.nextInt(3)];
+            }
+            
+            int origin;
+            int destination;
+            if (trip == TrafficProfile.UP_PEAK) {
+                origin = 0;
+                destination = 1 + random.nextInt(numberOfFloors - 1);
+            } else if (trip == TrafficProfile.DOWN_PEAK) {
+                origin = 1 + random.nextInt(numberOfFloors - 1);
+                destination = 0;
+            } else {
+                origin = random.nextInt(numberOfFloors);
+                destination = random.nextInt(numberOfFloors - 1);
+                if (destination >= origin) {
+                    destination++;
+                }
+            }
+            
+            boolean distracted = random.nextDouble() < distractedProbability;
+            target.addArrival(origin, destination, distracted);
+        }
+        arrivalsGenerated += arrivals;
+        return arrivals;
+    }
+    
+    /**
+     * Draws the number of arrivals of one step from a Poisson distribution
+     * 
+     * @return number of arrivals
+     */
+    private int nextArrivalCount() {
+        double limit = Math.exp(-arrivalsPerStep);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            count++;
+            product *= random.nextDouble();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,51 @@
+package elevator;
+
+import java.util.Locale;
+
+/**
+ * Enum representing the passenger traffic patterns of generated workloads
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public enum TrafficProfile {
+    /**
+     * Morning rush - passengers arrive at the lobby and travel up
+     */
+    UP_PEAK,
+    
+    /**
+     * Evening rush - passengers travel from upper floors down to the lobby
+     */
+    DOWN_PEAK,
+    
+    /**
+     * Passengers travel between random floors
+     */
+    INTERFLOOR,
+    
+    /**
+     * Equal mix of up-peak, down-peak and interfloor trips
+     */
+    MIXED;
+    
+    /**
+     * Parses a profile name such as "up-peak" or "INTERFLOOR"
+     * 
+     * @param name the profile name
+     * @return the matching profile
+     * @throws IllegalArgumentException if no profile has that name
+     */
+    public static TrafficProfile fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+    
+    /**
+     * Gets the command-line name of the profile
+     * 
+     * @return lower case name with dashes, for example "up-peak"
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -1,7 +1,5 @@
 package elevator;
 
-import java.util.Random;
-
 /**
  * Represents a user in the elevator system
  * Manages user behavior including calling elevator, entering, and exiting
@@ -18,7 +16,11 @@ public class User {
     private boolean hasCalledElevator;
     private int travelDistance;
     private int startFloor;
-    private Random random;
+    private long randomSeed;
+    private int randomDraws;
+    private boolean entryDelayEnabled;
+    private long entryDelayMillis;
+    private CallPriority priority;
     
     /**
      * Constructor for User
@@ -28,6 +30,18 @@ public class User {
      * @param direction the direction the user wants to travel (UP or DOWN)
      */
     public User(int currentFloor, int destination, Direction direction) {
+        this(currentFloor, destination, direction, SimulationRandom.unseeded().getSeed());
+    }
+    
+    /**
+     * Constructor for User with a reproducible random seed
+     * 
+     * @param currentFloor the floor where the user is currently located
+     * @param destination the floor where the user wants to go
+     * @param direction the direction the user wants to travel (UP or DOWN)
+     * @param randomSeed seed of the user's random draws, see SimulationRandom
+     */
+    public User(int currentFloor, int destination, Direction direction, long randomSeed) {
         this.currentFloor = currentFloor;
         this.startFloor = currentFloor;
         this.destination = destination;
@@ -36,7 +50,10 @@ public class User {
         this.isDistracted = false;
         this.hasCalledElevator = false;
         this.travelDistance = 0;
-        this.random = new Random();
+        this.randomSeed = randomSeed;
+        this.randomDraws = 0;
+        this.entryDelayEnabled = true;
+        this.priority = CallPriority.NORMAL;
     }
     
     /**
@@ -84,6 +101,24 @@ public class User {
         return isInElevator;
     }
     
+    /**
+     * Sets the service class of the user's hall call
+     * 
+     * @param priority the service class
+     */
+    public void setPriority(CallPriority priority) {
+        this.priority = priority;
+    }
+    
+    /**
+     * Gets the service class of the user's hall call
+     * 
+     * @return the service class
+     */
+    public CallPriority getPriority() {
+        return priority;
+    }
+    
     /**
      * Sets whether the user is distracted
      * A distracted user may not enter the elevator when the door opens
@@ -120,7 +155,7 @@ public class User {
      */
     public void callElevator(Elevator elevator) {
         if (!hasCalledElevator && !shouldWaitForOppositeCall(elevator)) {
-            elevator.addCall(currentFloor, direction);
+            elevator.addCall(currentFloor, direction, priority);
             hasCalledElevator = true;
             System.out.println("User at floor " + currentFloor + " called elevator going " + direction);
         }
@@ -180,14 +215,59 @@ public class User {
         return false;
     }
     
+    /**
+     * Enables or disables the wall-clock entry delay
+     * Step-driven simulations disable it so boarding does not sleep
+     * 
+     * @param enabled true to sleep while the user enters
+     */
+    public void setEntryDelayEnabled(boolean enabled) {
+        this.entryDelayEnabled = enabled;
+    }
+    
+    /**
+     * Gets the total entry delay the user has simulated
+     * 
+     * @return the summed entry delays in milliseconds
+     */
+    public long getEntryDelayMillis() {
+        return entryDelayMillis;
+    }
+    
+    /**
+     * Enters the elevator as part of a group boarding through an open door
+     * The controller accounts the boarding time of the whole group, so no
+     * individual entry delay is simulated
+     * 
+     * @param elevator the elevator to enter
+     * @return true if user entered, false if distracted
+     */
+    public boolean enterWithGroup(Elevator elevator) {
+        if (isInElevator || !elevator.isStopped()) {
+            return false;
+        }
+        if (isDistracted) {
+            System.out.println("User at floor " + currentFloor + " is distracted and doesn't enter");
+            return false;
+        }
+        isInElevator = true;
+        elevator.addUser(this);
+        System.out.println("User entered elevator at floor " + currentFloor);
+        return true;
+    }
+    
     /**
      * Simulates the time it takes for a user to enter the elevator
      * This includes decision making and physical entry time
      */
     private void simulateEntryDelay() {
+        if (!entryDelayEnabled) {
+            return;
+        }
         try {
             // Random delay between 100ms and 500ms
-            int delay = 100 + random.nextInt(400);
+            int delay = 100 + SimulationRandom.draw(randomSeed, randomDraws++, 400);
+            entryDelayMillis += delay;
             Thread.sleep(delay);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -0,0 +1,104 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for priority calls and sweep preemption
+ * Tests the direction logic with priority calls and the per-class wait indicators
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class CallPriorityTest {
+    
+    /**
+     * Moves a car until it stops, then lets it restart as if its door closed
+     * 
+     * @param elevator the car
+     * @return the floor where the car stopped
+     */
+    private int runToNextStop(Elevator elevator) {
+        elevator.chooseDirection();
+        for (int i = 0; i < 20 && elevator.canRestart(); i++) {
+            elevator.move();
+        }
+        int floor = elevator.getCurrentFloor();
+        elevator.doorClosed(floor);
+        return floor;
+    }
+    
+    /**
+     * Test Case 82: Priority calls preempt the sweep within the preemption bound
+     * Expected: The car turns back for a priority call, serves it whatever its direction,
+     * and only emergency calls preempt once the bound is reached
+     */
+    @Test
+    public void testPreemptionIsBounded() {
+        Elevator elevator = new Elevator(0, 9);
+        elevator.setMaxConsecutivePreemptions(1);
+        elevator.setCurrentFloor(5);
+        elevator.setDirection(Direction.DOWN);
+        elevator.addDestination(1);
+        
+        // A VIP above the car takes it off its downward sweep
+        elevator.addCall(8, Direction.UP, CallPriority.VIP);
+        assertEquals(CallPriority.VIP, elevator.getCallPriority(8, Direction.UP));
+        assertEquals(Direction.UP, elevator.chooseDirection());
+        assertEquals(8, runToNextStop(elevator));
+        assertNull(elevator.getCallPriority(8, Direction.UP), "Priority call should be served");
+        
+        // The bound is reached: another VIP waits for the normal sweep
+        elevator.addDestination(9);
+        elevator.addCall(3, Direction.UP, CallPriority.VIP);
+        assertEquals(Direction.UP, elevator.chooseDirection(), "Normal sweep should get its stop");
+        
+        // Emergencies are never bounded
+        elevator.addCall(3, Direction.UP, CallPriority.EMERGENCY);
+        assertEquals(CallPriority.EMERGENCY, elevator.getCallPriority(3, Direction.UP));
+        assertEquals(Direction.DOWN, elevator.chooseDirection());
+        assertEquals(3, runToNextStop(elevator));
+        
+        // Once the normal sweep served a stop, priority calls preempt again
+        assertEquals(1, runToNextStop(elevator));
+        elevator.addCall(6, Direction.DOWN, CallPriority.ACCESSIBILITY);
+        assertEquals(Direction.UP, elevator.chooseDirection());
+        assertEquals(6, runToNextStop(elevator), "Call against the car's direction should still stop it");
+        assertTrue(elevator.hasDestination(9), "Normal destination should still be pending");
+    }
+    
+    /**
+     * Test Case 83: Emergency passengers meet their target under full load
+     * Expected: Emergency waits are recorded per class and stay well below normal waits
+     */
+    @Test
+    public void testPriorityWaitsUnderLoad() {
+        ElevatorController controller = new ElevatorController(12);
+        SimulationRandom random = new SimulationRandom(11L);
+        controller.setRandom(random);
+        controller.setDoorOpenSteps(2);
+        TrafficGenerator traffic = new TrafficGenerator(TrafficProfile.MIXED, 12, 0.15, 0.0, random);
+        
+        int emergencies = 0;
+        for (int step = 0; step < 6000; step++) {
+            traffic.feed(controller);
+            if (step % 300 == 150) {
+                int origin = (step / 300 * 7) % 12;
+                controller.addArrival(origin, origin == 0 ? 11 : 0, false, CallPriority.EMERGENCY);
+                emergencies++;
+            }
+            controller.step();
+        }
+        
+        ControllerMetrics metrics = controller.getMetrics();
+        Histogram emergencyWaits = metrics.getWaitHistogram(CallPriority.EMERGENCY);
+        Histogram normalWaits = metrics.getWaitHistogram(CallPriority.NORMAL);
+        assertEquals(emergencies, emergencyWaits.getCount(), "Every emergency passenger should board");
+        assertTrue(normalWaits.getCount() > 500, "Building should be under load");
+        assertEquals(0, metrics.getMissedWaitTargets(CallPriority.EMERGENCY),
+                     "Emergency target missed, p95 " + emergencyWaits.getPercentile(95.0));
+        assertTrue(emergencyWaits.getPercentile(95.0) < normalWaits.getPercentile(95.0),
+                   "Emergencies should wait less than normal passengers");
+        assertTrue(metrics.getP95WaitStepsByPriority().containsKey("EMERGENCY"));
+    }
+}
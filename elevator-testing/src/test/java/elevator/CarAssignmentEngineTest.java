@@ -0,0 +1,164 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the multi-car assignment engine and the elevator group
+ * Tests the cost model, the annealing search, the time budget fallback and
+ * a complete group run
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class CarAssignmentEngineTest {
+    
+    /**
+     * Test Case 96: A single call goes to the car that reaches it first
+     * Expected: The idle car next to the call is chosen over a busy or distant one
+     */
+    @Test
+    public void testSingleCallGoesToNearestCar() {
+        CarAssignmentEngine engine = new CarAssignmentEngine(ForkJoinPool.commonPool());
+        CarAssignmentEngine.CarState far = new CarAssignmentEngine.CarState(12, 0, Direction.NONE, 3);
+        CarAssignmentEngine.CarState near = new CarAssignmentEngine.CarState(12, 7, Direction.NONE, 3);
+        CarAssignmentEngine.CarState leaving = new CarAssignmentEngine.CarState(12, 9, Direction.UP, 3);
+        leaving.addDestination(11);
+        CarAssignmentEngine.CarState[] cars = {far, near, leaving};
+        
+        int[] assignment = engine.assign(cars, new int[] {8}, new int[] {2});
+        assertArrayEquals(new int[] {1}, assignment);
+        assertTrue(engine.cost(cars, new int[] {8}, new int[] {2}, new int[] {0})
+                   > engine.cost(cars, new int[] {8}, new int[] {2}, new int[] {1}));
+        assertEquals(1, engine.getDecisions());
+        assertEquals(0, engine.getSearches(), "One call needs no search");
+    }
+    
+    /**
+     * Test Case 97: The annealing search never does worse than greedy and
+     * falls back to greedy without a time budget
+     * Expected: The searched cost is at most the greedy cost, a zero budget
+     * counts a fallback without starting any chain, and an exhausted budget
+     * truncates the search
+     */
+    @Test
+    public void testSearchImprovesOnGreedyWithinBudget() {
+        int floors = 20;
+        CarAssignmentEngine.CarState[] cars = new CarAssignmentEngine.CarState[4];
+        for (int car = 0; car < cars.length; car++) {
+            Direction direction = car % 2 == 0 ? Direction.UP : Direction.DOWN;
+            cars[car] = new CarAssignmentEngine.CarState(floors, car * 5, direction, 3);
+            cars[car].addDestination(car % 2 == 0 ? floors - 1 - car : car);
+            cars[car].addCall(10 + car, Direction.DOWN);
+        }
+        int[] origins = {3, 17, 8, 12, 0, 19, 5, 14};
+        int[] destinations = {15, 2, 19, 1, 9, 4, 11, 6};
+        
+        CarAssignmentEngine greedyOnly = new CarAssignmentEngine(ForkJoinPool.commonPool());
+        assertEquals(CarAssignmentEngine.DEFAULT_BUDGET_NANOS, greedyOnly.getTimeBudget());
+        assertTrue(CarAssignmentEngine.DEFAULT_BUDGET_NANOS <= 10_000_000L, "The default budget is strict");
+        assertFalse(greedyOnly.isDeterministic());
+        greedyOnly.setTimeBudget(0L);
+        int[] greedy = greedyOnly.assign(cars, origins, destinations);
+        assertEquals(1, greedyOnly.getSearches());
+        assertEquals(1, greedyOnly.getGreedyFallbacks(), "A search without budget must fall back to greedy");
+        double greedyCost = greedyOnly.cost(cars, origins, destinations, greedy);
+        
+        CarAssignmentEngine engine = new CarAssignmentEngine(ForkJoinPool.commonPool());
+        engine.setRandom(new SimulationRandom(7L));
+        engine.setChains(2);
+        engine.setDeterministic(true);
+        int[] searched = engine.assign(cars, origins, destinations);
+        assertEquals(origins.length, searched.length);
+        for (int car : searched) {
+            assertTrue(car >= 0 && car < cars.length);
+        }
+        assertEquals(0, engine.getGreedyFallbacks());
+        assertTrue(engine.cost(cars, origins, destinations, searched) <= greedyCost + 1e-9,
+                   "Annealing starts from greedy and keeps the best assignment");
+        assertTrue(engine.getMeanImprovement() >= 0.0 && engine.getMeanImprovement() < 1.0);
+        
+        // A budget far too short for the iterations cuts the search, which never does worse than greedy
+        CarAssignmentEngine hurried = new CarAssignmentEngine(ForkJoinPool.commonPool());
+        hurried.setChains(100);
+        hurried.setTimeBudget(1L);
+        int[] truncated = hurried.assign(cars, origins, destinations);
+        assertEquals(1, hurried.getTruncatedSearches());
+        assertTrue(hurried.cost(cars, origins, destinations, truncated) <= greedyCost + 1e-9);
+    }
+    
+    /**
+     * Test Case 98: A group of cars shares the traffic and shortens waits
+     * Expected: Every car carries passengers, nobody is left unassigned and
+     * the mean wait is below the single car's
+     */
+    @Test
+    public void testGroupSharesTraffic() {
+        double[] meanWaits = new double[2];
+        int[] carCounts = {1, 3};
+        for (int run = 0; run < carCounts.length; run++) {
+            ElevatorGroup group = new ElevatorGroup(12, carCounts[run]);
+            group.setRandom(new SimulationRandom(5L));
+            group.setDoorOpenSteps(2);
+            TrafficGenerator generator = new TrafficGenerator(TrafficProfile.INTERFLOOR, 12, 0.15, 0.0,
+                                                              new SimulationRandom(5L));
+            for (int step = 0; step < 3000; step++) {
+                generator.feed(group);
+                group.step();
+            }
+            assertEquals(0, group.getUnassignedCount());
+            
+            Histogram waits = new Histogram();
+            for (ElevatorController car : group.getCars()) {
+                assertTrue(car.getMetrics().getBoardings() > 0, "Every car should carry passengers");
+                assertEquals(0, car.getMetrics().getConstraintViolations());
+                waits.add(car.getMetrics().getWaitHistogram());
+            }
+            meanWaits[run] = waits.getMean();
+        }
+        assertTrue(meanWaits[1] < meanWaits[0],
+                   "Three cars should wait less than one: " + meanWaits[1] + " vs " + meanWaits[0]);
+    }
+    
+    /**
+     * Test Case 106: Group runs with the same seed assign calls identically
+     * Expected: Deterministic runs on pools of different parallelism give the
+     * same per-car results, because the search stops after its seeded
+     * iterations and not on wall time
+     */
+    @Test
+    public void testGroupRunsAreReproducible() {
+        long[][] results = new long[2][];
+        int[] parallelism = {1, 3};
+        for (int run = 0; run < parallelism.length; run++) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism[run]);
+            try {
+                ElevatorGroup group = new ElevatorGroup(12, 3, pool);
+                group.getAssignmentEngine().setDeterministic(true);
+                group.setRandom(new SimulationRandom(9L));
+                group.setDoorOpenSteps(2);
+                TrafficGenerator generator = new TrafficGenerator(TrafficProfile.INTERFLOOR, 12, 0.2, 0.0,
+                                                                  new SimulationRandom(9L));
+                for (int step = 0; step < 2000; step++) {
+                    generator.feed(group);
+                    group.step();
+                }
+                CarAssignmentEngine engine = group.getAssignmentEngine();
+                assertTrue(engine.getSearches() > 0, "The batches should be searched");
+                assertEquals(0, engine.getTruncatedSearches(), "Deterministic searches are never truncated");
+                assertEquals(0, engine.getGreedyFallbacks());
+                results[run] = new long[3 * group.getCarCount()];
+                for (int car = 0; car < group.getCarCount(); car++) {
+                    ControllerMetrics metrics = group.getCar(car).getMetrics();
+                    results[run][3 * car] = metrics.getBoardings();
+                    results[run][3 * car + 1] = group.getCar(car).getElevator().getMetrics().getFloorsTravelled();
+                    results[run][3 * car + 2] = Double.doubleToLongBits(metrics.getMeanWaitSteps());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        assertArrayEquals(results[0], results[1], "Same seed, same assignments, whatever the parallelism");
+    }
+}
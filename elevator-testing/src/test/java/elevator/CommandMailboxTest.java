@@ -0,0 +1,105 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the single-writer actor mode of the controller
+ * Tests that mutations from other threads are applied by the owning thread
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class CommandMailboxTest {
+    
+    /**
+     * Test Case 86: Door timeouts in actor mode are applied by the stepping thread
+     * Expected: An expired close timer only posts a command, the next step closes the door
+     */
+    @Test
+    public void testDoorTimeoutGoesThroughMailbox() throws InterruptedException {
+        ElevatorController controller = new ElevatorController(5);
+        controller.setActorMode(64);
+        assertTrue(controller.isActorMode());
+        
+        controller.step();
+        Door lobby = controller.getDoorAtFloor(0);
+        assertTrue(lobby.isOpen(), "Idle car should open the lobby door");
+        
+        lobby.setDwell(20);
+        CommandMailbox mailbox = controller.getMailbox();
+        for (int i = 0; i < 100 && mailbox.getPendingCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, mailbox.getPendingCount(), "Expired timer should post a command");
+        assertTrue(lobby.isOpen(), "Timer thread should not close the door itself");
+        assertEquals(0, controller.getElevator().getMetrics().getOpenDoorMillis());
+        
+        controller.step();
+        assertEquals(0, mailbox.getPendingCount());
+        assertEquals(1, mailbox.getAppliedCount());
+        assertTrue(controller.getElevator().getMetrics().getOpenDoorMillis() > 0,
+                   "Door cycle should have ended on the stepping thread");
+        controller.setActorMode(0);
+        controller.reset();
+    }
+    
+    /**
+     * Test Case 87: Commands from many producers are applied in batches by one owner
+     * Expected: Every call is applied once with its queueing latency, other threads cannot step
+     */
+    @Test
+    public void testProducersAndSingleOwner() throws InterruptedException {
+        ElevatorController controller = new ElevatorController(20);
+        controller.setDoorOpenSteps(2);
+        controller.setActorMode(256);
+        controller.step();
+        
+        int producers = 4;
+        int callsPerProducer = 2000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int offset = p;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < callsPerProducer; i++) {
+                    int floor = 1 + (i + offset) % 19;
+                    controller.submitHallCall(floor, Direction.DOWN);
+                }
+            });
+            producer.start();
+            threads.add(producer);
+        }
+        for (Thread producer : threads) {
+            producer.join();
+        }
+        controller.post(c -> c.getElevator().addDestination(10));
+        
+        CommandMailbox mailbox = controller.getMailbox();
+        long total = producers * callsPerProducer + 1;
+        assertEquals(total, mailbox.getPostedCount());
+        while (mailbox.getPendingCount() > 0) {
+            controller.step();
+        }
+        assertEquals(total, mailbox.getAppliedCount());
+        assertEquals(0, mailbox.getFailedCount());
+        assertEquals(total, mailbox.getLatencyHistogram().getCount());
+        assertTrue(mailbox.getMeanBatchSize() > 1.0, "Commands should be applied in batches");
+        assertTrue(controller.getElevator().getPendingCallCount() > 0);
+        assertEquals(total, controller.getMetrics().getCommandsApplied());
+        
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread intruder = new Thread(() -> {
+            try {
+                controller.step();
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        intruder.start();
+        intruder.join();
+        assertTrue(error.get() instanceof IllegalStateException, "Only the owner may step");
+    }
+}
@@ -0,0 +1,165 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the reactive controller event stream
+ * Tests event delivery and the backpressure policies
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ControllerEventPublisherTest {
+    
+    /**
+     * Test Case 74: A trip is published as typed events
+     * Expected: Door, boarding, move, stop and alighting events in order, then completion
+     * (the idle car keeps cycling its door afterwards)
+     */
+    @Test
+    public void testTripEventsDelivered() throws InterruptedException {
+        ElevatorController controller = new ElevatorController(4);
+        controller.setDoorOpenSteps(1);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        controller.getEventPublisher().subscribe(subscriber);
+        
+        controller.addArrival(0, 2, false);
+        for (int i = 0; i < 8; i++) {
+            controller.step();
+        }
+        controller.getEventPublisher().close();
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS), "Subscriber should be completed");
+        
+        List<ControllerEvent.Type> types = new ArrayList<>();
+        for (ControllerEvent event : subscriber.events) {
+            types.add(event.getType());
+        }
+        assertEquals(List.of(ControllerEvent.Type.DOOR_OPENED, ControllerEvent.Type.BOARDING,
+                             ControllerEvent.Type.DOOR_CLOSED, ControllerEvent.Type.MOVE,
+                             ControllerEvent.Type.MOVE, ControllerEvent.Type.STOP,
+                             ControllerEvent.Type.DOOR_OPENED, ControllerEvent.Type.ALIGHTING,
+                             ControllerEvent.Type.DOOR_CLOSED), types.subList(0, 9));
+        assertEquals(2, subscriber.events.get(7).getFloor(), "Alighting at the destination");
+        assertEquals(0, controller.getEventPublisher().getSubscriberCount());
+    }
+    
+    /**
+     * Test Case 75: Full buffers follow the subscriber's policy
+     * Expected: DROP keeps the oldest events, LATEST keeps the newest,
+     * and the simulation never waits for either subscriber
+     */
+    @Test
+    public void testDropAndLatestPolicies() throws InterruptedException {
+        ElevatorController controller = new ElevatorController(10);
+        ControllerEventPublisher publisher = controller.getEventPublisher();
+        RecordingSubscriber dropping = new RecordingSubscriber(0);
+        RecordingSubscriber latest = new RecordingSubscriber(0);
+        publisher.subscribe(dropping, 4, BackpressurePolicy.DROP);
+        publisher.subscribe(latest, 4, BackpressurePolicy.LATEST);
+        
+        for (int floor = 0; floor < 10; floor++) {
+            publisher.publish(ControllerEvent.Type.MOVE, floor);
+        }
+        assertEquals(12, publisher.getDroppedCount(), "Each subscriber lost six events");
+        
+        publisher.close();
+        dropping.subscription.request(10);
+        latest.subscription.request(10);
+        assertTrue(dropping.done.await(5, TimeUnit.SECONDS));
+        assertTrue(latest.done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, dropping.events.get(0).getFloor(), "DROP keeps the first events");
+        assertEquals(3, dropping.events.get(3).getFloor());
+        assertEquals(6, latest.events.get(0).getFloor(), "LATEST keeps the last events");
+        assertEquals(9, latest.events.get(3).getFloor());
+    }
+    
+    /**
+     * Test Case 76: A blocking subscriber receives every event in order
+     * Expected: One million events arrive without loss through a small buffer
+     */
+    @Test
+    public void testBlockingSubscriberReceivesAll() throws InterruptedException {
+        ElevatorController controller = new ElevatorController(4);
+        ControllerEventPublisher publisher = controller.getEventPublisher();
+        int total = 1_000_000;
+        long[] received = new long[1];
+        boolean[] ordered = {true};
+        CountDownLatch done = new CountDownLatch(1);
+        publisher.subscribe(new Flow.Subscriber<ControllerEvent>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+            
+            @Override
+            public void onNext(ControllerEvent event) {
+                if (event.getFloor() != (int) (received[0] % 4)) {
+                    ordered[0] = false;
+                }
+                received[0]++;
+            }
+            
+            @Override
+            public void onError(Throwable throwable) {
+                done.countDown();
+            }
+            
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        }, 256, BackpressurePolicy.BLOCK);
+        
+        for (int i = 0; i < total; i++) {
+            publisher.publish(ControllerEvent.Type.MOVE, i % 4);
+        }
+        publisher.close();
+        assertTrue(done.await(30, TimeUnit.SECONDS), "Subscriber should be completed");
+        assertEquals(total, received[0]);
+        assertTrue(ordered[0], "Events should arrive in publication order");
+        assertEquals(0, publisher.getDroppedCount());
+    }
+    
+    /**
+     * Subscriber recording the events it receives
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<ControllerEvent> {
+        private final long initialRequest;
+        private final List<ControllerEvent> events = new ArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+        
+        @Override
+        public void onNext(ControllerEvent event) {
+            events.add(event);
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+            done.countDown();
+        }
+        
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package elevator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the controller and car metrics
+ * Tests the histogram, live counters and the JMX registration
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ControllerMetricsTest {
+    
+    private ElevatorController controller;
+    
+    @BeforeEach
+    public void setUp() {
+        controller = new ElevatorController(4);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        controller.unregisterMBeans();
+    }
+    
+    /**
+     * Test Case 58: Histogram reports mean and percentiles
+     * Expected: Exact values below 64, bucketed values within 3% above
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+        assertEquals(50, histogram.getPercentile(50.0), "Median below 64 should be exact");
+        long p95 = histogram.getPercentile(95.0);
+        assertTrue(p95 >= 92 && p95 <= 95, "p95 should be within bucket precision: " + p95);
+        assertEquals(100, histogram.getMax());
+    }
+    
+    /**
+     * Test Case 59: Controller metrics count steps, boardings and waits
+     * Expected: A boarding user is counted with its wait since arrival
+     */
+    @Test
+    public void testMetricsTrackBoardingAndWait() {
+        controller.step();
+        controller.step();
+        
+        User user = new User(0, 2, Direction.UP);
+        user.setDistracted(false);
+        controller.addUser(user);
+        user.callElevator(controller.getElevator());
+        // The idle car's lobby door is open, so the call is served without queuing
+        assertEquals(0, controller.getMetrics().getPendingHallCalls());
+        assertEquals(1, controller.getMetrics().getDoorReopens());
+        
+        controller.step();
+        controller.getDoorAtFloor(0).close();
+        
+        ControllerMetrics metrics = controller.getMetrics();
+        assertEquals(3, metrics.getStepsExecuted());
+        assertEquals(1, metrics.getBoardings(), "Boarding should be counted");
+        assertEquals(1.0, metrics.getMeanWaitSteps(), 1e-9, "User waited one step");
+        assertTrue(metrics.getOpenDoorMillis() >= 0);
+        
+        // Reading the rate must not reset it for the next reader
+        double firstRead = metrics.getStepsPerSecond();
+        double secondRead = metrics.getStepsPerSecond();
+        assertTrue(firstRead > 0.0 && secondRead > 0.0, "Rate is over the whole run: " + secondRead);
+        assertTrue(secondRead <= firstRead);
+    }
+    
+    /**
+     * Test Case 60: Metrics are published as platform MXBeans
+     * Expected: Attributes are readable through the MBean server
+     */
+    @Test
+    public void testMBeansRegistered() throws Exception {
+        controller.registerMBeans();
+        controller.getElevator().addDestination(3);
+        controller.step();
+        
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName controllerName = new ObjectName("elevator:type=Controller,name=" + controller.getName());
+        ObjectName carName = new ObjectName("elevator:type=Car,controller=" + controller.getName() + ",car=0");
+        
+        assertTrue(server.isRegistered(controllerName), "Controller MXBean should be registered");
+        assertTrue(server.isRegistered(carName), "Car MXBean should be registered");
+        assertEquals(1L, server.getAttribute(controllerName, "StepsExecuted"));
+        assertEquals(1, server.getAttribute(carName, "CurrentFloor"));
+        assertEquals("UP", server.getAttribute(carName, "Direction"));
+        
+        controller.unregisterMBeans();
+        assertFalse(server.isRegistered(controllerName), "Controller MXBean should be removed");
+        assertFalse(server.isRegistered(carName), "Car MXBean should be removed");
+    }
+}
@@ -0,0 +1,103 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the state snapshots published by the controller
+ * Tests that snapshots are immutable and consistent for concurrent readers
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ControllerSnapshotTest {
+    
+    /**
+     * Test Case 84: A snapshot describes the end of one step and never changes
+     * Expected: Each step publishes a new snapshot, older ones keep their values
+     */
+    @Test
+    public void testSnapshotIsImmutable() {
+        ElevatorController controller = new ElevatorController(6);
+        controller.setDoorOpenSteps(2);
+        controller.setRandom(new SimulationRandom(5L));
+        
+        ControllerSnapshot initial = controller.getSnapshot();
+        assertEquals(0, initial.getStep());
+        assertEquals(0, initial.getFloor());
+        assertEquals(6, initial.getNumberOfFloors());
+        
+        controller.addArrival(4, 1, false);
+        controller.step();
+        ControllerSnapshot first = controller.getSnapshot();
+        assertNotSame(initial, first);
+        assertEquals(1, first.getStep());
+        assertEquals(1, first.getWaitingCount(4));
+        assertEquals(1, first.getActiveUsers());
+        
+        for (int i = 0; i < 30 && controller.getActiveUserCount() > 0; i++) {
+            controller.step();
+        }
+        assertEquals(0, controller.getSnapshot().getActiveUsers());
+        assertEquals(1, first.getStep(), "Published snapshot should not change");
+        assertEquals(1, first.getWaitingCount(4), "Published snapshot should not change");
+        assertEquals(0, initial.getFloorsTravelled());
+        assertEquals(controller.getCurrentStep(), controller.getSnapshot().getStep());
+    }
+    
+    /**
+     * Test Case 85: Concurrent readers see consistent states while the controller steps
+     * Expected: Steps never go backwards and an open door always matches a stopped car
+     */
+    @Test
+    public void testConcurrentReadersSeeConsistentState() throws InterruptedException {
+        ElevatorController controller = new ElevatorController(10);
+        SimulationRandom random = new SimulationRandom(9L);
+        controller.setRandom(random);
+        controller.setDoorOpenSteps(2);
+        TrafficGenerator traffic = new TrafficGenerator(TrafficProfile.MIXED, 10, 0.2, 0.0, random);
+        
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                int lastStep = -1;
+                while (running.get() && failure.get() == null) {
+                    ControllerSnapshot state = controller.getSnapshot();
+                    int waiting = 0;
+                    for (int floor = 0; floor < state.getNumberOfFloors(); floor++) {
+                        waiting += state.getWaitingCount(floor);
+                    }
+                    if (state.getStep() < lastStep) {
+                        failure.set("Step went backwards: " + state);
+                    } else if (state.getOpenDoorFloor() >= 0
+                               && (!state.isStopped() || state.getOpenDoorFloor() != state.getFloor())) {
+                        failure.set("Open door away from a stopped car: " + state);
+                    } else if (waiting + state.getPassengers() > state.getActiveUsers()) {
+                        failure.set("More waiting and riding users than active users: " + state);
+                    }
+                    lastStep = state.getStep();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        
+        for (int step = 0; step < 20000; step++) {
+            traffic.feed(controller);
+            controller.step();
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        
+        assertNull(failure.get(), failure.get());
+        assertEquals(20000, controller.getSnapshot().getStep());
+    }
+}
@@ -150,4 +150,69 @@ public class DoorTest {
         assertTrue(door.isOpen(), 
             "Door should open when elevator stops at floor");
     }
+    
+    /**
+     * Test Case 81: A hall call at the open door in the car's direction reopens it
+     * Expected: The call is not queued, the caller boards at this stop, opposite calls still queue
+     */
+    @Test
+    public void testDoorReopensForSameDirectionCall() {
+        ElevatorController controller = new ElevatorController(6);
+        controller.setDoorOpenSteps(2);
+        controller.setRandom(new SimulationRandom(7L));
+        Elevator car = controller.getElevator();
+        Door door = controller.getDoorAtFloor(2);
+        
+        User first = controller.addArrival(2, 5, false);
+        for (int i = 0; i < 20 && !first.isInElevator(); i++) {
+            controller.step();
+        }
+        assertTrue(door.isOpen(), "Door at floor 2 should be open for the first passenger");
+        assertEquals(Direction.UP, car.getDirection());
+        
+        // Call while the door is about to close
+        controller.step();
+        assertTrue(door.isOpen(), "Door should still be open one step before closing");
+        User late = controller.addArrival(2, 4, false);
+        assertFalse(car.hasCallAtFloor(2, Direction.UP), "Call at the open door should not be queued");
+        assertEquals(1, car.getMetrics().getDoorReopens());
+        
+        controller.step();
+        assertTrue(late.isInElevator(), "Late caller should board at this stop");
+        assertEquals(2, car.getCurrentFloor(), "Car should not have left before the late caller boarded");
+        
+        // A call in the opposite direction is queued as before
+        car.addCall(2, Direction.DOWN);
+        assertTrue(car.hasCallAtFloor(2, Direction.DOWN));
+        assertEquals(1, car.getMetrics().getDoorReopens());
+    }
+    
+    /**
+     * Test Case 104: A door on timers reopens for the dwell of the dwell policy
+     * Expected: The reopened door's close timer is restarted with the policy's
+     * dwell, not with the door's 2 second default. The dwell is far longer than
+     * the test, so no timer expires while it runs
+     */
+    @Test
+    public void testTimerDoorReopensWithPolicyDwell() {
+        ElevatorController controller = new ElevatorController(6);
+        controller.setRandom(new SimulationRandom(7L));
+        controller.setDwellPolicy(new DwellPolicy(60000, 60000, 0, 0, 0));
+        Door lobby = controller.getDoorAtFloor(0);
+        try {
+            User first = controller.addArrival(0, 3, false);
+            controller.step();
+            assertTrue(first.isInElevator() && lobby.isOpen(), "First passenger boards at the open lobby door");
+            assertTrue(lobby.getCloseDelayMillis() > 30000, "The stop is held for the rest of the policy dwell");
+            
+            lobby.startCloseTimer(30000); // as if part of the dwell had elapsed
+            controller.addArrival(0, 4, false);
+            assertEquals(1, controller.getElevator().getMetrics().getDoorReopens());
+            assertTrue(lobby.isOpen());
+            assertEquals(60000, lobby.getCloseDelayMillis(), "Reopen should restart the policy dwell");
+        } finally {
+            lobby.forceClose();
+        }
+        assertEquals(-1, lobby.getCloseDelayMillis());
+    }
 }
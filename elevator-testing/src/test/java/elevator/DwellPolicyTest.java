@@ -0,0 +1,68 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the adaptive door dwell
+ * Tests the dwell computation and the dwell and round trip indicators
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class DwellPolicyTest {
+    
+    /**
+     * Test Case 79: The dwell grows with the load and stays within its bounds
+     * Expected: Quiet stops get the minimum, busy stops more, crowds the maximum
+     */
+    @Test
+    public void testDwellGrowsWithLoad() {
+        DwellPolicy policy = new DwellPolicy(800, 6000, 1000, 800, 1200);
+        
+        assertEquals(800, policy.dwellMillis(0, 0, 3));
+        assertEquals(1800, policy.dwellMillis(1, 0, 3));
+        assertEquals(3400, policy.dwellMillis(1, 2, 3));
+        assertEquals(6000, policy.dwellMillis(20, 0, 3));
+        
+        // The car only lingers for late arrivals when nobody waits elsewhere
+        assertEquals(2000, policy.dwellMillis(0, 0, 0));
+        assertEquals(6000, policy.dwellMillis(20, 0, 0));
+        
+        assertThrows(IllegalArgumentException.class, () -> new DwellPolicy(900, 800, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DwellPolicy(-1, 800, 0, 0, 0));
+    }
+    
+    /**
+     * Test Case 80: The controller accounts the dwell of every stop and the lobby round trips
+     * Expected: Dwell and round trip indicators are recorded and add to simulated time
+     */
+    @Test
+    public void testControllerRecordsDwellAndRoundTrips() {
+        ElevatorController controller = new ElevatorController(5);
+        controller.setDoorOpenSteps(1);
+        controller.setRandom(new SimulationRandom(3L));
+        for (int trip = 0; trip < 3; trip++) {
+            controller.addArrival(0, 4, false);
+            for (int i = 0; i < 60 && controller.getActiveUserCount() > 0; i++) {
+                controller.step();
+            }
+            assertEquals(0, controller.getActiveUserCount(), "Passenger should be delivered");
+            controller.addArrival(4, 0, false);
+            for (int i = 0; i < 60 && controller.getActiveUserCount() > 0; i++) {
+                controller.step();
+            }
+            assertEquals(0, controller.getActiveUserCount(), "Passenger should be delivered");
+        }
+        for (int i = 0; i < 5; i++) {
+            controller.step();
+        }
+        
+        ControllerMetrics metrics = controller.getMetrics();
+        assertTrue(metrics.getDwellStops() >= 6, "Every stop should have a dwell");
+        assertTrue(metrics.getMeanDwellMillis() >= 800 && metrics.getMeanDwellMillis() <= 6000);
+        assertTrue(metrics.getRoundTrips() >= 2, "Lobby round trips should be counted");
+        assertTrue(metrics.getMeanRoundTripSeconds() > 0.0);
+        assertTrue(controller.getElevator().getDwellSeconds() >= metrics.getDwellStops() * 0.8);
+    }
+}
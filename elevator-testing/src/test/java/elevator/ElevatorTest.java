@@ -242,4 +242,69 @@ public class ElevatorTest {
         assertNotEquals(Direction.NONE, direction, 
             "Elevator should choose a direction when calls exist");
     }
+    
+    /**
+     * Test Case 49: Direction decision is memoized on unchanged state
+     * Expected: Repeated decisions hit the cache and return the same direction
+     */
+    @Test
+    public void testDirectionDecisionIsMemoized() {
+        elevator.addCall(4, Direction.UP);
+        
+        Direction first = elevator.chooseDirection();
+        Direction second = elevator.chooseDirection();
+        Direction third = elevator.chooseDirection();
+        
+        assertEquals(Direction.UP, first);
+        assertEquals(first, second, "Cached decision should match the computed one");
+        assertEquals(first, third, "Cached decision should match the computed one");
+        assertTrue(elevator.getDecisionCacheHits() >= 1, 
+            "Unchanged state should be served from the cache");
+        assertTrue(elevator.getDecisionCacheHitRate() > 0.0);
+    }
+    
+    /**
+     * Test Case 50: New calls invalidate the memoized decision
+     * Expected: State version changes and the decision is recomputed
+     */
+    @Test
+    public void testNewCallInvalidatesDecision() {
+        elevator.addCall(0, Direction.UP);
+        assertEquals(Direction.DOWN, elevator.chooseDirection());
+        elevator.chooseDirection();
+        
+        long version = elevator.getStateVersion();
+        long misses = elevator.getDecisionCacheMisses();
+        elevator.addDestination(2);
+        elevator.setDirection(Direction.NONE);
+        elevator.addCall(5, Direction.DOWN);
+        
+        assertTrue(elevator.getStateVersion() > version, "Adding a call should bump the version");
+        assertEquals(Direction.UP, elevator.chooseDirection(), 
+            "Decision should be recomputed after the state changed");
+        assertEquals(misses + 1, elevator.getDecisionCacheMisses());
+    }
+    
+    /**
+     * Test Case 51: Express move jumps to the next stop
+     * Expected: Elevator stops at the first destination ahead, skipping empty floors
+     */
+    @Test
+    public void testExpressMoveStopsAtNextStop() {
+        elevator.setCurrentFloor(0);
+        elevator.addDestination(4);
+        elevator.addCall(3, Direction.UP);
+        elevator.addCall(1, Direction.DOWN);
+        elevator.setDirection(Direction.UP);
+        
+        int floors = elevator.moveExpress();
+        
+        assertEquals(3, floors, "Express move should travel three floors");
+        assertEquals(3, elevator.getCurrentFloor(), 
+            "Elevator should stop at the UP call, not skip it");
+        assertTrue(elevator.isStopped(), "Elevator should stop at the call floor");
+        assertTrue(elevator.hasCallAtFloor(1, Direction.DOWN), 
+            "Calls in the opposite direction should not be served");
+        assertEquals(3, elevator.getFloorsTravelled());
+    }
 }
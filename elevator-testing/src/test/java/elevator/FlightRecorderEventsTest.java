@@ -0,0 +1,74 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the Flight Recorder events
+ * Tests that steps, door cycles, decisions and boardings are recorded
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class FlightRecorderEventsTest {
+    
+    /**
+     * Test Case 57: A recording captures all elevator event types
+     * Expected: Step, door cycle, direction decision and boarding events are present
+     */
+    @Test
+    public void testRecordingCapturesElevatorEvents() throws Exception {
+        Path file = Files.createTempFile("elevator", ".jfr");
+        List<RecordedEvent> events;
+        
+        try (Recording recording = new Recording()) {
+            recording.enable("elevator.Step");
+            recording.enable("elevator.DoorCycle");
+            recording.enable("elevator.DirectionDecision");
+            recording.enable("elevator.Boarding");
+            recording.start();
+            
+            ElevatorController controller = new ElevatorController(4);
+            User user = new User(0, 2, Direction.UP);
+            user.setDistracted(false);
+            controller.addUser(user);
+            user.callElevator(controller.getElevator());
+            
+            // Door opens at floor 0 and the user boards
+            controller.step();
+            assertTrue(user.isInElevator(), "User should board on the first step");
+            controller.getDoorAtFloor(0).close();
+            controller.step();
+            
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        
+        Set<String> names = new HashSet<>();
+        for (RecordedEvent event : events) {
+            names.add(event.getEventType().getName());
+        }
+        assertTrue(names.contains("elevator.Step"), "Step events should be recorded");
+        assertTrue(names.contains("elevator.DoorCycle"), "Door cycle events should be recorded");
+        assertTrue(names.contains("elevator.DirectionDecision"), "Decision events should be recorded");
+        assertTrue(names.contains("elevator.Boarding"), "Boarding events should be recorded");
+        
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("elevator.Boarding")) {
+                assertEquals(0, event.getInt("floor"));
+                assertEquals(2, event.getInt("destination"));
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Performance regression suite over the standard building workloads
+ * Every workload is run headlessly with a fixed seed and its key performance
+ * indicators are compared against kpi-baseline.properties; a metric that is
+ * worse than its baseline by more than the configured tolerance fails the suite.
+ * The passenger KPIs are deterministic for the seed; the wall-clock throughput
+ * is only checked with the benchmark profile (mvn test -Pbenchmark)
+ * 
+ * To refresh the baseline after an intended change, run
+ * mvn test -Dtest=KpiRegressionTest -Dkpi.writeBaseline=target/kpi-baseline.properties
+ * and copy the measured values into src/test/resources/kpi-baseline.properties
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class KpiRegressionTest {
+    private static final String[] WORKLOADS = {"up-peak", "down-peak", "interfloor", "mixed"};
+    private static final String[] HIGHER_IS_BETTER = {"handlingCapacity"};
+    private static final String THROUGHPUT = "stepsPerSecond";
+    private static final String[] LOWER_IS_BETTER = {"waitMean", "waitP50", "waitP95", "waitP99"};
+    
+    /**
+     * Runs one benchmark workload
+     * 
+     * @param workload the traffic profile name
+     * @param steps the step budget
+     * @return the JSON summary
+     * @throws IOException if the runner fails
+     */
+    private static String runWorkload(String workload, int steps) throws IOException {
+        return SimulationRunner.run(new String[] {
+            "--floors", "12", "--steps", String.valueOf(steps), "--seed", "2024",
+            "--traffic", workload, "--rate", "0.08", "--door-steps", "2"
+        });
+    }
+    
+    /**
+     * Loads the checked-in baseline
+     * 
+     * @return the baseline properties
+     * @throws IOException if the baseline cannot be read
+     */
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = KpiRegressionTest.class.getResourceAsStream("/kpi-baseline.properties")) {
+            assertNotNull(in, "kpi-baseline.properties is missing from the test resources");
+            baseline.load(in);
+        }
+        return baseline;
+    }
+    
+    /**
+     * Compares the indicators of one workload with the baseline
+     * 
+     * @param baseline the baseline with its tolerances
+     * @param workload the workload name
+     * @param summary the JSON summary of the run
+     * @param regressions receives one message per regressed indicator
+     */
+    static void compare(Properties baseline, String workload, String summary, List<String> regressions) {
+        for (String metric : HIGHER_IS_BETTER) {
+            compareFloor(baseline, workload, metric, summary, regressions);
+        }
+        for (String metric : LOWER_IS_BETTER) {
+            double expected = baselineValue(baseline, workload + "." + metric);
+            // One step of slack keeps small exact values from failing on rounding
+            double ceiling = expected * (1.0 + baselineValue(baseline, "tolerance." + metric)) + 1.0;
+            double measured = numberField(summary, metric);
+            if (measured > ceiling) {
+                regressions.add(String.format(Locale.ROOT, "%s %s rose to %.2f, baseline %.2f (maximum %.2f)",
+                                              workload, metric, measured, expected, ceiling));
+            }
+        }
+    }
+    
+    /**
+     * Compares an indicator that must not fall below its baseline
+     * 
+     * @param baseline the baseline with its tolerances
+     * @param workload the workload name
+     * @param metric the indicator name
+     * @param summary the JSON summary of the run
+     * @param regressions receives a message if the indicator regressed
+     */
+    static void compareFloor(Properties baseline, String workload, String metric, String summary,
+                             List<String> regressions) {
+        double expected = baselineValue(baseline, workload + "." + metric);
+        double floor = expected * (1.0 - baselineValue(baseline, "tolerance." + metric));
+        double measured = numberField(summary, metric);
+        if (measured < floor) {
+            regressions.add(String.format(Locale.ROOT, "%s %s fell to %.2f, baseline %.2f (minimum %.2f)",
+                                          workload, metric, measured, expected, floor));
+        }
+    }
+    
+    /**
+     * Test Case 92: Standard workloads keep their performance within tolerance of the baseline
+     * Expected: No deterministic indicator of any workload regresses beyond its tolerance
+     */
+    @Test
+    public void testWorkloadsMeetBaseline() throws IOException {
+        Properties baseline = loadBaseline();
+        int steps = Integer.parseInt(baseline.getProperty("steps"));
+        
+        String[] summaries = new String[WORKLOADS.length];
+        StringBuilder measured = new StringBuilder("steps=" + steps + "\n");
+        for (int i = 0; i < WORKLOADS.length; i++) {
+            summaries[i] = runWorkload(WORKLOADS[i], steps);
+            assertEquals(0.0, numberField(summaries[i], "constraintViolations"), WORKLOADS[i]);
+            for (String metric : HIGHER_IS_BETTER) {
+                appendMeasured(measured, WORKLOADS[i], metric, summaries[i]);
+            }
+            for (String metric : LOWER_IS_BETTER) {
+                appendMeasured(measured, WORKLOADS[i], metric, summaries[i]);
+            }
+        }
+        
+        // Written before comparing so a failing run can still refresh the baseline
+        String output = System.getProperty("kpi.writeBaseline");
+        if (output != null) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+                out.write(measured.toString());
+            }
+        }
+        
+        List<String> regressions = new ArrayList<>();
+        for (int i = 0; i < WORKLOADS.length; i++) {
+            compare(baseline, WORKLOADS[i], summaries[i], regressions);
+        }
+        assertTrue(regressions.isEmpty(), "KPI regressions:\n" + String.join("\n", regressions));
+    }
+    
+    /**
+     * Test Case 93: The comparison flags regressions beyond the tolerance only
+     * Expected: Small changes pass, large drops in capacity and rises in waits are reported
+     */
+    @Test
+    public void testComparisonRespectsTolerance() {
+        Properties baseline = new Properties();
+        baseline.setProperty("tolerance.handlingCapacity", "0.10");
+        for (String metric : LOWER_IS_BETTER) {
+            baseline.setProperty("tolerance." + metric, "0.10");
+            baseline.setProperty("w." + metric, "40");
+        }
+        baseline.setProperty("w.handlingCapacity", "100");
+        
+        List<String> regressions = new ArrayList<>();
+        compare(baseline, "w", "{\"handlingCapacity\":95,\"waitMean\":43,"
+                + "\"waitP50\":40,\"waitP95\":45,\"waitP99\":30}", regressions);
+        assertTrue(regressions.isEmpty(), regressions.toString());
+        
+        compare(baseline, "w", "{\"handlingCapacity\":80,\"waitMean\":43,"
+                + "\"waitP50\":40,\"waitP95\":50,\"waitP99\":30}", regressions);
+        assertEquals(2, regressions.size(), regressions.toString());
+        assertTrue(regressions.get(0).startsWith("w handlingCapacity"));
+        assertTrue(regressions.get(1).startsWith("w waitP95"));
+    }
+    
+    /**
+     * Test Case 105: Standard workloads keep their step throughput
+     * Expected: No workload runs slower than its baseline beyond the tolerance.
+     * Wall-clock dependent, so it only runs with the benchmark profile
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "kpi.benchmark", matches = "true")
+    public void testThroughputMeetsBaseline() throws IOException {
+        Properties baseline = loadBaseline();
+        int steps = Integer.parseInt(baseline.getProperty("steps"));
+        
+        // Warm up the JIT so the throughput of the first workload is comparable
+        runWorkload("mixed", steps);
+        
+        List<String> regressions = new ArrayList<>();
+        for (String workload : WORKLOADS) {
+            compareFloor(baseline, workload, THROUGHPUT, runWorkload(workload, steps), regressions);
+        }
+        assertTrue(regressions.isEmpty(), "Throughput regressions:\n" + String.join("\n", regressions));
+    }
+    
+    /**
+     * Appends one measured indicator in baseline format
+     * 
+     * @param measured the baseline being built
+     * @param workload the workload name
+     * @param metric the indicator name
+     * @param summary the JSON summary of the run
+     */
+    private static void appendMeasured(StringBuilder measured, String workload, String metric, String summary) {
+        measured.append(workload).append('.').append(metric).append('=')
+                .append(numberField(summary, metric)).append('\n');
+    }
+    
+    /**
+     * Reads a required number from the baseline
+     * 
+     * @param baseline the baseline
+     * @param key the property name
+     * @return the value
+     */
+    private static double baselineValue(Properties baseline, String key) {
+        String value = baseline.getProperty(key);
+        assertNotNull(value, "Baseline has no value for " + key);
+        return Double.parseDouble(value);
+    }
+    
+    /**
+     * Extracts a numeric field from a JSON summary
+     * 
+     * @param json the summary
+     * @param name the field name
+     * @return the field value
+     */
+    private static double numberField(String json, String name) {
+        int key = json.indexOf("\"" + name + "\":");
+        assertTrue(key >= 0, "Summary has no field " + name);
+        int start = key + name.length() + 3;
+        int end = start;
+        while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+            end++;
+        }
+        return Double.parseDouble(json.substring(start, end));
+    }
+}
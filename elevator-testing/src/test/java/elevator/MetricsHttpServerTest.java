@@ -0,0 +1,108 @@
+package elevator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the embedded HTTP metrics and control endpoint
+ * Tests metric scraping and batched hall call injection
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class MetricsHttpServerTest {
+    
+    private ElevatorController controller;
+    private MetricsHttpServer server;
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        controller = new ElevatorController(6);
+        server = new MetricsHttpServer(controller, 0);
+        server.start();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+    
+    /**
+     * Test Case 61: Metrics are served in Prometheus text format
+     * Expected: GET /metrics returns typed samples labelled with the controller
+     */
+    @Test
+    public void testMetricsEndpoint() throws IOException {
+        controller.step();
+        
+        HttpURLConnection connection = open("/metrics", "GET");
+        assertEquals(200, connection.getResponseCode());
+        String body = read(connection.getInputStream());
+        
+        assertTrue(body.contains("# TYPE elevator_steps_total counter"), "Metric type should be declared");
+        assertTrue(body.contains("elevator_steps_total{controller=\"" + controller.getName() + "\"} 1"),
+            "Step counter should be exported");
+        assertTrue(body.contains("elevator_wait_steps_count"), "Wait summary should be exported");
+    }
+    
+    /**
+     * Test Case 62: Batched hall calls are applied at the next step
+     * Expected: POST /calls queues all calls, the step adds them to the elevator
+     */
+    @Test
+    public void testPostedCallsReachElevator() throws IOException {
+        HttpURLConnection connection = post("2 UP\n4 down\n");
+        assertEquals(202, connection.getResponseCode());
+        assertEquals("accepted 2\n", read(connection.getInputStream()));
+        
+        assertFalse(controller.getElevator().hasCallAtFloor(2, Direction.UP),
+            "Calls should wait for the step thread");
+        controller.step();
+        assertTrue(controller.getElevator().hasCallAtFloor(2, Direction.UP));
+        assertTrue(controller.getElevator().hasCallAtFloor(4, Direction.DOWN));
+    }
+    
+    /**
+     * Test Case 63: Invalid batches are rejected as a whole
+     * Expected: 400 response and no call is queued
+     */
+    @Test
+    public void testInvalidBatchRejected() throws IOException {
+        HttpURLConnection connection = post("1 UP\n9 DOWN\n");
+        assertEquals(400, connection.getResponseCode());
+        
+        controller.step();
+        assertFalse(controller.getElevator().hasCallAtFloor(1, Direction.UP),
+            "No call of a rejected batch should be applied");
+    }
+    
+    private HttpURLConnection open(String path, String method) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+    
+    private HttpURLConnection post(String body) throws IOException {
+        HttpURLConnection connection = open("/calls", "POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+    
+    private static String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the kinematic motion profile
+ * Tests closed-form trip durations and their integration with the elevator
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class MotionProfileTest {
+    
+    private static final double EPSILON = 1e-9;
+    
+    private final MotionProfile profile = new MotionProfile(2.0, 1.0, 1.0, 3.0, 2.0, 3.0);
+    
+    /**
+     * Test Case 53: Long run reaches rated speed
+     * Expected: Time is distance over speed plus the acceleration overhead
+     */
+    @Test
+    public void testLongRunCruisesAtRatedSpeed() {
+        // v/a + a/j = 2 + 1 = 3 seconds of overhead
+        assertEquals(100.0 / 2.0 + 3.0, profile.travelTime(100.0), EPSILON,
+            "Cruising run should follow d/v + v/a + a/j");
+    }
+    
+    /**
+     * Test Case 54: Very short run is limited by jerk only
+     * Expected: Time follows the pure jerk profile 4 * cbrt(d / 2j)
+     */
+    @Test
+    public void testShortRunIsJerkLimited() {
+        // Full acceleration needs 2a^3/j^2 = 2 meters
+        assertEquals(4 * Math.cbrt(1.0 / 2.0), profile.travelTime(1.0), EPSILON,
+            "Jerk-limited run should follow 4 * cbrt(d / 2j)");
+    }
+    
+    /**
+     * Test Case 55: Trip time is continuous and increasing across profile cases
+     * Expected: No jumps at the case boundaries and longer trips take longer
+     */
+    @Test
+    public void testTripTimeContinuousAndMonotonic() {
+        double cruiseDistance = 2.0 * (2.0 / 1.0 + 1.0 / 1.0);
+        assertEquals(profile.travelTime(cruiseDistance - 1e-9), profile.travelTime(cruiseDistance), 1e-6,
+            "Trip time should be continuous at the cruise boundary");
+        assertEquals(profile.travelTime(2.0 - 1e-9), profile.travelTime(2.0), 1e-6,
+            "Trip time should be continuous at the full acceleration boundary");
+        
+        double previous = 0.0;
+        for (int floors = 1; floors <= 80; floors++) {
+            double time = profile.tripTime(floors);
+            assertTrue(time > previous, "Trip over " + floors + " floors should take longer");
+            previous = time;
+        }
+    }
+    
+    /**
+     * Test Case 56: Elevator accumulates run and door times in seconds
+     * Expected: An express run and one door cycle are priced by the profile
+     */
+    @Test
+    public void testElevatorAccumulatesSimulatedSeconds() {
+        Elevator elevator = new Elevator(0, 80);
+        elevator.setMotionProfile(profile);
+        elevator.addDestination(80);
+        elevator.setDirection(Direction.UP);
+        
+        elevator.moveExpress();
+        assertEquals(profile.tripTime(80), elevator.getTravelSeconds(), EPSILON,
+            "One run of 80 floors should be priced as a single trip");
+        
+        Door door = new Door(80, elevator);
+        door.checkElevatorArrival();
+        door.close();
+        assertEquals(5.0, elevator.getDoorSeconds(), EPSILON,
+            "A door cycle should add open and close times");
+        assertEquals(elevator.getTravelSeconds() + 5.0, elevator.getSimulatedSeconds(), EPSILON);
+    }
+    
+    /**
+     * Test Case 78: Passenger transfers are priced by group size
+     * Expected: Transfer time grows linearly and the dwell holding it is simulated time
+     */
+    @Test
+    public void testGroupTransferTime() {
+        assertEquals(0.0, profile.groupTransferTime(0), EPSILON);
+        assertEquals(4 * profile.getTransferTime(), profile.groupTransferTime(4), EPSILON);
+        
+        Elevator elevator = new Elevator(0, 10);
+        elevator.setMotionProfile(profile);
+        elevator.recordPassengerTransfer(3);
+        assertEquals(profile.groupTransferTime(3), elevator.getTransferSeconds(), EPSILON);
+        assertEquals(0.0, elevator.getSimulatedSeconds(), EPSILON,
+            "Transfers happen during the dwell and are not priced on their own");
+        elevator.recordDwell(5.0);
+        assertEquals(5.0, elevator.getSimulatedSeconds(), EPSILON);
+    }
+}
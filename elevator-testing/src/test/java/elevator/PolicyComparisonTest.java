@@ -0,0 +1,98 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for pluggable direction policies and their paired comparison
+ * Tests the built-in policies and the common random numbers evaluation
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class PolicyComparisonTest {
+    
+    /**
+     * Test Case 99: The nearest-stop policy heads for the closest pending floor
+     * Expected: Collective control keeps sweeping up, nearest-stop turns to the
+     * closer floor below, and a reset keeps the controller's policy
+     */
+    @Test
+    public void testNearestStopPolicy() {
+        Elevator collective = new Elevator(0, 9);
+        collective.setCurrentFloor(5);
+        collective.setDirection(Direction.UP);
+        collective.addDestination(9);
+        collective.addDestination(4);
+        assertEquals(StandardDirectionPolicy.COLLECTIVE, collective.getDirectionPolicy());
+        assertEquals(Direction.UP, collective.chooseDirection());
+        
+        Elevator nearest = new Elevator(0, 9);
+        nearest.setDirectionPolicy(StandardDirectionPolicy.NEAREST_STOP);
+        nearest.setCurrentFloor(5);
+        nearest.setDirection(Direction.UP);
+        nearest.addDestination(9);
+        nearest.addDestination(4);
+        assertEquals(Direction.DOWN, nearest.chooseDirection(), "Floor 4 is closer than floor 9");
+        
+        ElevatorController controller = new ElevatorController(6);
+        controller.setDirectionPolicy(StandardDirectionPolicy.fromName("nearest-stop"));
+        controller.reset();
+        assertEquals(StandardDirectionPolicy.NEAREST_STOP, controller.getElevator().getDirectionPolicy());
+        assertEquals("nearest-stop", controller.getDirectionPolicy().getName());
+    }
+    
+    /**
+     * Test Case 100: Policies run in lockstep on identical traffic
+     * Expected: A policy compared with itself differs by exactly zero, and the
+     * paired interval of two policies is narrower than the unpaired one
+     */
+    @Test
+    public void testPairedComparison() {
+        PolicyComparison same = new PolicyComparison(10, Arrays.asList(StandardDirectionPolicy.COLLECTIVE,
+                                                                        StandardDirectionPolicy.COLLECTIVE));
+        same.setSteps(1500);
+        PolicyComparison.Result identical = runSilenced(same, 3L, 3);
+        assertEquals(0.0, identical.getWaitDifference(1).getMean(), 0.0, "Same traffic, same policy, same waits");
+        assertEquals(0.0, identical.getWaitDifference(1).getHalfWidth(), 0.0);
+        assertFalse(identical.getWaitDifference(1).isSignificant());
+        
+        PolicyComparison comparison = new PolicyComparison(12, Arrays.asList(StandardDirectionPolicy.COLLECTIVE,
+                                                                              StandardDirectionPolicy.NEAREST_STOP));
+        comparison.setTraffic(TrafficProfile.INTERFLOOR, 0.08, 0.0);
+        comparison.setSteps(3000);
+        PolicyComparison.Result result = runSilenced(comparison, 1L, 6);
+        assertEquals(6, result.getReplications());
+        assertTrue(result.getMeanWait(0) > 0.0 && result.getMeanRide(1) > 0.0);
+        
+        PolicyComparison.Difference ride = result.getRideDifference(1);
+        assertEquals(result.getMeanRide(1) - result.getMeanRide(0), ride.getMean(), 1e-9);
+        assertTrue(ride.getHalfWidth() < ride.getIndependentHalfWidth(),
+                   "Common random numbers should narrow the interval: " + ride);
+        assertTrue(ride.getVarianceReduction() > 1.0);
+        
+        assertEquals(12.706, PolicyComparison.tQuantile975(1), 1e-9);
+        assertEquals(2.021, PolicyComparison.tQuantile975(40), 1e-3);
+    }
+    
+    /**
+     * Runs a comparison with the simulation log silenced
+     * 
+     * @param comparison the comparison to run
+     * @param seed the root seed
+     * @param replications the number of replications
+     * @return the result of the comparison
+     */
+    private static PolicyComparison.Result runSilenced(PolicyComparison comparison, long seed, int replications) {
+        PrintStream stdout = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            return comparison.run(seed, replications);
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+}
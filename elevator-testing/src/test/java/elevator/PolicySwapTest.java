@@ -0,0 +1,232 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for switching the direction policy at runtime
+ * Tests the atomic swap on a car and a group and the attribution of passenger KPIs to the policy
+ * active at each passenger's call
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class PolicySwapTest {
+    
+    /**
+     * Test Case 101: The policy is swapped from another thread while the car runs
+     * Expected: The next direction decision uses the new policy with the pending
+     * stops kept, and swaps racing the stepping thread lose no passenger
+     */
+    @Test
+    public void testSwapWhileStepping() throws Exception {
+        Elevator elevator = new Elevator(0, 9);
+        elevator.setCurrentFloor(5);
+        elevator.setDirection(Direction.UP);
+        elevator.addDestination(9);
+        elevator.addDestination(4);
+        assertEquals(Direction.UP, elevator.chooseDirection());
+        assertEquals(StandardDirectionPolicy.COLLECTIVE,
+                     elevator.swapDirectionPolicy(StandardDirectionPolicy.NEAREST_STOP));
+        assertEquals(Direction.DOWN, elevator.chooseDirection(), "Cached decision must not outlive the swap");
+        assertTrue(elevator.hasDestination(9) && elevator.hasDestination(4));
+        assertThrows(NullPointerException.class, () -> elevator.swapDirectionPolicy(null));
+        
+        PrintStream stdout = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            ElevatorController controller = new ElevatorController(12);
+            controller.setDoorOpenSteps(2);
+            controller.setRandom(new SimulationRandom(11L));
+            TrafficGenerator generator = new TrafficGenerator(TrafficProfile.INTERFLOOR, 12, 0.1, 0.0,
+                                                              new SimulationRandom(11L));
+            AtomicBoolean running = new AtomicBoolean(true);
+            int[] swaps = new int[1];
+            Thread swapper = new Thread(() -> {
+                while (running.get()) {
+                    controller.swapDirectionPolicy(swaps[0] % 2 == 0 ? StandardDirectionPolicy.NEAREST_STOP
+                                                                      : StandardDirectionPolicy.COLLECTIVE);
+                    swaps[0]++;
+                    Thread.yield();
+                }
+            });
+            swapper.start();
+            try {
+                for (int step = 0; step < 3000; step++) {
+                    generator.feed(controller);
+                    controller.step();
+                }
+            } finally {
+                running.set(false);
+                swapper.join();
+            }
+            for (int step = 0; step < 5000 && controller.getActiveUserCount() > 0; step++) {
+                controller.step();
+            }
+            
+            ControllerMetrics metrics = controller.getMetrics();
+            assertTrue(swaps[0] > 0);
+            assertEquals(swaps[0], metrics.getPolicySwaps());
+            assertEquals(0, controller.getActiveUserCount(), "Every pending call survives the swaps");
+            assertEquals(generator.getArrivalsGenerated(), metrics.getAlightings());
+            assertEquals(0, metrics.getConstraintViolations());
+            assertSame(controller.getDirectionPolicy(), controller.getElevator().getDirectionPolicy());
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+    
+    /**
+     * Test Case 102: Passenger KPIs are attributed to the policy active at their call
+     * Expected: Passengers keep the policy they called under after a swap, the
+     * runner reports each policy of a switched run, and a reset keeps the new policy
+     */
+    @Test
+    public void testPolicyAttribution() throws Exception {
+        PrintStream stdout = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            ElevatorController controller = new ElevatorController(10);
+            controller.setDoorOpenSteps(2);
+            controller.addArrival(7, 2, false);
+            controller.step();
+            assertEquals(StandardDirectionPolicy.COLLECTIVE,
+                         controller.swapDirectionPolicy(StandardDirectionPolicy.NEAREST_STOP));
+            controller.addArrival(3, 8, false);
+            controller.addArrival(4, 0, false);
+            for (int step = 0; step < 500 && controller.getActiveUserCount() > 0; step++) {
+                controller.step();
+            }
+            
+            ControllerMetrics metrics = controller.getMetrics();
+            assertEquals(0, controller.getActiveUserCount());
+            assertEquals(1, metrics.getPolicyWaitHistogram("collective").getCount());
+            assertEquals(1, metrics.getPolicyRideHistogram("collective").getCount());
+            assertEquals(2, metrics.getPolicyWaitHistogram("nearest-stop").getCount());
+            assertEquals(2, metrics.getPolicyRideHistogram("nearest-stop").getCount());
+            assertEquals(0, metrics.getPolicyWaitHistogram("unknown").getCount());
+            Map<String, Double> waits = metrics.getMeanWaitStepsByPolicy();
+            assertEquals(2, waits.size());
+            assertEquals(metrics.getPolicyWaitHistogram("collective").getMean(), waits.get("collective"), 1e-9);
+            assertEquals("nearest-stop", metrics.getDirectionPolicy());
+            assertEquals(1, metrics.getPolicySwaps());
+            
+            controller.reset();
+            assertEquals(StandardDirectionPolicy.NEAREST_STOP, controller.getElevator().getDirectionPolicy());
+        } finally {
+            System.setOut(stdout);
+        }
+        
+        String json = SimulationRunner.run(new String[] {"--floors", "10", "--cars", "2", "--steps", "3000",
+                                                         "--rate", "0.06",
+                                                         "--policy-switch", "1000:nearest-stop,2000:collective"});
+        assertTrue(json.contains("\"policySwaps\":2"), json);
+        assertTrue(json.contains("\"policies\":{\"collective\":{\"boarded\":"), json);
+        assertTrue(json.contains("\"nearest-stop\":{\"boarded\":"), json);
+        assertTrue(json.endsWith(",\"constraintViolations\":0}"), json);
+        assertThrows(IllegalArgumentException.class,
+                     () -> SimulationRunner.run(new String[] {"--policy-switch", "500"}));
+        assertThrows(IllegalArgumentException.class,
+                     () -> SimulationRunner.run(new String[] {"--policy-switch", "5:collective,5:nearest-stop"}));
+    }
+    
+    /**
+     * Test Case 107: A group's policy is swapped from another thread while it steps
+     * Expected: All cars of a group step use the same policy, each swap returns
+     * the group's previous policy and is counted once per group
+     */
+    @Test
+    public void testGroupSwapsBetweenSteps() throws Exception {
+        PrintStream stdout = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            ElevatorGroup group = new ElevatorGroup(12, 3);
+            group.setDoorOpenSteps(2);
+            group.setRandom(new SimulationRandom(13L));
+            Map<Long, Set<String>> policiesByStep = new HashMap<>();
+            DirectionPolicy first = recording("first", StandardDirectionPolicy.COLLECTIVE, group, policiesByStep);
+            DirectionPolicy second = recording("second", StandardDirectionPolicy.NEAREST_STOP, group, policiesByStep);
+            group.setDirectionPolicy(first);
+            TrafficGenerator generator = new TrafficGenerator(TrafficProfile.INTERFLOOR, 12, 0.3, 0.0,
+                                                              new SimulationRandom(13L));
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicReference<String> mismatch = new AtomicReference<>();
+            int[] swaps = new int[1];
+            Thread swapper = new Thread(() -> {
+                DirectionPolicy current = first;
+                while (running.get()) {
+                    DirectionPolicy next = current == first ? second : first;
+                    DirectionPolicy previous = group.swapDirectionPolicy(next);
+                    if (previous != current) {
+                        mismatch.set("Swap " + swaps[0] + " replaced " + previous.getName());
+                    }
+                    current = next;
+                    swaps[0]++;
+                    Thread.yield();
+                }
+            });
+            swapper.start();
+            try {
+                for (int step = 0; step < 2000; step++) {
+                    generator.feed(group);
+                    group.step();
+                }
+            } finally {
+                running.set(false);
+                swapper.join();
+            }
+            for (int step = 0; step < 5000 && group.getActiveUserCount() > 0; step++) {
+                group.step();
+            }
+            
+            assertNull(mismatch.get());
+            assertTrue(swaps[0] > 0);
+            assertEquals(swaps[0], group.getPolicySwaps());
+            for (Map.Entry<Long, Set<String>> entry : policiesByStep.entrySet()) {
+                assertEquals(1, entry.getValue().size(), "Cars of step " + entry.getKey() + " used " + entry.getValue());
+            }
+            assertEquals(0, group.getActiveUserCount());
+            for (ElevatorController car : group.getCars()) {
+                assertSame(group.getDirectionPolicy(), car.getDirectionPolicy());
+                assertSame(group.getDirectionPolicy(), car.getElevator().getDirectionPolicy());
+                assertEquals(swaps[0], car.getMetrics().getPolicySwaps());
+            }
+            assertThrows(NullPointerException.class, () -> group.swapDirectionPolicy(null));
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+    
+    /**
+     * Creates a policy that records which group step each decision was made in
+     * 
+     * @param name the name of the policy
+     * @param delegate the policy making the decisions
+     * @param group the group whose steps are recorded
+     * @param policiesByStep the policies used, by group step
+     * @return the recording policy
+     */
+    private static DirectionPolicy recording(String name, DirectionPolicy delegate, ElevatorGroup group,
+                                             Map<Long, Set<String>> policiesByStep) {
+        return new DirectionPolicy() {
+            @Override
+            public Direction chooseDirection(Elevator elevator) {
+                policiesByStep.computeIfAbsent(group.getStepsExecuted(), step -> new HashSet<>()).add(name);
+                return delegate.chooseDirection(elevator);
+            }
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package elevator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the incremental safety monitor
+ * Tests that constraint violations are detected from state transitions
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class SafetyMonitorTest {
+    
+    private Elevator elevator;
+    private SafetyMonitor monitor;
+    private List<ConstraintViolation> reported;
+    
+    @BeforeEach
+    public void setUp() {
+        elevator = new Elevator(0, 5);
+        monitor = new SafetyMonitor(6);
+        elevator.addListener(monitor);
+        reported = new ArrayList<>();
+        monitor.addViolationListener(reported::add);
+    }
+    
+    /**
+     * Test Case 45: Door open while moving is reported with the step number
+     * Expected: One DOOR_OPEN_WHILE_MOVING event stamped with the current step
+     */
+    @Test
+    public void testDoorOpenWhileMovingReported() {
+        Door door = new Door(1, elevator);
+        door.open();
+        
+        monitor.setCurrentStep(7);
+        elevator.setDirection(Direction.UP);
+        elevator.move();
+        
+        assertEquals(1, reported.size(), "Departure with an open door should be reported");
+        ConstraintViolation violation = reported.get(0);
+        assertEquals(ConstraintViolation.Type.DOOR_OPEN_WHILE_MOVING, violation.getType());
+        assertEquals(7, violation.getStep(), "Violation should carry the step number");
+        assertEquals(1, violation.getFloor(), "Violation should name the open door");
+        door.forceClose();
+    }
+    
+    /**
+     * Test Case 46: Two open doors are reported
+     * Expected: MULTIPLE_DOORS_OPEN event when the second door opens
+     */
+    @Test
+    public void testMultipleDoorsOpenReported() {
+        Door door1 = new Door(1, elevator);
+        Door door2 = new Door(2, elevator);
+        
+        door1.open();
+        assertTrue(reported.isEmpty(), "A single open door is allowed");
+        
+        door2.open();
+        assertEquals(1, reported.size());
+        assertEquals(ConstraintViolation.Type.MULTIPLE_DOORS_OPEN, reported.get(0).getType());
+        assertEquals(2, monitor.getOpenDoorCount());
+        
+        door1.forceClose();
+        door2.forceClose();
+        assertEquals(0, monitor.getOpenDoorCount(), "Closing doors should update the count");
+    }
+    
+    /**
+     * Test Case 47: Normal door cycle produces no violations
+     * Expected: Open door is tracked and released on close
+     */
+    @Test
+    public void testNormalCycleHasNoViolations() {
+        Door door = new Door(0, elevator);
+        elevator.stop();
+        door.checkElevatorArrival();
+        
+        assertEquals(0, monitor.getOpenDoorFloor(), "Monitor should track the open door");
+        door.close();
+        assertEquals(-1, monitor.getOpenDoorFloor(), "No door should be open after closing");
+        
+        elevator.setDirection(Direction.UP);
+        elevator.move();
+        assertTrue(monitor.isMoving(), "Monitor should see the elevator moving");
+        assertEquals(0, monitor.getViolationCount(), "No violations expected");
+    }
+    
+    /**
+     * Test Case 48: Controller validates constraints through the monitor
+     * Expected: Violations from controller doors are visible in validateConstraints
+     */
+    @Test
+    public void testControllerUsesMonitor() {
+        ElevatorController controller = new ElevatorController(4);
+        assertTrue(controller.validateConstraints().isEmpty(), "No violations initially");
+        
+        controller.getDoorAtFloor(1).open();
+        controller.getDoorAtFloor(3).open();
+        
+        List<String> violations = controller.validateConstraints();
+        assertEquals(1, violations.size(), "Two open doors should be one violation");
+        assertEquals(1, controller.getSafetyMonitor().getViolationCount());
+        
+        controller.getDoorAtFloor(1).forceClose();
+        controller.getDoorAtFloor(3).forceClose();
+        assertTrue(controller.validateConstraints().isEmpty(), "Constraints restored");
+    }
+}
@@ -0,0 +1,102 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the streaming scenario loader
+ * Tests parsing across mapping windows, timed feeding and replay
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class ScenarioLoaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    /**
+     * Test Case 65: Arrivals are fed when the controller reaches their step
+     * Expected: Lines split across small mapping windows parse correctly and
+     * users join the controller only once their step is due
+     */
+    @Test
+    public void testArrivalsFedAtTheirStep() throws IOException {
+        Path file = write("# recorded workload\r\n",
+                          "floors 6\r\n",
+                          "\n",
+                          "0 0 4\r\n",
+                          "2 5 1 0 # lobby bound\n",
+                          "2 3 2 1\n");
+        ElevatorController controller = new ElevatorController(6);
+        
+        try (ScenarioLoader loader = new ScenarioLoader(file, 7)) {
+            assertEquals(6, loader.getNumberOfFloors());
+            assertEquals(1, loader.feed(controller), "Step 0 arrival should be fed immediately");
+            assertTrue(controller.getElevator().hasCallAtFloor(0, Direction.UP));
+            
+            controller.step();
+            assertEquals(0, loader.feed(controller), "Step 2 arrivals are not due yet");
+            controller.step();
+            assertEquals(2, loader.feed(controller));
+            assertTrue(controller.getElevator().hasCallAtFloor(5, Direction.DOWN));
+            assertFalse(loader.hasRemaining());
+            assertEquals(3, loader.getArrivalsLoaded());
+        }
+    }
+    
+    /**
+     * Test Case 66: A scenario replays until every passenger is served
+     * Expected: Served users are removed from the controller
+     */
+    @Test
+    public void testReplayServesAllArrivals() throws IOException {
+        Path file = write("floors 5\n", "0 0 3\n", "1 4 0\n");
+        ElevatorController controller = new ElevatorController(5);
+        
+        try (ScenarioLoader loader = new ScenarioLoader(file)) {
+            int steps = 0;
+            while ((loader.hasRemaining() || controller.getActiveUserCount() > 0) && steps < 100) {
+                loader.feed(controller);
+                controller.step();
+                // Close the door instead of waiting for its timer
+                Door door = controller.getDoorAtFloor(controller.getElevator().getCurrentFloor());
+                if (door.isOpen()) {
+                    door.close();
+                }
+                steps++;
+            }
+            assertTrue(steps < 100, "Replay should finish before the step budget");
+            assertEquals(0, controller.getActiveUserCount(), "Served users should be dropped");
+            assertEquals(2, controller.getElevator().getMetrics().getAlightings());
+        }
+    }
+    
+    /**
+     * Test Case 67: Invalid scenarios are rejected with the line number
+     * Expected: Unsorted arrivals raise IllegalArgumentException
+     */
+    @Test
+    public void testUnsortedArrivalsRejected() throws IOException {
+        Path file = write("floors 4\n", "5 0 3\n", "2 1 0\n");
+        ElevatorController controller = new ElevatorController(4);
+        controller.run(6);
+        
+        try (ScenarioLoader loader = new ScenarioLoader(file)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> loader.feed(controller));
+            assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+        }
+    }
+    
+    private Path write(String... lines) throws IOException {
+        Path file = tempDir.resolve("scenario.txt");
+        Files.write(file, String.join("", lines).getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
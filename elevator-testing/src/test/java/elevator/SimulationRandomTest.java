@@ -0,0 +1,82 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the splittable random hierarchy
+ * Tests reproducibility and independence of derived streams
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class SimulationRandomTest {
+    
+    /**
+     * Test Case 71: Derived seeds depend only on the root seed and the path
+     * Expected: Equal paths give equal streams, different names and roots differ
+     */
+    @Test
+    public void testDerivationIsDeterministic() {
+        SimulationRandom root = new SimulationRandom(42L);
+        SimulationRandom again = new SimulationRandom(42L);
+        
+        assertEquals(root.subsystem("traffic").getSeed(), again.subsystem("traffic").getSeed());
+        assertNotEquals(root.subsystem("traffic").getSeed(), root.subsystem("passengers").getSeed());
+        assertNotEquals(root.subsystem("traffic").getSeed(),
+                        new SimulationRandom(43L).subsystem("traffic").getSeed());
+        
+        // Passenger seeds do not depend on the order they are requested in
+        SimulationRandom passengers = root.subsystem("passengers");
+        long seventh = passengers.childSeed(7);
+        passengers.childSeed(3);
+        assertEquals(seventh, again.subsystem("passengers").childSeed(7));
+        assertNotEquals(seventh, passengers.childSeed(8));
+        
+        SplittableRandom first = root.subsystem("traffic").newGenerator();
+        SplittableRandom second = again.subsystem("traffic").newGenerator();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+    
+    /**
+     * Test Case 72: Stateless draws stay within bounds and are spread out
+     * Expected: Every value of a small bound is drawn and the same draw repeats
+     */
+    @Test
+    public void testStatelessDraws() {
+        long seed = new SimulationRandom(5L).childSeed(0);
+        int[] counts = new int[8];
+        for (int draw = 0; draw < 8000; draw++) {
+            int value = SimulationRandom.draw(seed, draw, 8);
+            assertTrue(value >= 0 && value < 8);
+            counts[value]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1200, "Draws should be roughly uniform: " + count);
+        }
+        assertEquals(SimulationRandom.draw(seed, 17, 400), SimulationRandom.draw(seed, 17, 400));
+    }
+    
+    /**
+     * Test Case 73: Runs with the same seed produce the same results
+     * Expected: Identical passenger KPIs for equal seeds, different ones otherwise
+     */
+    @Test
+    public void testRunsAreReproducible() throws IOException {
+        String[] args = {"--steps", "3000", "--rate", "0.08", "--distracted", "0.1", "--seed", "11"};
+        String first = withoutTimings(SimulationRunner.run(args));
+        String second = withoutTimings(SimulationRunner.run(args));
+        assertEquals(first, second, "Same seed should reproduce the run");
+        
+        args[args.length - 1] = "12";
+        assertNotEquals(first, withoutTimings(SimulationRunner.run(args)));
+    }
+    
+    private static String withoutTimings(String summary) {
+        return summary.replaceAll("\"(elapsedSeconds|stepsPerSecond|seed)\":[0-9.]+,", "");
+    }
+}
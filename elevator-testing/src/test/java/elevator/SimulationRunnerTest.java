@@ -0,0 +1,87 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the command-line simulation runner
+ * Tests generated traffic runs, scenario replay and option validation
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class SimulationRunnerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    /**
+     * Test Case 68: A generated up-peak run serves passengers headlessly
+     * Expected: The JSON summary reports the full step budget and handled passengers
+     */
+    @Test
+    public void testGeneratedTrafficSummary() throws IOException {
+        String summary = SimulationRunner.run(new String[] {
+            "--floors", "8", "--steps", "2000", "--seed", "7", "--traffic", "up-peak", "--rate", "0.05"
+        });
+        
+        assertTrue(summary.startsWith("{\"floors\":8,"), summary);
+        assertTrue(summary.contains("\"steps\":2000,"), summary);
+        assertTrue(summary.contains("\"traffic\":\"up-peak\""), summary);
+        assertTrue(summary.contains("\"constraintViolations\":0}"), summary);
+        assertTrue(numberField(summary, "handled") > 0, "Passengers should be delivered");
+        assertTrue(numberField(summary, "waitP95") >= numberField(summary, "waitP50"));
+    }
+    
+    /**
+     * Test Case 69: A recorded scenario is replayed until every passenger is served
+     * Expected: The run stops early and the summary file matches the printed summary
+     */
+    @Test
+    public void testScenarioReplaySummary() throws IOException {
+        Path scenario = tempDir.resolve("scenario.txt");
+        Files.write(scenario, "floors 6\n0 0 5\n3 4 1\n3 2 0 0\n".getBytes(StandardCharsets.US_ASCII));
+        Path summaryFile = tempDir.resolve("summary.json");
+        
+        String summary = SimulationRunner.run(new String[] {
+            "--scenario", scenario.toString(), "--mode", "express", "--summary", summaryFile.toString()
+        });
+        
+        assertEquals(3, numberField(summary, "arrivals"));
+        assertEquals(3, numberField(summary, "handled"), "Every passenger should be served");
+        assertTrue(numberField(summary, "steps") < 10000, "Replay should stop once the scenario is done");
+        assertEquals(summary, new String(Files.readAllBytes(summaryFile), StandardCharsets.UTF_8).trim());
+    }
+    
+    /**
+     * Test Case 70: Invalid options are rejected
+     * Expected: IllegalArgumentException for unknown profiles, options, car counts and multi-car express runs
+     */
+    @Test
+    public void testInvalidOptionsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationRunner.run(new String[] {"--traffic", "lunch"}));
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationRunner.run(new String[] {"--speed", "3"}));
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationRunner.run(new String[] {"--steps"}));
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationRunner.run(new String[] {"--cars", "0"}));
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationRunner.run(new String[] {"--cars", "2", "--mode", "express"}));
+    }
+    
+    private static double numberField(String json, String name) {
+        int start = json.indexOf("\"" + name + "\":") + name.length() + 3;
+        int end = start;
+        while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+            end++;
+        }
+        return Double.parseDouble(json.substring(start, end));
+    }
+}
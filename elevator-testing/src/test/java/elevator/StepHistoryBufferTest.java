@@ -0,0 +1,147 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the off-heap ring buffer of recent steps
+ * Tests wrap-around, allocation-free recording and dumps on violations
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class StepHistoryBufferTest {
+    
+    /**
+     * Test Case 88: The buffer keeps the most recent steps and records without allocating
+     * Expected: Only the last capacity steps are readable, oldest first, and recording allocates nothing
+     */
+    @Test
+    public void testRingKeepsRecentSteps() throws IOException {
+        ElevatorController controller = new ElevatorController(6);
+        controller.setDoorOpenSteps(2);
+        controller.setRandom(new SimulationRandom(4L));
+        StepHistoryBuffer history = new StepHistoryBuffer(50, 6);
+        controller.setStepHistory(history, null);
+        
+        controller.addArrival(3, 5, false);
+        controller.addArrival(3, 0, false);
+        for (int i = 0; i < 120; i++) {
+            controller.step();
+        }
+        
+        assertEquals(120, history.getRecordedCount());
+        assertEquals(50, history.size());
+        assertEquals(71, history.getStep(0), "Oldest kept step");
+        assertEquals(120, history.getStep(49), "Newest kept step");
+        assertEquals(controller.getElevator().getCurrentFloor(), history.getFloor(49));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getStep(50));
+        
+        StringWriter dump = new StringWriter();
+        history.dump(dump);
+        String[] lines = dump.toString().split("\n");
+        assertEquals(51, lines.length, "Header and one line per kept step");
+        assertTrue(lines[1].startsWith("71 "));
+        assertEquals(2 + 4 + 6, lines[50].split(" ").length);
+        
+        // Recording is allocation free once warmed up
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+            long threadId = Thread.currentThread().getId();
+            for (int i = 0; i < 20000; i++) {
+                history.record(controller);
+            }
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100000; i++) {
+                history.record(controller);
+            }
+            long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+            assertTrue(allocated < 100000, "Recording should not allocate per step: " + allocated + " bytes");
+        }
+    }
+    
+    /**
+     * Test Case 89: A failed constraint check dumps the recent history once
+     * Expected: One dump file per violating step with the kept steps
+     */
+    @Test
+    public void testHistoryDumpedOnViolation(@TempDir Path directory) throws IOException {
+        ElevatorController controller = new ElevatorController(5);
+        controller.setDoorOpenSteps(3);
+        StepHistoryBuffer history = new StepHistoryBuffer(16, 5);
+        controller.setStepHistory(history, directory);
+        for (int i = 0; i < 10; i++) {
+            controller.step();
+        }
+        assertTrue(controller.validateConstraints().isEmpty());
+        assertEquals(0, countFiles(directory));
+        
+        // Force a second door open behind the controller's back
+        controller.getDoorAtFloor(0).open();
+        controller.getDoorAtFloor(3).open();
+        assertFalse(controller.validateConstraints().isEmpty());
+        assertFalse(controller.validateConstraints().isEmpty());
+        
+        assertEquals(1, countFiles(directory), "History should be dumped once per step");
+        Path file = directory.resolve("step-history-" + controller.getName() + "-10.txt");
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(11, lines.size());
+        assertTrue(lines.get(10).startsWith("10 "));
+    }
+    
+    /**
+     * Test Case 108: A violation caught by the safety monitor dumps the history
+     * Expected: The step during which the monitor reported the violation writes
+     * a dump without validateConstraints being called, and later steps without
+     * a violation write none
+     */
+    @Test
+    public void testHistoryDumpedOnMonitoredViolation(@TempDir Path directory) throws IOException {
+        ElevatorController controller = new ElevatorController(5);
+        controller.setDoorOpenSteps(3);
+        controller.setStepHistory(new StepHistoryBuffer(16, 5), directory);
+        for (int i = 0; i < 10; i++) {
+            controller.step();
+        }
+        assertEquals(0, countFiles(directory));
+        
+        // Force a second door open behind the controller's back
+        controller.getDoorAtFloor(0).open();
+        controller.getDoorAtFloor(3).open();
+        assertEquals(1, controller.getSafetyMonitor().getViolationCount());
+        controller.step();
+        Path file = directory.resolve("step-history-" + controller.getName() + "-11.txt");
+        assertTrue(Files.exists(file), "The monitored violation should dump the history");
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.get(lines.size() - 1).startsWith("11 "));
+        
+        for (int i = 0; i < 5; i++) {
+            controller.step();
+        }
+        assertEquals(1, controller.getSafetyMonitor().getViolationCount());
+        assertEquals(1, countFiles(directory), "Steps without a violation should not dump");
+    }
+    
+    /**
+     * Counts the files in a directory
+     * 
+     * @param directory the directory
+     * @return number of files
+     * @throws IOException if the directory cannot be listed
+     */
+    private long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.counting());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the columnar per-step state exporter
+ * Tests that the written blocks decode back to the recorded states
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class StepStateExporterTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    /**
+     * Test Case 64: Exported steps decode to the controller state
+     * Expected: One row per step across full and partial blocks, with floor,
+     * direction and queue length columns matching the run
+     */
+    @Test
+    public void testExportedColumnsDecode() throws IOException {
+        Path file = tempDir.resolve("state.bin");
+        ElevatorController controller = new ElevatorController(5);
+        StepStateExporter exporter = new StepStateExporter(file, 5, 2);
+        controller.setStateExporter(exporter);
+        
+        User user = new User(3, 0, Direction.DOWN);
+        user.setDistracted(false);
+        controller.addUser(user);
+        user.callElevator(controller.getElevator());
+        
+        int[] expectedFloors = new int[3];
+        for (int i = 0; i < 3; i++) {
+            controller.step();
+            expectedFloors[i] = controller.getElevator().getCurrentFloor();
+        }
+        exporter.close();
+        assertEquals(3, exporter.getRowsWritten());
+        
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(StepStateExporter.MAGIC, data.getInt());
+        assertEquals(StepStateExporter.VERSION, data.getShort());
+        assertEquals(5, data.getShort());
+        
+        int row = 0;
+        while (data.hasRemaining()) {
+            int rows = data.getInt();
+            int[] steps = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                steps[i] = data.getInt();
+            }
+            for (int i = 0; i < rows; i++) {
+                assertEquals(expectedFloors[row + i], data.getShort(), "Floor column");
+            }
+            for (int i = 0; i < rows; i++) {
+                assertEquals(1, data.get(), "Direction column should be UP while travelling to the call");
+            }
+            data.position(data.position() + rows); // stopped column
+            data.position(data.position() + 2 * rows); // open door column
+            for (int floor = 0; floor < 5; floor++) {
+                for (int i = 0; i < rows; i++) {
+                    assertEquals(floor == 3 ? 1 : 0, data.getShort(), "Queue length column of floor " + floor);
+                }
+            }
+            for (int i = 0; i < rows; i++) {
+                assertEquals(row + i + 1, steps[i], "Step column");
+            }
+            row += rows;
+        }
+        assertEquals(3, row, "Every step should be exported once");
+    }
+    
+    /**
+     * Test Case 103: A flush interrupted while waiting for the writer keeps the block
+     * Expected: The interrupt flag is restored, later rows are still recorded, an
+     * interrupted close still stops the writer and every row reaches the file in order
+     */
+    @Test
+    public void testInterruptDuringFlush() throws IOException {
+        Path file = tempDir.resolve("interrupted.bin");
+        ElevatorController controller = new ElevatorController(4);
+        StepStateExporter exporter = new StepStateExporter(file, 4, 2);
+        
+        exporter.record(controller);
+        Thread.currentThread().interrupt();
+        exporter.record(controller); // fills the block and flushes it while interrupted
+        assertTrue(Thread.interrupted(), "The interrupt must be restored for the caller");
+        for (int i = 0; i < 3; i++) {
+            exporter.record(controller);
+        }
+        Thread.currentThread().interrupt();
+        try {
+            exporter.close(); // flushes the partial block and joins the writer while interrupted
+        } finally {
+            assertTrue(Thread.interrupted(), "The interrupt must be restored for the caller");
+        }
+        assertEquals(5, exporter.getRowsWritten());
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            assertFalse(thread.getName().equals("elevator-state-exporter") && thread.isAlive(),
+                        "The writer thread must be joined by close");
+        }
+        
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        data.position(8); // header
+        int row = 0;
+        while (data.hasRemaining()) {
+            int rows = data.getInt();
+            assertTrue(rows >= 1 && rows <= 2, "Block row count: " + rows);
+            data.position(data.position() + rows * (4 + 2 + 1 + 1 + 2 + 2 * 4));
+            row += rows;
+        }
+        assertEquals(5, row, "No row lost or duplicated by the interrupt");
+    }
+}
@@ -2,6 +2,7 @@ package elevator;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -265,6 +266,74 @@ public class SystemIntegrationTest {
             "System should handle load efficiently (took " + duration + "ms)");
     }
     
+    /**
+     * Test Case 52: Express mode accounts for travel time in steps
+     * Expected: One controller step covers the trip and advances the step counter per floor
+     */
+    @Test
+    public void testExpressModeAdvancesStepsPerFloor() {
+        ElevatorController expressController = new ElevatorController(10);
+        Elevator expressElevator = expressController.getElevator();
+        expressController.setExpressMode(true);
+        expressElevator.addDestination(7);
+        
+        expressController.step();
+        
+        assertEquals(7, expressElevator.getCurrentFloor(), 
+            "Elevator should reach the destination in one step");
+        assertTrue(expressElevator.isStopped(), "Elevator should stop at the destination");
+        assertEquals(7, expressController.getCurrentStep(), 
+            "Step counter should advance by the floors travelled");
+        assertTrue(expressController.validateConstraints().isEmpty(), 
+            "Express move should not violate door constraints");
+        expressController.getDoorAtFloor(7).forceClose();
+    }
+    
+    /**
+     * Test Case 77: Waiting passengers board as one group
+     * Expected: The whole lobby queue boards in one step, distracted users stay,
+     * the group transfer time is accounted once, no user sleeps an entry delay
+     * and the door close timer is never re-armed. The doors run on timers with
+     * a dwell far longer than the test: boarding one user at a time slept
+     * several seconds here (seed 2) and re-armed the timer
+     */
+    @Test
+    public void testLobbyQueueBoardsAsGroup() {
+        ElevatorController lobbyController = new ElevatorController(8);
+        lobbyController.setRandom(new SimulationRandom(2L));
+        lobbyController.setDwellPolicy(new DwellPolicy(60000, 60000, 0, 0, 0));
+        assertEquals(0, lobbyController.getDoorOpenSteps(), "Doors should close on their timers");
+        List<User> queue = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            queue.add(lobbyController.addArrival(0, 1 + i % 7, false));
+        }
+        queue.add(lobbyController.addArrival(0, 7, true));
+        
+        Door lobbyDoor = lobbyController.getDoorAtFloor(0);
+        try {
+            lobbyController.step();
+            
+            Elevator lobbyElevator = lobbyController.getElevator();
+            assertEquals(9, lobbyElevator.getMetrics().getPassengers(), "Nine users should board together");
+            assertEquals(1, lobbyController.getWaitingCount(0), "The distracted user should still wait");
+            assertEquals(lobbyElevator.getMotionProfile().groupTransferTime(9), 
+                lobbyElevator.getTransferSeconds(), 1e-9, "Group boarding time should be accounted once");
+            for (User user : queue) {
+                assertEquals(0, user.getEntryDelayMillis(), "Boarding should not sleep per user");
+            }
+            assertEquals(0, lobbyController.getMetrics().getDoorTimerRearms(), 
+                "Boarding should not re-arm the door timer");
+            
+            // Nobody is left entering, so the pending dwell timer closes the door without a re-arm
+            assertTrue(lobbyDoor.isOpen());
+            assertFalse(lobbyDoor.isUserCurrentlyEntering());
+            assertTrue(lobbyDoor.getCloseDelayMillis() > 30000, "The door should wait for the policy dwell");
+        } finally {
+            lobbyDoor.forceClose();
+        }
+        assertEquals(0, lobbyController.getMetrics().getDoorTimerRearms());
+    }
+    
     /**
      * Helper method to check if any door is open
      */
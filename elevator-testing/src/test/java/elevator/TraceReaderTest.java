@@ -0,0 +1,213 @@
+package elevator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the delta-encoded trace format
+ * Tests that traces decode to the recorded states, seek and compress well
+ * 
+ * @author FERKIOUI Akram, BOUSSEKINE Mohamed Ismail, HAMMOUTI Walid, BOUDISSA Farouk Radouane
+ * @version 1.0
+ */
+public class TraceReaderTest {
+    private static final int FLOORS = 12;
+    
+    /**
+     * Runs a traced simulation and keeps the expected state of every step
+     * 
+     * @param file the trace file
+     * @param steps number of steps
+     * @param keyframeInterval steps between keyframes
+     * @param expected receives floor, direction, open door, call bits, destination bits,
+     *                 boardings and alightings per step
+     * @param rate mean arrivals per step
+     * @return the trace writer after closing
+     * @throws IOException if the trace cannot be written
+     */
+    private TraceWriter runTraced(Path file, int steps, int keyframeInterval, long[][] expected,
+                                  double rate) throws IOException {
+        ElevatorController controller = new ElevatorController(FLOORS);
+        SimulationRandom random = new SimulationRandom(21L);
+        controller.setRandom(random);
+        controller.setDoorOpenSteps(2);
+        TrafficGenerator traffic = new TrafficGenerator(TrafficProfile.MIXED, FLOORS, rate, 0.0, random);
+        TraceWriter writer = new TraceWriter(file, FLOORS, keyframeInterval);
+        controller.setTraceWriter(writer);
+        long boarded = 0;
+        long alighted = 0;
+        for (int i = 0; i < steps; i++) {
+            traffic.feed(controller);
+            controller.step();
+            if (expected != null) {
+                Elevator car = controller.getElevator();
+                long callBits = 0;
+                long destinationBits = 0;
+                for (int f = 0; f < FLOORS; f++) {
+                    callBits |= car.hasCallAtFloor(f, Direction.UP) ? 1L << (2 * f) : 0;
+                    callBits |= car.hasCallAtFloor(f, Direction.DOWN) ? 1L << (2 * f + 1) : 0;
+                    destinationBits |= car.hasDestination(f) ? 1L << f : 0;
+                }
+                int step = controller.getCurrentStep();
+                long boardings = car.getMetrics().getBoardings();
+                long alightings = car.getMetrics().getAlightings();
+                expected[step] = new long[] {car.getCurrentFloor(), car.getDirection().ordinal(),
+                                             controller.getSafetyMonitor().getOpenDoorFloor(),
+                                             callBits, destinationBits,
+                                             boardings - boarded, alightings - alighted};
+                boarded = boardings;
+                alighted = alightings;
+            }
+        }
+        writer.close();
+        return writer;
+    }
+    
+    /**
+     * Checks the decoded state against the expected one
+     * 
+     * @param reader the reader positioned at a step
+     * @param expected the expected states
+     */
+    private void assertState(TraceReader reader, long[][] expected) {
+        long[] state = expected[reader.getStep()];
+        String where = "step " + reader.getStep();
+        assertEquals(state[0], reader.getFloor(), where);
+        assertEquals(state[1], reader.getDirection().ordinal(), where);
+        assertEquals(state[2], reader.getOpenDoorFloor(), where);
+        for (int f = 0; f < FLOORS; f++) {
+            assertEquals((state[3] & 1L << (2 * f)) != 0, reader.hasCall(f, Direction.UP), where);
+            assertEquals((state[3] & 1L << (2 * f + 1)) != 0, reader.hasCall(f, Direction.DOWN), where);
+            assertEquals((state[4] & 1L << f) != 0, reader.hasDestination(f), where);
+        }
+        assertEquals(state[5], reader.getBoardings(), where);
+        assertEquals(state[6], reader.getAlightings(), where);
+    }
+    
+    /**
+     * Test Case 90: A trace decodes to the recorded state of every step
+     * Expected: Sequential reading and random seeks, across keyframes, give the recorded states,
+     * including the boardings and alightings of keyframe steps, and a reset controller keeps
+     * stepping with its trace detached
+     */
+    @Test
+    public void testTraceRoundTrip(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("run.trace");
+        int steps = 20000;
+        long[][] expected = new long[steps + 1][];
+        runTraced(file, steps, 1000, expected, 0.1);
+        
+        try (TraceReader reader = new TraceReader(file)) {
+            assertEquals(FLOORS, reader.getNumberOfFloors());
+            assertEquals(1, reader.getFirstStep());
+            assertEquals(steps, reader.getLastStep());
+            assertEquals(20, reader.getBlockCount());
+            
+            // Sequential: every change matches and steps between changes keep the state
+            int changes = 0;
+            int previous = 0;
+            while (reader.next()) {
+                assertTrue(reader.getStep() > previous);
+                for (int s = previous + 1; s < reader.getStep() && previous > 0; s++) {
+                    assertArrayEquals(Arrays.copyOf(expected[previous], 5), Arrays.copyOf(expected[s], 5),
+                                      "Unchanged step " + s);
+                    assertEquals(0, expected[s][5] + expected[s][6], "No passenger event at step " + s);
+                }
+                assertState(reader, expected);
+                previous = reader.getStep();
+                changes++;
+            }
+            assertTrue(changes < steps, "Unchanged steps should not be stored");
+            
+            // Random access, backwards and forwards
+            SplittableRandom random = new SplittableRandom(3L);
+            for (int i = 0; i < 300; i++) {
+                int step = 1 + random.nextInt(steps);
+                assertTrue(reader.seek(step));
+                assertEquals(step, reader.getStep());
+                assertState(reader, expected);
+            }
+            assertTrue(reader.seek(1000));
+            assertState(reader, expected);
+            assertTrue(reader.seek(1001));
+            assertState(reader, expected);
+            assertFalse(reader.seek(0));
+            assertFalse(reader.seek(steps + 1));
+        }
+        
+        // With a keyframe at every step all passenger events are stored in keyframes
+        Path keyframes = directory.resolve("keyframes.trace");
+        int shortRun = 2000;
+        long[][] keyframeExpected = new long[shortRun + 1][];
+        runTraced(keyframes, shortRun, 1, keyframeExpected, 0.1);
+        long expectedEvents = 0;
+        for (int s = 1; s <= shortRun; s++) {
+            expectedEvents += keyframeExpected[s][5] + keyframeExpected[s][6];
+        }
+        assertTrue(expectedEvents > 0);
+        long decodedEvents = 0;
+        try (TraceReader reader = new TraceReader(keyframes)) {
+            assertEquals(shortRun, reader.getBlockCount());
+            while (reader.next()) {
+                assertState(reader, keyframeExpected);
+                decodedEvents += reader.getBoardings() + reader.getAlightings();
+            }
+        }
+        assertEquals(expectedEvents, decodedEvents, "Boardings and alightings at keyframe steps must be kept");
+        
+        // A reset detaches the writer, so the controller keeps stepping and the trace
+        // holds the run before the reset
+        Path resetFile = directory.resolve("reset.trace");
+        ElevatorController controller = new ElevatorController(FLOORS);
+        TraceWriter writer = new TraceWriter(resetFile, FLOORS);
+        controller.setTraceWriter(writer);
+        controller.step();
+        controller.step();
+        controller.reset();
+        assertNull(controller.getTraceWriter());
+        controller.step();
+        assertEquals(1, controller.getCurrentStep());
+        assertEquals(2, writer.getStepsRecorded());
+        writer.close();
+        try (TraceReader reader = new TraceReader(resetFile)) {
+            assertTrue(reader.seek(2));
+            assertFalse(reader.seek(3));
+        }
+        assertThrows(IllegalStateException.class, () -> {
+            try (TraceWriter reused = new TraceWriter(directory.resolve("reused.trace"), FLOORS)) {
+                ElevatorController traced = new ElevatorController(FLOORS);
+                traced.step();
+                reused.record(traced);
+                reused.record(traced);
+            }
+        });
+    }
+    
+    /**
+     * Test Case 91: Long traces are far smaller than full per-step states
+     * Expected: Less than one byte per step under moderate traffic
+     */
+    @Test
+    public void testTraceCompression(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("long.trace");
+        int steps = 300000;
+        TraceWriter writer = runTraced(file, steps, 4096, null, 0.02);
+        
+        long size = Files.size(file);
+        long fullStateBytes = (long) steps * (4 + 2 + 1 + 1 + 2 + 2 * FLOORS);
+        assertEquals(steps, writer.getStepsRecorded());
+        assertTrue(size < steps, "Trace should take less than a byte per step: " + size);
+        assertTrue(fullStateBytes / size > 30, "Compression ratio too low: " + fullStateBytes / size);
+        
+        try (TraceReader reader = new TraceReader(file)) {
+            assertTrue(reader.seek(250000));
+            assertEquals(250000, reader.getStep());
+        }
+    }
+}